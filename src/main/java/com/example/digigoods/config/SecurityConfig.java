@@ -1,7 +1,12 @@
 package com.example.digigoods.config;
 
+import com.example.digigoods.security.BoundedPasswordEncoder;
 import com.example.digigoods.security.JwtAuthenticationEntryPoint;
 import com.example.digigoods.security.JwtAuthenticationFilter;
+import com.example.digigoods.security.PasswordHashingExecutor;
+import com.example.digigoods.security.RehashingBcryptPasswordEncoder;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,7 +14,7 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -30,9 +35,24 @@ public class SecurityConfig {
     this.jwtAuthenticationFilter = jwtAuthenticationFilter;
   }
 
+  /**
+   * Password encoder that hashes with BCrypt at the configured cost. Hashes stored without an
+   * <code>{id}</code> prefix are read as BCrypt; hashes with another prefix or cost are
+   * rehashed on the next successful login. Hashing runs on the bounded hashing executor.
+   *
+   * @param bcryptStrength the BCrypt cost for new hashes
+   * @param passwordHashingExecutor the executor that runs hash computations
+   * @return the password encoder
+   */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      @Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+      PasswordHashingExecutor passwordHashingExecutor) {
+    PasswordEncoder bcrypt = new RehashingBcryptPasswordEncoder(bcryptStrength);
+    DelegatingPasswordEncoder passwordEncoder =
+        new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+    passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+    return new BoundedPasswordEncoder(passwordEncoder, passwordHashingExecutor);
   }
 
   @Bean
@@ -46,8 +66,8 @@ public class SecurityConfig {
     http.csrf(csrf -> csrf.disable())
         .authorizeHttpRequests(authz -> authz
             .requestMatchers("/auth/**").permitAll()
-            .requestMatchers("/actuator/**").permitAll()
-            .requestMatchers("/products").permitAll()
+            .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+            .requestMatchers("/products", "/products/search").permitAll()
             .requestMatchers("/discounts").permitAll()
             .anyRequest().authenticated()
         )
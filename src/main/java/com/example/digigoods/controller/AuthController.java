@@ -2,10 +2,13 @@ package com.example.digigoods.controller;
 
 import com.example.digigoods.dto.LoginRequest;
 import com.example.digigoods.dto.LoginResponse;
+import com.example.digigoods.exception.MissingJwtTokenException;
+import com.example.digigoods.security.VerifiedToken;
 import com.example.digigoods.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -34,4 +37,21 @@ public class AuthController {
     LoginResponse response = authService.login(loginRequest);
     return ResponseEntity.ok(response);
   }
+
+  /**
+   * Logout endpoint; revokes every token of the authenticated user.
+   *
+   * @param verifiedToken the token verified by the authentication filter
+   * @return empty response
+   */
+  @PostMapping("/logout")
+  public ResponseEntity<Void> logout(
+      @RequestAttribute(name = VerifiedToken.REQUEST_ATTRIBUTE, required = false)
+      VerifiedToken verifiedToken) {
+    if (verifiedToken == null) {
+      throw new MissingJwtTokenException();
+    }
+    authService.logout(verifiedToken.userId());
+    return ResponseEntity.noContent().build();
+  }
 }
@@ -2,14 +2,18 @@ package com.example.digigoods.controller;
 
 import com.example.digigoods.dto.CheckoutRequest;
 import com.example.digigoods.dto.OrderResponse;
+import com.example.digigoods.dto.QuoteRequest;
+import com.example.digigoods.dto.QuoteResponse;
 import com.example.digigoods.exception.MissingJwtTokenException;
+import com.example.digigoods.security.VerifiedToken;
+import com.example.digigoods.service.CheckoutIdempotencyService;
 import com.example.digigoods.service.CheckoutService;
-import com.example.digigoods.service.JwtService;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -21,40 +25,47 @@ import org.springframework.web.bind.annotation.RestController;
 public class CheckoutController {
 
   private final CheckoutService checkoutService;
-  private final JwtService jwtService;
+  private final CheckoutIdempotencyService checkoutIdempotencyService;
 
-  public CheckoutController(CheckoutService checkoutService, JwtService jwtService) {
+  public CheckoutController(CheckoutService checkoutService,
+                            CheckoutIdempotencyService checkoutIdempotencyService) {
     this.checkoutService = checkoutService;
-    this.jwtService = jwtService;
+    this.checkoutIdempotencyService = checkoutIdempotencyService;
   }
 
   /**
-   * Create order endpoint.
+   * Create order endpoint. Retries sent with the same {@code Idempotency-Key} get the
+   * response of the first attempt instead of placing another order.
    *
    * @param checkoutRequest the checkout request
-   * @param request the HTTP servlet request
+   * @param verifiedToken the token verified by the authentication filter
+   * @param idempotencyKey the key identifying retries of one checkout, if any
    * @return order response
    */
   @PostMapping
   public ResponseEntity<OrderResponse> createOrder(
       @Valid @RequestBody CheckoutRequest checkoutRequest,
-      HttpServletRequest request) {
-    // Extract user ID from JWT token
-    String token = extractTokenFromRequest(request);
-    if (token == null) {
+      @RequestAttribute(name = VerifiedToken.REQUEST_ATTRIBUTE, required = false)
+      VerifiedToken verifiedToken,
+      @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+    if (verifiedToken == null) {
       throw new MissingJwtTokenException();
     }
-    Long authenticatedUserId = jwtService.extractUserId(token);
+    Long authenticatedUserId = verifiedToken.userId();
 
-    OrderResponse response = checkoutService.processCheckout(checkoutRequest, authenticatedUserId);
+    OrderResponse response = checkoutIdempotencyService.processCheckout(checkoutRequest,
+        authenticatedUserId, idempotencyKey);
     return ResponseEntity.ok(response);
   }
 
-  private String extractTokenFromRequest(HttpServletRequest request) {
-    String bearerToken = request.getHeader("Authorization");
-    if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-      return bearerToken.substring(7);
-    }
-    return null;
+  /**
+   * Quote endpoint: price baskets as checkout would, without placing orders.
+   *
+   * @param quoteRequest the baskets to price
+   * @return one quote per basket
+   */
+  @PostMapping("/quote")
+  public ResponseEntity<QuoteResponse> quote(@Valid @RequestBody QuoteRequest quoteRequest) {
+    return ResponseEntity.ok(checkoutService.quote(quoteRequest));
   }
 }
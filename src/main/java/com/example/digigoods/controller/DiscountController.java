@@ -1,6 +1,6 @@
 package com.example.digigoods.controller;
 
-import com.example.digigoods.model.Discount;
+import com.example.digigoods.dto.DiscountResponse;
 import com.example.digigoods.service.DiscountService;
 import java.util.List;
 import org.springframework.http.ResponseEntity;
@@ -27,8 +27,8 @@ public class DiscountController {
    * @return list of all discounts
    */
   @GetMapping
-  public ResponseEntity<List<Discount>> getAllDiscounts() {
-    List<Discount> discounts = discountService.getAllDiscounts();
+  public ResponseEntity<List<DiscountResponse>> getAllDiscounts() {
+    List<DiscountResponse> discounts = discountService.getAllDiscounts();
     return ResponseEntity.ok(discounts);
   }
 }
@@ -2,14 +2,17 @@ package com.example.digigoods.controller;
 
 import com.example.digigoods.dto.ErrorResponse;
 import com.example.digigoods.exception.ExcessiveDiscountException;
+import com.example.digigoods.exception.IdempotencyKeyConflictException;
 import com.example.digigoods.exception.InsufficientStockException;
 import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.exception.LoginCapacityExceededException;
 import com.example.digigoods.exception.MissingJwtTokenException;
 import com.example.digigoods.exception.ProductNotFoundException;
 import com.example.digigoods.exception.UnauthorizedAccessException;
 import com.example.digigoods.exception.UserNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.stream.Collectors;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -49,6 +52,18 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
   }
 
+  @ExceptionHandler(IdempotencyKeyConflictException.class)
+  public ResponseEntity<ErrorResponse> handleIdempotencyKeyConflictException(
+      IdempotencyKeyConflictException ex, HttpServletRequest request) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.UNPROCESSABLE_ENTITY.value(),
+        "Unprocessable Entity",
+        ex.getMessage(),
+        request.getRequestURI()
+    );
+    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+  }
+
   @ExceptionHandler(UnauthorizedAccessException.class)
   public ResponseEntity<ErrorResponse> handleUnauthorizedAccessException(
       UnauthorizedAccessException ex, HttpServletRequest request) {
@@ -85,6 +100,20 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
   }
 
+  @ExceptionHandler(LoginCapacityExceededException.class)
+  public ResponseEntity<ErrorResponse> handleLoginCapacityExceededException(
+      LoginCapacityExceededException ex, HttpServletRequest request) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.SERVICE_UNAVAILABLE.value(),
+        "Service Unavailable",
+        ex.getMessage(),
+        request.getRequestURI()
+    );
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(error);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ErrorResponse> handleValidationExceptions(
       MethodArgumentNotValidException ex, HttpServletRequest request) {
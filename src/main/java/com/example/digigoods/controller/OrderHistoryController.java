@@ -0,0 +1,54 @@
+package com.example.digigoods.controller;
+
+import com.example.digigoods.dto.OrderHistoryPageResponse;
+import com.example.digigoods.exception.MissingJwtTokenException;
+import com.example.digigoods.exception.UnauthorizedAccessException;
+import com.example.digigoods.security.VerifiedToken;
+import com.example.digigoods.service.OrderHistoryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for order history endpoints.
+ */
+@RestController
+@RequestMapping("/users")
+public class OrderHistoryController {
+
+  private final OrderHistoryService orderHistoryService;
+
+  public OrderHistoryController(OrderHistoryService orderHistoryService) {
+    this.orderHistoryService = orderHistoryService;
+  }
+
+  /**
+   * Get one page of the authenticated user's orders, newest first.
+   *
+   * @param userId the user ID
+   * @param limit the page size
+   * @param after the {@code nextCursor} of the previous page, omitted for the first page
+   * @param verifiedToken the token verified by the authentication filter
+   * @return page of order summaries
+   */
+  @GetMapping("/{userId}/orders")
+  public ResponseEntity<OrderHistoryPageResponse> getOrderHistory(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "20") int limit,
+      @RequestParam(required = false) Long after,
+      @RequestAttribute(name = VerifiedToken.REQUEST_ATTRIBUTE, required = false)
+      VerifiedToken verifiedToken) {
+    if (verifiedToken == null) {
+      throw new MissingJwtTokenException();
+    }
+    if (!userId.equals(verifiedToken.userId())) {
+      throw new UnauthorizedAccessException("User cannot read orders of another user");
+    }
+
+    return ResponseEntity.ok(orderHistoryService.getOrderHistory(userId, after, limit));
+  }
+}
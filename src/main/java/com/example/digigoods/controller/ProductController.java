@@ -1,12 +1,25 @@
 package com.example.digigoods.controller;
 
-import com.example.digigoods.model.Product;
+import com.example.digigoods.dto.ProductPageResponse;
+import com.example.digigoods.dto.ProductSearchRequest;
+import com.example.digigoods.service.ProductCatalogSnapshot;
+import com.example.digigoods.service.ProductCatalogSnapshot.Snapshot;
 import com.example.digigoods.service.ProductService;
-import java.util.List;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Controller for product endpoints.
@@ -16,19 +29,132 @@ import org.springframework.web.bind.annotation.RestController;
 public class ProductController {
 
   private final ProductService productService;
+  private final ProductCatalogSnapshot productCatalogSnapshot;
+  private final ObjectMapper objectMapper;
 
-  public ProductController(ProductService productService) {
+  public ProductController(ProductService productService,
+                           ProductCatalogSnapshot productCatalogSnapshot,
+                           ObjectMapper objectMapper) {
     this.productService = productService;
+    this.productCatalogSnapshot = productCatalogSnapshot;
+    this.objectMapper = objectMapper;
   }
 
   /**
    * Get all products endpoint.
    *
-   * @return list of all products
+   * <p>Serves the pre-rendered {@link ProductCatalogSnapshot}, gzipped when the client accepts
+   * it, with a strong ETag; a matching {@code If-None-Match} gets an empty 304.
+   *
+   * @param acceptEncoding the Accept-Encoding header, if any
+   * @param request the web request, used for the conditional GET check
+   * @return JSON array of all products, or 304 if the client's copy is current
    */
   @GetMapping
-  public ResponseEntity<List<Product>> getAllProducts() {
-    List<Product> products = productService.getAllProducts();
-    return ResponseEntity.ok(products);
+  public ResponseEntity<byte[]> getAllProducts(
+      @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      WebRequest request) {
+    Snapshot snapshot = productCatalogSnapshot.current();
+    boolean gzip = acceptsGzip(acceptEncoding);
+    String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
+
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag(etag)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+    }
+    return response.body(snapshot.json());
+  }
+
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    // gzip is acceptable with a non-zero q-value of its own, or of * when it is not listed
+    Double gzipQuality = null;
+    Double wildcardQuality = null;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parameters = coding.split(";");
+      String name = parameters[0].trim();
+      if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+        gzipQuality = quality(parameters);
+      } else if (name.equals("*")) {
+        wildcardQuality = quality(parameters);
+      }
+    }
+    Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+    return quality != null && quality > 0;
+  }
+
+  private static double quality(String[] parameters) {
+    for (int i = 1; i < parameters.length; i++) {
+      String parameter = parameters[i].trim();
+      if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2).trim());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  /**
+   * Get one page of products endpoint, paginated by product ID.
+   *
+   * @param limit the page size
+   * @param after the {@code nextCursor} of the previous page, omitted for the first page
+   * @return page of products
+   */
+  @GetMapping(params = "limit")
+  public ResponseEntity<ProductPageResponse> getProductPage(
+      @RequestParam int limit,
+      @RequestParam(required = false) Long after) {
+    ProductPageResponse page = productService.getProductPage(after, limit);
+    return ResponseEntity.ok(page);
+  }
+
+  /**
+   * Search products endpoint, paginated by product ID.
+   *
+   * @param searchRequest the filters, page size and cursor
+   * @return page of matching products
+   */
+  @GetMapping("/search")
+  public ResponseEntity<ProductPageResponse> searchProducts(
+      @Valid ProductSearchRequest searchRequest) {
+    ProductPageResponse page = productService.searchProducts(searchRequest);
+    return ResponseEntity.ok(page);
+  }
+
+  /**
+   * Stream all products endpoint. Writes the same JSON array as
+   * {@link #getAllProducts(String, WebRequest)},
+   * product by product as rows are read, without holding the catalog in memory.
+   *
+   * @param response the HTTP servlet response
+   * @throws IOException if writing the response fails
+   */
+  @GetMapping(params = "stream=true")
+  public void streamAllProducts(HttpServletResponse response) throws IOException {
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+      generator.writeStartArray();
+      productService.streamAllProducts(product -> {
+        try {
+          generator.writeObject(product);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      generator.writeEndArray();
+    }
   }
 }
@@ -0,0 +1,30 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the price of one basket, as checkout would compute it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BasketQuote {
+
+  /**
+   * Sum of the product prices; null if a product is not found.
+   */
+  private BigDecimal originalSubtotal;
+
+  /**
+   * Price with the discounts applied; null if the basket is rejected.
+   */
+  private BigDecimal finalPrice;
+
+  /**
+   * Why checkout would reject the basket; null if it would be accepted.
+   */
+  private String rejectionReason;
+}
@@ -0,0 +1,21 @@
+package com.example.digigoods.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one basket to quote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BasketRequest {
+
+  @NotEmpty(message = "Product IDs cannot be empty")
+  private List<Long> productIds;
+
+  private List<String> discountCodes;
+}
@@ -0,0 +1,33 @@
+package com.example.digigoods.dto;
+
+import com.example.digigoods.model.DiscountType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a discount as returned by read endpoints, projected straight from the database
+ * without loading a managed entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscountResponse {
+
+  private Long id;
+  private String code;
+  private BigDecimal percentage;
+  private DiscountType type;
+  private LocalDate validFrom;
+  private LocalDate validUntil;
+  private Integer remainingUses;
+
+  /**
+   * IDs of the products a product-specific discount applies to, in ascending order; empty
+   * for general discounts.
+   */
+  private List<Long> applicableProductIds;
+}
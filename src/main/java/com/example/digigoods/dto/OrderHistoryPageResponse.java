@@ -0,0 +1,22 @@
+package com.example.digigoods.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one keyset-paginated page of a user's orders, newest first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryPageResponse {
+
+  private List<OrderSummaryResponse> orders;
+
+  /**
+   * Value to pass as {@code after} to get the next page; null on the last page.
+   */
+  private Long nextCursor;
+}
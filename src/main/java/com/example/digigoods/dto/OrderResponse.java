@@ -15,4 +15,5 @@ public class OrderResponse {
 
   private String message;
   private BigDecimal finalPrice;
+  private Long orderId;
 }
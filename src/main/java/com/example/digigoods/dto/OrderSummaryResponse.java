@@ -0,0 +1,27 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for an order as listed in a user's order history, projected straight from the database
+ * without loading its lines or applied discounts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryResponse {
+
+  private Long id;
+  private LocalDateTime orderDate;
+  private BigDecimal originalSubtotal;
+  private BigDecimal finalPrice;
+
+  /**
+   * Number of items bought, counting each unit of a product.
+   */
+  private Integer itemCount;
+}
@@ -0,0 +1,21 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a product as returned by read endpoints, projected straight from the database
+ * without loading a managed entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductResponse {
+
+  private Long id;
+  private String name;
+  private BigDecimal price;
+  private Integer stock;
+}
@@ -0,0 +1,53 @@
+package com.example.digigoods.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for product search query parameters. Every filter is optional; filters that are set
+ * must all match.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchRequest {
+
+  /**
+   * Words that must all appear in the product name, in any order and case.
+   */
+  @Size(max = 100, message = "Search text should not exceed 100 characters")
+  private String text;
+
+  /**
+   * Case-insensitive start of the product name.
+   */
+  @Size(max = 100, message = "Name prefix should not exceed 100 characters")
+  private String prefix;
+
+  @DecimalMin(value = "0.00", message = "Minimum price cannot be negative")
+  private BigDecimal minPrice;
+
+  @DecimalMin(value = "0.00", message = "Maximum price cannot be negative")
+  private BigDecimal maxPrice;
+
+  private boolean inStock;
+
+  @Min(value = 1, message = "Limit must be at least 1")
+  private int limit = 20;
+
+  /**
+   * The {@code nextCursor} of the previous page, omitted for the first page.
+   */
+  private Long after;
+
+  @AssertTrue(message = "Minimum price cannot exceed maximum price")
+  private boolean isPriceRangeValid() {
+    return minPrice == null || maxPrice == null || minPrice.compareTo(maxPrice) <= 0;
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.digigoods.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a price quote of several baskets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteRequest {
+
+  @NotEmpty(message = "Baskets cannot be empty")
+  @Size(max = 100, message = "A quote should not exceed 100 baskets")
+  private List<@Valid BasketRequest> baskets;
+}
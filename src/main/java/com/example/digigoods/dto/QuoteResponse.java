@@ -0,0 +1,20 @@
+package com.example.digigoods.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a price quote of several baskets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteResponse {
+
+  /**
+   * One quote per requested basket, in request order.
+   */
+  private List<BasketQuote> quotes;
+}
@@ -0,0 +1,15 @@
+package com.example.digigoods.exception;
+
+/**
+ * Exception thrown when an idempotency key is reused for a different checkout request.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+  public IdempotencyKeyConflictException(String message) {
+    super(message);
+  }
+
+  public IdempotencyKeyConflictException() {
+    super("Idempotency key was already used for a different request");
+  }
+}
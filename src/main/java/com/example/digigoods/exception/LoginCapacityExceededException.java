@@ -0,0 +1,15 @@
+package com.example.digigoods.exception;
+
+/**
+ * Exception thrown when too many logins are already waiting for password hashing.
+ */
+public class LoginCapacityExceededException extends RuntimeException {
+
+  public LoginCapacityExceededException(String message) {
+    super(message);
+  }
+
+  public LoginCapacityExceededException() {
+    super("Too many concurrent login attempts, please retry shortly");
+  }
+}
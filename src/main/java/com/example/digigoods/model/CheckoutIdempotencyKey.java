@@ -0,0 +1,57 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a checkout placed with an {@code Idempotency-Key}, kept so retries of the same
+ * request get the same response without placing the order again.
+ */
+@Entity
+@Table(name = "checkout_idempotency_keys")
+@IdClass(CheckoutIdempotencyKeyId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutIdempotencyKey {
+
+  @Id
+  @Column(name = "user_id")
+  private Long userId;
+
+  /**
+   * SHA-256 of the key sent by the client, hex encoded; raw keys are never stored.
+   */
+  @Id
+  @Column(name = "key_hash", length = 64)
+  private String keyHash;
+
+  /**
+   * SHA-256 of the checkout request the key was first used with, hex encoded.
+   */
+  @Column(name = "request_hash", nullable = false, length = 64)
+  private String requestHash;
+
+  @Column(nullable = false)
+  private String message;
+
+  @Column(name = "final_price", nullable = false, precision = 10, scale = 2)
+  private BigDecimal finalPrice;
+
+  /**
+   * ID of the order placed, or null for keys stored before order IDs were returned.
+   */
+  @Column(name = "order_id")
+  private Long orderId;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package com.example.digigoods.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Composite primary key of {@link CheckoutIdempotencyKey}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutIdempotencyKeyId implements Serializable {
+
+  private Long userId;
+  private String keyHash;
+}
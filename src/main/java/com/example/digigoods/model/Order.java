@@ -5,11 +5,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -23,28 +25,26 @@ import lombok.NoArgsConstructor;
  * Order entity representing an order in the system.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_user_id_order_date",
+    columnList = "user_id, order_date DESC, id DESC"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
 
+  /**
+   * Taken from a pooled sequence, so inserting an order needs no generated key round trip and
+   * can be batched; one sequence call hands out {@code allocationSize} IDs.
+   */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+  @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
   private Long id;
 
   @ManyToOne
   @JoinColumn(name = "user_id", nullable = false)
   private User user;
 
-  @ManyToMany
-  @JoinTable(
-      name = "order_products",
-      joinColumns = @JoinColumn(name = "order_id"),
-      inverseJoinColumns = @JoinColumn(name = "product_id")
-  )
-  private Set<Product> products = new HashSet<>();
-
   @ManyToMany
   @JoinTable(
       name = "order_applied_discounts",
@@ -0,0 +1,47 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Line of an order: one product, how many of it were bought and at what price.
+ */
+@Entity
+@Table(name = "order_lines")
+@IdClass(OrderLineId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLine {
+
+  @Id
+  @Column(name = "order_id")
+  private Long orderId;
+
+  @Id
+  @Column(name = "product_id")
+  private Long productId;
+
+  @Column(nullable = false)
+  private Integer quantity;
+
+  /**
+   * Catalog price of one unit when the order was placed.
+   */
+  @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
+  private BigDecimal unitPrice;
+
+  /**
+   * Price of one unit after product-specific discounts. General discounts apply to the order
+   * as a whole and are only reflected in its final price.
+   */
+  @Column(name = "discounted_unit_price", nullable = false, precision = 10, scale = 2)
+  private BigDecimal discountedUnitPrice;
+}
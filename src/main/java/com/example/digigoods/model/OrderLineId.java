@@ -0,0 +1,18 @@
+package com.example.digigoods.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Composite primary key of {@link OrderLine}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLineId implements Serializable {
+
+  private Long orderId;
+  private Long productId;
+}
@@ -0,0 +1,67 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order accepted at checkout and not necessarily written to {@code orders} yet.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutboxEntry {
+
+  /**
+   * Number of the entry, increasing in the order entries are appended.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "entry_no")
+  private Long entryNo;
+
+  @Column(name = "order_id", nullable = false, unique = true)
+  private Long orderId;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  /**
+   * The priced order as JSON.
+   */
+  @Column(nullable = false, columnDefinition = "TEXT")
+  private String payload;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  /**
+   * When the order was written to {@code orders}, or null while it is pending.
+   */
+  @Column(name = "processed_at")
+  private LocalDateTime processedAt;
+
+  /**
+   * Failed attempts at writing the order.
+   */
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column(name = "last_error", length = 1000)
+  private String lastError;
+
+  /**
+   * When the entry was set aside after failing too often, or null while it is retried.
+   */
+  @Column(name = "failed_at")
+  private LocalDateTime failedAt;
+}
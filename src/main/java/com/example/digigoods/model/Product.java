@@ -1,10 +1,13 @@
 package com.example.digigoods.model;
 
+import com.example.digigoods.service.ProductCatalogInvalidator;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import lombok.AllArgsConstructor;
@@ -15,7 +18,8 @@ import lombok.NoArgsConstructor;
  * Product entity representing a product in the system.
  */
 @Entity
-@Table(name = "products")
+@EntityListeners(ProductCatalogInvalidator.class)
+@Table(name = "products", indexes = @Index(name = "idx_products_price", columnList = "price"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
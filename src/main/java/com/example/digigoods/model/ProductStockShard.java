@@ -0,0 +1,33 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock sub-counter of a hot product whose inventory is split across several rows.
+ */
+@Entity
+@Table(name = "product_stock_shards")
+@IdClass(ProductStockShardId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockShard {
+
+  @Id
+  @Column(name = "product_id")
+  private Long productId;
+
+  @Id
+  @Column(name = "shard_no")
+  private Integer shardNo;
+
+  @Column(nullable = false)
+  private Integer stock;
+}
@@ -0,0 +1,18 @@
+package com.example.digigoods.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Composite primary key of {@link ProductStockShard}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockShardId implements Serializable {
+
+  private Long productId;
+  private Integer shardNo;
+}
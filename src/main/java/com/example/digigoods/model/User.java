@@ -49,6 +49,12 @@ public class User {
   @Column(name = "updated_at")
   private LocalDateTime updatedAt;
 
+  /**
+   * Version embedded in issued tokens; incrementing it revokes every token issued before.
+   */
+  @Column(name = "token_version", nullable = false)
+  private int tokenVersion;
+
   /**
    * Constructor for basic user creation with username and password.
    *
@@ -0,0 +1,51 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.CheckoutIdempotencyKey;
+import com.example.digigoods.model.CheckoutIdempotencyKeyId;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for CheckoutIdempotencyKey entity.
+ */
+@Repository
+public interface CheckoutIdempotencyKeyRepository
+    extends JpaRepository<CheckoutIdempotencyKey, CheckoutIdempotencyKeyId> {
+
+  /**
+   * Insert a key without reading it first, so a key already taken by a concurrent request
+   * fails on the primary key instead of being overwritten.
+   *
+   * @param userId the user ID
+   * @param keyHash the hash of the idempotency key
+   * @param requestHash the hash of the checkout request
+   * @param message the response message
+   * @param finalPrice the response final price
+   * @param orderId the response order ID
+   * @param createdAt when the order was placed
+   */
+  @Modifying
+  @Query(value = "INSERT INTO checkout_idempotency_keys "
+      + "(user_id, key_hash, request_hash, message, final_price, order_id, created_at) "
+      + "VALUES (:userId, :keyHash, :requestHash, :message, :finalPrice, :orderId, :createdAt)",
+      nativeQuery = true)
+  void insert(@Param("userId") Long userId, @Param("keyHash") String keyHash,
+              @Param("requestHash") String requestHash, @Param("message") String message,
+              @Param("finalPrice") BigDecimal finalPrice, @Param("orderId") Long orderId,
+              @Param("createdAt") LocalDateTime createdAt);
+
+  /**
+   * Delete the keys created before a point in time.
+   *
+   * @param cutoff the oldest creation time to keep
+   * @return the number of deleted keys
+   */
+  @Modifying
+  @Query("DELETE FROM CheckoutIdempotencyKey k WHERE k.createdAt < :cutoff")
+  int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,7 +1,6 @@
 package com.example.digigoods.repository;
 
 import com.example.digigoods.model.Discount;
-import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -10,7 +9,8 @@ import org.springframework.stereotype.Repository;
  * Repository interface for Discount entity.
  */
 @Repository
-public interface DiscountRepository extends JpaRepository<Discount, Long> {
+public interface DiscountRepository extends JpaRepository<Discount, Long>,
+    DiscountRepositoryCustom {
 
   /**
    * Find a discount by its code.
@@ -19,12 +19,4 @@ public interface DiscountRepository extends JpaRepository<Discount, Long> {
    * @return an Optional containing the discount if found
    */
   Optional<Discount> findByCode(String code);
-
-  /**
-   * Find all discounts by their codes.
-   *
-   * @param codes the list of discount codes
-   * @return list of discounts
-   */
-  List<Discount> findAllByCodeIn(List<String> codes);
 }
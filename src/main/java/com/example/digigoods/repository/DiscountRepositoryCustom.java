@@ -0,0 +1,56 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.dto.DiscountResponse;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom repository operations for Discount entity that bypass the persistence context.
+ */
+public interface DiscountRepositoryCustom {
+
+  /**
+   * Read every discount in ID order with one query, aggregating the applicable product IDs
+   * of each discount in SQL instead of loading the products.
+   *
+   * @return all discounts in ID order
+   */
+  List<DiscountResponse> findAllResponses();
+
+  /**
+   * Read every discount that is still valid on or after a date, like
+   * {@link #findAllResponses()}.
+   *
+   * @param date the date
+   * @return the discounts not expired by that date, in ID order
+   */
+  List<DiscountResponse> findActiveResponses(LocalDate date);
+
+  /**
+   * Take one use of each discount in a single JDBC batch, skipping discounts that have no
+   * remaining uses left.
+   *
+   * @param discountIds the discount IDs
+   * @return the IDs of the discounts that had no remaining uses
+   */
+  List<Long> decrementRemainingUses(Collection<Long> discountIds);
+
+  /**
+   * Move up to {@code maxUses} remaining uses out of a discount row, locking it only for the
+   * calling transaction. Must be called inside a transaction.
+   *
+   * @param discountId the discount ID
+   * @param maxUses the most uses to take
+   * @return the number of uses taken, zero if none are left
+   */
+  int leaseRemainingUses(Long discountId, int maxUses);
+
+  /**
+   * Give previously leased uses back to a discount row.
+   *
+   * @param discountId the discount ID
+   * @param uses the number of uses to give back
+   */
+  void returnRemainingUses(Long discountId, int uses);
+}
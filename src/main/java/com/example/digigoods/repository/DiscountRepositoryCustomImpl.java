@@ -0,0 +1,134 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.dto.DiscountResponse;
+import com.example.digigoods.model.DiscountType;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link DiscountRepositoryCustom}.
+ */
+public class DiscountRepositoryCustomImpl implements DiscountRepositoryCustom {
+
+  private static final String SELECT_RESPONSES_SQL =
+      "SELECT d.id, d.code, d.percentage, d.type, d.valid_from, d.valid_until, "
+          + "d.remaining_uses, ARRAY_AGG(dap.product_id ORDER BY dap.product_id) "
+          + "FILTER (WHERE dap.product_id IS NOT NULL) AS applicable_product_ids "
+          + "FROM discounts d "
+          + "LEFT JOIN discount_applicable_products dap ON dap.discount_id = d.id ";
+
+  private static final String GROUP_RESPONSES_SQL =
+      "GROUP BY d.id, d.code, d.percentage, d.type, d.valid_from, d.valid_until, "
+          + "d.remaining_uses "
+          + "ORDER BY d.id";
+
+  private static final String FIND_ALL_RESPONSES_SQL = SELECT_RESPONSES_SQL
+      + GROUP_RESPONSES_SQL;
+
+  private static final String FIND_ACTIVE_RESPONSES_SQL = SELECT_RESPONSES_SQL
+      + "WHERE d.valid_until >= ? "
+      + GROUP_RESPONSES_SQL;
+
+  private static final String DECREMENT_REMAINING_USES_SQL =
+      "UPDATE discounts SET remaining_uses = remaining_uses - 1 "
+          + "WHERE id = ? AND remaining_uses > 0";
+
+  private static final String LOCK_REMAINING_USES_SQL =
+      "SELECT remaining_uses FROM discounts WHERE id = ? FOR UPDATE";
+
+  private static final String SUBTRACT_REMAINING_USES_SQL =
+      "UPDATE discounts SET remaining_uses = remaining_uses - ? WHERE id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public DiscountRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public List<DiscountResponse> findAllResponses() {
+    return jdbcTemplate.query(FIND_ALL_RESPONSES_SQL, (resultSet, rowNum) ->
+        toResponse(resultSet));
+  }
+
+  @Override
+  public List<DiscountResponse> findActiveResponses(LocalDate date) {
+    return jdbcTemplate.query(FIND_ACTIVE_RESPONSES_SQL, (resultSet, rowNum) ->
+        toResponse(resultSet), date);
+  }
+
+  @Override
+  public List<Long> decrementRemainingUses(Collection<Long> discountIds) {
+    if (discountIds.isEmpty()) {
+      return List.of();
+    }
+
+    List<Long> ids = List.copyOf(discountIds);
+    List<Object[]> batchArgs = new ArrayList<>(ids.size());
+    for (Long discountId : ids) {
+      batchArgs.add(new Object[] {discountId});
+    }
+    int[] updateCounts = jdbcTemplate.batchUpdate(DECREMENT_REMAINING_USES_SQL, batchArgs);
+
+    List<Long> exhaustedIds = new ArrayList<>();
+    for (int i = 0; i < updateCounts.length; i++) {
+      if (updateCounts[i] == 0) {
+        exhaustedIds.add(ids.get(i));
+      }
+    }
+    return exhaustedIds;
+  }
+
+  @Override
+  public int leaseRemainingUses(Long discountId, int maxUses) {
+    List<Integer> remainingUses = jdbcTemplate.queryForList(LOCK_REMAINING_USES_SQL,
+        Integer.class, discountId);
+    if (remainingUses.isEmpty() || remainingUses.get(0) <= 0) {
+      return 0;
+    }
+
+    int leased = Math.min(remainingUses.get(0), maxUses);
+    jdbcTemplate.update(SUBTRACT_REMAINING_USES_SQL, leased, discountId);
+    return leased;
+  }
+
+  @Override
+  public void returnRemainingUses(Long discountId, int uses) {
+    jdbcTemplate.update(SUBTRACT_REMAINING_USES_SQL, -uses, discountId);
+  }
+
+  private static DiscountResponse toResponse(ResultSet resultSet) throws SQLException {
+    return new DiscountResponse(
+        resultSet.getLong("id"),
+        resultSet.getString("code"),
+        resultSet.getBigDecimal("percentage"),
+        DiscountType.valueOf(resultSet.getString("type")),
+        resultSet.getObject("valid_from", LocalDate.class),
+        resultSet.getObject("valid_until", LocalDate.class),
+        resultSet.getInt("remaining_uses"),
+        productIds(resultSet));
+  }
+
+  private static List<Long> productIds(ResultSet resultSet) throws SQLException {
+    Array array = resultSet.getArray("applicable_product_ids");
+    if (array == null) {
+      return List.of();
+    }
+    try {
+      Object[] values = (Object[]) array.getArray();
+      List<Long> productIds = new ArrayList<>(values.length);
+      for (Object value : values) {
+        productIds.add(((Number) value).longValue());
+      }
+      return productIds;
+    } finally {
+      array.free();
+    }
+  }
+}
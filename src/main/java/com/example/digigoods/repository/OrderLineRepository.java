@@ -0,0 +1,23 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.OrderLine;
+import com.example.digigoods.model.OrderLineId;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for OrderLine entity. Lines are written by
+ * {@link OrderRepositoryCustom#insertOrderLines}; this repository only reads them.
+ */
+@Repository
+public interface OrderLineRepository extends JpaRepository<OrderLine, OrderLineId> {
+
+  /**
+   * Find the lines of an order, in product ID order.
+   *
+   * @param orderId the order ID
+   * @return the order lines
+   */
+  List<OrderLine> findByOrderIdOrderByProductId(Long orderId);
+}
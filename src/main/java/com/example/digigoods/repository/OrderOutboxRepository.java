@@ -0,0 +1,99 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.OrderOutboxEntry;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for OrderOutboxEntry entity.
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEntry, Long> {
+
+  /**
+   * Lock the oldest pending entries. A concurrent claim waits for the lock and then skips the
+   * entries processed meanwhile, so entries are processed in outbox order across nodes.
+   * Entries set aside after failing are not claimed.
+   *
+   * @param limit the maximum number of entries
+   * @return the pending entries, in outbox order
+   */
+  @Query(value = "SELECT * FROM order_outbox WHERE processed_at IS NULL AND failed_at IS NULL "
+      + "ORDER BY entry_no LIMIT :limit FOR UPDATE", nativeQuery = true)
+  List<OrderOutboxEntry> claimPending(@Param("limit") int limit);
+
+  /**
+   * Lock one entry if it is still pending.
+   *
+   * @param entryNo the entry number
+   * @return the entry, or empty if it was processed or set aside meanwhile
+   */
+  @Query(value = "SELECT * FROM order_outbox WHERE entry_no = :entryNo "
+      + "AND processed_at IS NULL AND failed_at IS NULL FOR UPDATE", nativeQuery = true)
+  List<OrderOutboxEntry> claimPendingEntry(@Param("entryNo") Long entryNo);
+
+  /**
+   * Count a failed attempt at writing a pending entry, setting it aside once it has failed
+   * {@code maxAttempts} times.
+   *
+   * @param entryNo the entry number
+   * @param error the failure
+   * @param maxAttempts the number of failed attempts after which the entry is set aside
+   * @param failedAt when it failed
+   */
+  @Modifying
+  @Query(value = "UPDATE order_outbox SET attempts = attempts + 1, last_error = :error, "
+      + "failed_at = CASE WHEN attempts + 1 >= :maxAttempts THEN :failedAt END "
+      + "WHERE entry_no = :entryNo AND processed_at IS NULL", nativeQuery = true)
+  void recordFailure(@Param("entryNo") Long entryNo, @Param("error") String error,
+                     @Param("maxAttempts") int maxAttempts,
+                     @Param("failedAt") LocalDateTime failedAt);
+
+  /**
+   * Mark entries as processed.
+   *
+   * @param entryNos the entry numbers
+   * @param processedAt when they were processed
+   */
+  @Modifying
+  @Query("UPDATE OrderOutboxEntry e SET e.processedAt = :processedAt "
+      + "WHERE e.entryNo IN :entryNos")
+  void markProcessed(@Param("entryNos") Collection<Long> entryNos,
+                     @Param("processedAt") LocalDateTime processedAt);
+
+  /**
+   * Mark the entries of a range of orders as pending again, including entries set aside after
+   * failing, which get a fresh set of attempts.
+   *
+   * @param fromOrderId the first order ID, inclusive
+   * @param toOrderId the last order ID, inclusive
+   * @return the number of entries marked
+   */
+  @Modifying
+  @Query("UPDATE OrderOutboxEntry e SET e.processedAt = NULL, e.failedAt = NULL, "
+      + "e.attempts = 0 WHERE e.orderId BETWEEN :fromOrderId AND :toOrderId")
+  int markPending(@Param("fromOrderId") Long fromOrderId, @Param("toOrderId") Long toOrderId);
+
+  /**
+   * Delete the entries processed before a point in time.
+   *
+   * @param cutoff the oldest processing time to keep
+   * @return the number of deleted entries
+   */
+  @Modifying
+  @Query("DELETE FROM OrderOutboxEntry e WHERE e.processedAt < :cutoff")
+  int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+  /**
+   * Count the entries not processed yet.
+   *
+   * @return the number of pending entries
+   */
+  long countByProcessedAtIsNull();
+}
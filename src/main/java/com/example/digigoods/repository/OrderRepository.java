@@ -1,12 +1,25 @@
 package com.example.digigoods.repository;
 
 import com.example.digigoods.model.Order;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository interface for Order entity.
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+  /**
+   * Find which of the given orders exist, without loading them.
+   *
+   * @param ids the order IDs
+   * @return the IDs of the orders that exist
+   */
+  @Query("SELECT o.id FROM Order o WHERE o.id IN :ids")
+  List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
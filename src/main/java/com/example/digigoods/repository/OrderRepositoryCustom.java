@@ -0,0 +1,68 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.dto.OrderSummaryResponse;
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.OrderLine;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Custom repository operations for Order entity that bypass the persistence context.
+ */
+public interface OrderRepositoryCustom {
+
+  /**
+   * Find the summaries of a user's orders, newest first, starting after a given order.
+   *
+   * <p>Each page is one range scan of the index on {@code (user_id, order_date DESC, id DESC)},
+   * which on PostgreSQL also holds the prices; the item count sums the order's lines through
+   * their primary key.
+   *
+   * @param userId the user ID
+   * @param afterOrderId the ID of the last order already returned, or null for the newest
+   * @param limit the maximum number of orders to return
+   * @return the order summaries, ordered by date and then ID, both descending; empty if the
+   *         order to start after does not exist
+   */
+  List<OrderSummaryResponse> findSummariesByUserId(Long userId, Long afterOrderId, int limit);
+
+  /**
+   * Allocate an order ID from the same pooled sequence as {@link Order#getId()}, without
+   * inserting anything, so an order can be referenced before its row is written.
+   *
+   * @return the order ID
+   */
+  Long allocateOrderId();
+
+  /**
+   * Insert orders whose IDs are already allocated in a single JDBC batch.
+   *
+   * @param orders the orders, with ID, user, prices and order date set
+   */
+  void insertOrders(Collection<Order> orders);
+
+  /**
+   * Insert the lines of an already inserted order in a single JDBC batch, without loading the
+   * products.
+   *
+   * @param lines the order lines, one per distinct product
+   */
+  void insertOrderLines(Collection<OrderLine> lines);
+
+  /**
+   * Link applied discounts to an already inserted order in a single JDBC batch, without
+   * loading the discounts.
+   *
+   * @param orderId the order ID
+   * @param discountIds the distinct discount IDs
+   */
+  void insertOrderAppliedDiscounts(Long orderId, Collection<Long> discountIds);
+
+  /**
+   * Link applied discounts to several already inserted orders in a single JDBC batch.
+   *
+   * @param discountIdsByOrderId the distinct discount IDs of each order, keyed by order ID
+   */
+  void insertOrderAppliedDiscounts(Map<Long, ? extends Collection<Long>> discountIdsByOrderId);
+}
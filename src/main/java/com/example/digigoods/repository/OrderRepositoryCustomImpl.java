@@ -0,0 +1,139 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.dto.OrderSummaryResponse;
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.OrderLine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link OrderRepositoryCustom}.
+ */
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+  private static final String SELECT_SUMMARIES_SQL =
+      "SELECT o.id, o.order_date, o.original_subtotal, o.final_price, "
+          + "(SELECT COALESCE(SUM(l.quantity), 0) FROM order_lines l "
+          + "WHERE l.order_id = o.id) AS item_count "
+          + "FROM orders o "
+          + "WHERE o.user_id = ? ";
+
+  private static final String ORDER_SUMMARIES_SQL =
+      "ORDER BY o.order_date DESC, o.id DESC LIMIT ?";
+
+  private static final String FIND_FIRST_SUMMARIES_SQL = SELECT_SUMMARIES_SQL
+      + ORDER_SUMMARIES_SQL;
+
+  private static final String FIND_SUMMARIES_AFTER_SQL = SELECT_SUMMARIES_SQL
+      + "AND (o.order_date, o.id) < (SELECT c.order_date, c.id FROM orders c WHERE c.id = ?) "
+      + ORDER_SUMMARIES_SQL;
+
+  private static final String INSERT_ORDER_SQL =
+      "INSERT INTO orders (id, user_id, original_subtotal, final_price, order_date) "
+      + "VALUES (?, ?, ?, ?, ?)";
+
+  private static final String INSERT_ORDER_LINE_SQL =
+      "INSERT INTO order_lines "
+      + "(order_id, product_id, quantity, unit_price, discounted_unit_price) "
+      + "VALUES (?, ?, ?, ?, ?)";
+
+  private static final String INSERT_ORDER_APPLIED_DISCOUNT_SQL =
+      "INSERT INTO order_applied_discounts (order_id, discount_id) VALUES (?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public OrderRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public List<OrderSummaryResponse> findSummariesByUserId(Long userId, Long afterOrderId,
+                                                          int limit) {
+    if (afterOrderId == null) {
+      return jdbcTemplate.query(FIND_FIRST_SUMMARIES_SQL, (resultSet, rowNum) ->
+          toSummary(resultSet), userId, limit);
+    }
+    return jdbcTemplate.query(FIND_SUMMARIES_AFTER_SQL, (resultSet, rowNum) ->
+        toSummary(resultSet), userId, afterOrderId, limit);
+  }
+
+  @Override
+  public Long allocateOrderId() {
+    SharedSessionContractImplementor session =
+        entityManager.unwrap(SharedSessionContractImplementor.class);
+    BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory()
+        .getMappingMetamodel()
+        .getEntityDescriptor(Order.class)
+        .getGenerator();
+    return (Long) generator.generate(session, null, null, EventType.INSERT);
+  }
+
+  @Override
+  public void insertOrders(Collection<Order> orders) {
+    if (orders.isEmpty()) {
+      return;
+    }
+
+    List<Object[]> batchArgs = new ArrayList<>(orders.size());
+    for (Order order : orders) {
+      batchArgs.add(new Object[] {order.getId(), order.getUser().getId(),
+          order.getOriginalSubtotal(), order.getFinalPrice(), order.getOrderDate()});
+    }
+    jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, batchArgs);
+  }
+
+  @Override
+  public void insertOrderLines(Collection<OrderLine> lines) {
+    if (lines.isEmpty()) {
+      return;
+    }
+
+    List<Object[]> batchArgs = new ArrayList<>(lines.size());
+    for (OrderLine line : lines) {
+      batchArgs.add(new Object[] {line.getOrderId(), line.getProductId(), line.getQuantity(),
+          line.getUnitPrice(), line.getDiscountedUnitPrice()});
+    }
+    jdbcTemplate.batchUpdate(INSERT_ORDER_LINE_SQL, batchArgs);
+  }
+
+  @Override
+  public void insertOrderAppliedDiscounts(Long orderId, Collection<Long> discountIds) {
+    insertOrderAppliedDiscounts(Map.of(orderId, discountIds));
+  }
+
+  @Override
+  public void insertOrderAppliedDiscounts(
+      Map<Long, ? extends Collection<Long>> discountIdsByOrderId) {
+    List<Object[]> batchArgs = new ArrayList<>();
+    discountIdsByOrderId.forEach((orderId, discountIds) -> {
+      for (Long discountId : discountIds) {
+        batchArgs.add(new Object[] {orderId, discountId});
+      }
+    });
+    if (!batchArgs.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_ORDER_APPLIED_DISCOUNT_SQL, batchArgs);
+    }
+  }
+
+  private static OrderSummaryResponse toSummary(ResultSet resultSet) throws SQLException {
+    return new OrderSummaryResponse(
+        resultSet.getLong("id"),
+        resultSet.getTimestamp("order_date").toLocalDateTime(),
+        resultSet.getBigDecimal("original_subtotal"),
+        resultSet.getBigDecimal("final_price"),
+        resultSet.getInt("item_count"));
+  }
+}
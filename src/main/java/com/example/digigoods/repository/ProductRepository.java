@@ -1,15 +1,20 @@
 package com.example.digigoods.repository;
 
+import com.example.digigoods.dto.ProductResponse;
 import com.example.digigoods.model.Product;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository interface for Product entity.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>,
+    ProductRepositoryCustom {
 
   /**
    * Find all products by their IDs.
@@ -18,4 +23,25 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
    * @return list of products
    */
   List<Product> findAllByIdIn(List<Long> ids);
+
+  /**
+   * Read every product in ID order as response DTOs, without loading managed entities.
+   *
+   * @return all products in ID order
+   */
+  @Query("SELECT new com.example.digigoods.dto.ProductResponse(p.id, p.name, p.price, p.stock) "
+      + "FROM Product p ORDER BY p.id")
+  List<ProductResponse> findAllResponses();
+
+  /**
+   * Find the next products after a keyset cursor as response DTOs, without loading managed
+   * entities.
+   *
+   * @param id the ID of the last product already returned
+   * @param limit the maximum number of products to return
+   * @return products with a greater ID, in ID order
+   */
+  @Query("SELECT new com.example.digigoods.dto.ProductResponse(p.id, p.name, p.price, p.stock) "
+      + "FROM Product p WHERE p.id > :id ORDER BY p.id")
+  List<ProductResponse> findResponsesAfter(@Param("id") Long id, Limit limit);
 }
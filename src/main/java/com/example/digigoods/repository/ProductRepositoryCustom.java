@@ -0,0 +1,56 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.dto.ProductResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Custom repository operations for Product entity that bypass the persistence context.
+ */
+public interface ProductRepositoryCustom {
+
+  /**
+   * Atomically decrement stock for several products in a single JDBC batch.
+   *
+   * <p>Each row is only updated when it still holds at least the requested quantity, so
+   * concurrent checkouts can never drive stock below zero or overwrite each other.
+   *
+   * @param quantities the requested quantity keyed by product ID, in the order to apply them
+   * @return the update count for each entry, in the iteration order of {@code quantities};
+   *         a count of zero means the product is missing or has insufficient stock
+   */
+  int[] decrementStock(Map<Long, Integer> quantities);
+
+  /**
+   * Unconditionally subtract already reserved quantities from stock in a single JDBC batch.
+   *
+   * @param quantities the quantity to subtract keyed by product ID; negative values add stock
+   */
+  void subtractStock(Map<Long, Integer> quantities);
+
+  /**
+   * Read every product in ID order through a forward-only JDBC cursor, handing each row to the
+   * consumer as it is fetched. Products are response DTOs, not managed entities, so memory use
+   * does not grow with the catalog size.
+   *
+   * <p>Must run inside a transaction for the driver to fetch rows in chunks.
+   *
+   * @param fetchSize the number of rows fetched per round trip
+   * @param consumer receives each product in ID order
+   */
+  void streamAll(int fetchSize, Consumer<ProductResponse> consumer);
+
+  /**
+   * Find products matching the search criteria in ID order, one page at a time.
+   *
+   * <p>Name filters are case-insensitive {@code LIKE} patterns on {@code lower(name)}, served
+   * on PostgreSQL by the trigram and prefix indexes; the price range by the index on
+   * {@code price}.
+   *
+   * @param criteria the filters and the keyset cursor
+   * @param limit the maximum number of products to return
+   * @return the matching products after the cursor as response DTOs, in ID order
+   */
+  List<ProductResponse> search(ProductSearchCriteria criteria, int limit);
+}
@@ -0,0 +1,121 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.dto.ProductResponse;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * JDBC implementation of {@link ProductRepositoryCustom}.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+  private static final String DECREMENT_STOCK_SQL =
+      "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?";
+
+  private static final String SUBTRACT_STOCK_SQL =
+      "UPDATE products SET stock = stock - ? WHERE id = ?";
+
+  private static final String STREAM_ALL_SQL =
+      "SELECT id, name, price, stock FROM products ORDER BY id";
+
+  private static final String SEARCH_SQL =
+      "SELECT id, name, price, stock FROM products WHERE id > ?";
+
+  private static final RowMapper<ProductResponse> PRODUCT_ROW_MAPPER = (resultSet, rowNum) ->
+      new ProductResponse(
+          resultSet.getLong("id"),
+          resultSet.getString("name"),
+          resultSet.getBigDecimal("price"),
+          resultSet.getInt("stock"));
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public ProductRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public int[] decrementStock(Map<Long, Integer> quantities) {
+    if (quantities.isEmpty()) {
+      return new int[0];
+    }
+
+    List<Object[]> batchArgs = new ArrayList<>(quantities.size());
+    for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+      batchArgs.add(new Object[] {entry.getValue(), entry.getKey(), entry.getValue()});
+    }
+    return jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, batchArgs);
+  }
+
+  @Override
+  public void subtractStock(Map<Long, Integer> quantities) {
+    if (quantities.isEmpty()) {
+      return;
+    }
+
+    List<Object[]> batchArgs = new ArrayList<>(quantities.size());
+    for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+      batchArgs.add(new Object[] {entry.getValue(), entry.getKey()});
+    }
+    jdbcTemplate.batchUpdate(SUBTRACT_STOCK_SQL, batchArgs);
+  }
+
+  @Override
+  public void streamAll(int fetchSize, Consumer<ProductResponse> consumer) {
+    jdbcTemplate.query(connection -> {
+      PreparedStatement statement = connection.prepareStatement(STREAM_ALL_SQL,
+          ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      statement.setFetchSize(fetchSize);
+      return statement;
+    }, resultSet -> {
+      consumer.accept(PRODUCT_ROW_MAPPER.mapRow(resultSet, 0));
+    });
+  }
+
+  @Override
+  public List<ProductResponse> search(ProductSearchCriteria criteria, int limit) {
+    StringBuilder sql = new StringBuilder(SEARCH_SQL);
+    List<Object> args = new ArrayList<>();
+    args.add(criteria.afterId() == null ? Long.MIN_VALUE : criteria.afterId());
+
+    for (String term : criteria.terms()) {
+      sql.append(" AND LOWER(name) LIKE ? ESCAPE '\\'");
+      args.add("%" + escapeLike(term) + "%");
+    }
+    if (criteria.prefix() != null) {
+      sql.append(" AND LOWER(name) LIKE ? ESCAPE '\\'");
+      args.add(escapeLike(criteria.prefix()) + "%");
+    }
+    if (criteria.minPrice() != null) {
+      sql.append(" AND price >= ?");
+      args.add(criteria.minPrice());
+    }
+    if (criteria.maxPrice() != null) {
+      sql.append(" AND price <= ?");
+      args.add(criteria.maxPrice());
+    }
+    if (criteria.inStockOnly() && criteria.inStockIds().isEmpty()) {
+      sql.append(" AND stock > 0");
+    } else if (criteria.inStockOnly()) {
+      sql.append(" AND (stock > 0 OR id IN (")
+          .append(String.join(", ", Collections.nCopies(criteria.inStockIds().size(), "?")))
+          .append("))");
+      args.addAll(criteria.inStockIds());
+    }
+    sql.append(" ORDER BY id LIMIT ?");
+    args.add(limit);
+
+    return jdbcTemplate.query(sql.toString(), PRODUCT_ROW_MAPPER, args.toArray());
+  }
+
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -0,0 +1,27 @@
+package com.example.digigoods.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filters of a product search, already normalized. Null or empty filters are not applied.
+ *
+ * @param terms lower-case words that must all appear in the name
+ * @param prefix lower-case start of the name
+ * @param minPrice the lowest price, inclusive
+ * @param maxPrice the highest price, inclusive
+ * @param inStockOnly whether to skip products without stock
+ * @param inStockIds products whose stock is held outside {@code products.stock} and that
+ *                   count as in stock
+ * @param afterId the ID of the last product of the previous page, or null for the first page
+ */
+public record ProductSearchCriteria(
+    List<String> terms,
+    String prefix,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    boolean inStockOnly,
+    Set<Long> inStockIds,
+    Long afterId) {
+}
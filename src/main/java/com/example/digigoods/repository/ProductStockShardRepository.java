@@ -0,0 +1,92 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.ProductStockShard;
+import com.example.digigoods.model.ProductStockShardId;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for ProductStockShard entity.
+ */
+@Repository
+public interface ProductStockShardRepository
+    extends JpaRepository<ProductStockShard, ProductStockShardId> {
+
+  /**
+   * Projection of the shard count of a sharded product.
+   */
+  interface ShardCount {
+
+    Long getProductId();
+
+    Long getShardCount();
+  }
+
+  /**
+   * Projection of the total stock of a sharded product.
+   */
+  interface ShardedStock {
+
+    Long getProductId();
+
+    Long getTotalStock();
+  }
+
+  /**
+   * Find the shard count of every sharded product among the given IDs.
+   *
+   * @param productIds the product IDs
+   * @return shard counts of the products that are sharded
+   */
+  @Query("SELECT s.productId AS productId, COUNT(s) AS shardCount FROM ProductStockShard s "
+      + "WHERE s.productId IN :productIds GROUP BY s.productId")
+  List<ShardCount> countShardsByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+  /**
+   * Sum the shard stock of every sharded product.
+   *
+   * @return total stock of each sharded product
+   */
+  @Query("SELECT s.productId AS productId, SUM(s.stock) AS totalStock FROM ProductStockShard s "
+      + "GROUP BY s.productId")
+  List<ShardedStock> sumStockGroupByProductId();
+
+  /**
+   * Sum the shard stock of a single product.
+   *
+   * @param productId the product ID
+   * @return total stock, or null if the product is not sharded
+   */
+  @Query("SELECT SUM(s.stock) FROM ProductStockShard s WHERE s.productId = :productId")
+  Long sumStockByProductId(@Param("productId") Long productId);
+
+  /**
+   * Decrement a single shard if it still holds the requested quantity.
+   *
+   * @param productId the product ID
+   * @param shardNo the shard number
+   * @param quantity the quantity to take
+   * @return 1 if the shard was decremented, 0 otherwise
+   */
+  @Modifying
+  @Query("UPDATE ProductStockShard s SET s.stock = s.stock - :quantity "
+      + "WHERE s.productId = :productId AND s.shardNo = :shardNo AND s.stock >= :quantity")
+  int decrementShard(@Param("productId") Long productId, @Param("shardNo") int shardNo,
+                     @Param("quantity") int quantity);
+
+  /**
+   * Find and lock all shards of a product.
+   *
+   * @param productId the product ID
+   * @return shards ordered by shard number
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  List<ProductStockShard> findAllByProductIdOrderByShardNo(Long productId);
+}
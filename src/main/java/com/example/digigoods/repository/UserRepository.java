@@ -3,6 +3,8 @@ package com.example.digigoods.repository;
 import com.example.digigoods.model.User;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,4 +20,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
    * @return an Optional containing the user if found
    */
   Optional<User> findByUsername(String username);
+
+  /**
+   * Find the current token version of a user.
+   *
+   * @param id the user ID
+   * @return an Optional containing the token version if the user exists
+   */
+  @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+  Optional<Integer> findTokenVersionById(Long id);
+
+  /**
+   * Increment the token version of a user, revoking all tokens issued so far.
+   *
+   * @param id the user ID
+   * @return the number of updated rows
+   */
+  @Modifying
+  @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+  int incrementTokenVersion(Long id);
+
+  /**
+   * Replace the stored password hash of a user.
+   *
+   * @param username the username
+   * @param password the new password hash
+   * @return the number of updated rows
+   */
+  @Modifying
+  @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+  int updatePasswordByUsername(String username, String password);
 }
@@ -0,0 +1,24 @@
+package com.example.digigoods.security;
+
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Authenticated principal that also carries the user ID and token version, so issuing a token
+ * after login needs no second user lookup.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class AuthenticatedUser extends User {
+
+  private final Long userId;
+  private final int tokenVersion;
+
+  public AuthenticatedUser(Long userId, String username, String password, int tokenVersion) {
+    super(username, password, List.of());
+    this.userId = userId;
+    this.tokenVersion = tokenVersion;
+  }
+}
@@ -1,6 +1,5 @@
 package com.example.digigoods.security;
 
-import com.example.digigoods.service.JwtService;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
@@ -9,8 +8,11 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,16 +21,26 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 /**
  * JWT authentication filter.
+ *
+ * <p>With {@code jwt.stateless.enabled} the authentication is built from the verified claims
+ * alone, without loading the user; revocation is then enforced by the token version.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-  private final JwtService jwtService;
+  private final VerifiedTokenCache verifiedTokenCache;
   private final UserDetailsService userDetailsService;
+  private final TokenRevocationService tokenRevocationService;
 
-  public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
-    this.jwtService = jwtService;
+  @Value("${jwt.stateless.enabled:false}")
+  private boolean stateless;
+
+  public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache,
+                                 UserDetailsService userDetailsService,
+                                 TokenRevocationService tokenRevocationService) {
+    this.verifiedTokenCache = verifiedTokenCache;
     this.userDetailsService = userDetailsService;
+    this.tokenRevocationService = tokenRevocationService;
   }
 
   @Override
@@ -36,13 +48,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
     final String requestTokenHeader = request.getHeader("Authorization");
 
-    String username = null;
-    String jwtToken = null;
+    VerifiedToken verifiedToken = null;
 
     if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-      jwtToken = requestTokenHeader.substring(7);
+      String jwtToken = requestTokenHeader.substring(7);
       try {
-        username = jwtService.extractUsername(jwtToken);
+        verifiedToken = verifiedTokenCache.verify(jwtToken);
       } catch (IllegalArgumentException e) {
         logger.error("Unable to get JWT Token");
       } catch (ExpiredJwtException e) {
@@ -54,10 +65,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       }
     }
 
-    if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-      UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+    if (verifiedToken != null && verifiedToken.username() != null
+        && SecurityContextHolder.getContext().getAuthentication() == null
+        && !tokenRevocationService.isRevoked(verifiedToken)) {
+      UserDetails userDetails = stateless
+          ? new User(verifiedToken.username(), "", List.of())
+          : this.userDetailsService.loadUserByUsername(verifiedToken.username());
 
-      if (jwtService.validateToken(jwtToken, userDetails.getUsername())) {
+      if (verifiedToken.username().equals(userDetails.getUsername())) {
+        request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verifiedToken);
         UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
             new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
@@ -0,0 +1,81 @@
+package com.example.digigoods.security;
+
+import com.example.digigoods.exception.LoginCapacityExceededException;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded pool that runs password hashing off the request threads.
+ *
+ * <p>At most {@code security.password.hashing-threads} hashes run at once, so a login storm
+ * cannot take every CPU from checkout. Up to {@code security.password.hashing-queue} more wait;
+ * beyond that a login fails fast with {@link LoginCapacityExceededException}.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+  private final ThreadPoolExecutor executor;
+
+  public PasswordHashingExecutor(
+      @Value("${security.password.hashing-threads:0}") int threads,
+      @Value("${security.password.hashing-queue:64}") int queueCapacity) {
+    int poolSize = threads > 0
+        ? threads
+        : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+          Thread thread = new Thread(runnable,
+              "password-hashing-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  /**
+   * Run a hashing task on the pool and wait for its result.
+   *
+   * @param task the hash computation
+   * @param <T> the result type
+   * @return the task's result
+   * @throws LoginCapacityExceededException if the pool and its queue are full
+   */
+  public <T> T execute(Supplier<T> task) {
+    Future<T> future;
+    try {
+      future = executor.submit(task::get);
+    } catch (RejectedExecutionException e) {
+      throw new LoginCapacityExceededException();
+    }
+
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Password hashing failed", e.getCause());
+    }
+  }
+
+  /**
+   * Stop the hashing threads.
+   */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.digigoods.security;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder that asks for a rehash whenever a stored hash has a different cost than the
+ * configured one, so lowering the cost takes effect on login just like raising it.
+ */
+public class RehashingBcryptPasswordEncoder extends BCryptPasswordEncoder {
+
+  private static final Pattern COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+  private final int strength;
+
+  public RehashingBcryptPasswordEncoder(int strength) {
+    super(strength);
+    this.strength = strength;
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    if (encodedPassword == null) {
+      return false;
+    }
+    Matcher matcher = COST.matcher(encodedPassword);
+    return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+  }
+}
@@ -0,0 +1,97 @@
+package com.example.digigoods.security;
+
+import com.example.digigoods.repository.UserRepository;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Decides whether a verified token has been revoked.
+ *
+ * <p>A token is revoked when the user's token version has moved past the version the token
+ * was issued with, or when the user no longer exists. Token versions are cached per user for
+ * {@code jwt.revocation.cache-ttl-ms}, so checking a token normally costs no query; revoking
+ * on another instance takes effect here within that time.
+ */
+@Service
+public class TokenRevocationService {
+
+  private final UserRepository userRepository;
+  private final VerifiedTokenCache verifiedTokenCache;
+  private final Map<Long, CachedVersion> versions = new ConcurrentHashMap<>();
+
+  @Value("${jwt.revocation.cache-ttl-ms:30000}")
+  private long cacheTtlMillis;
+
+  @Value("${jwt.revocation.cache-max-users:100000}")
+  private int cacheMaxUsers;
+
+  public TokenRevocationService(UserRepository userRepository,
+                                VerifiedTokenCache verifiedTokenCache) {
+    this.userRepository = userRepository;
+    this.verifiedTokenCache = verifiedTokenCache;
+  }
+
+  /**
+   * Check whether a token has been revoked.
+   *
+   * @param token the verified token
+   * @return true if the token must no longer be accepted
+   */
+  public boolean isRevoked(VerifiedToken token) {
+    if (token.userId() == null) {
+      return true;
+    }
+    long now = System.nanoTime();
+    CachedVersion cached = versions.get(token.userId());
+    if (cached == null || now - cached.loadedAtNanos() > cacheTtlMillis * 1_000_000) {
+      cached = load(token.userId(), now);
+    }
+    return cached.version().map(version -> token.tokenVersion() < version).orElse(true);
+  }
+
+  /**
+   * Revoke every token issued to a user so far.
+   *
+   * <p>The cached version and verified tokens are evicted again once the increment commits: a
+   * check running before that still reads the old version and would otherwise cache it for
+   * another {@code jwt.revocation.cache-ttl-ms}.
+   *
+   * @param userId the user ID
+   */
+  @Transactional
+  public void revokeTokens(Long userId) {
+    userRepository.incrementTokenVersion(userId);
+    evict(userId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          evict(userId);
+        }
+      });
+    }
+  }
+
+  private void evict(Long userId) {
+    versions.remove(userId);
+    verifiedTokenCache.invalidateUser(userId);
+  }
+
+  private CachedVersion load(Long userId, long now) {
+    if (versions.size() >= cacheMaxUsers) {
+      versions.clear();
+    }
+    CachedVersion cached = new CachedVersion(userRepository.findTokenVersionById(userId), now);
+    versions.put(userId, cached);
+    return cached;
+  }
+
+  private record CachedVersion(Optional<Integer> version, long loadedAtNanos) {
+  }
+}
@@ -2,17 +2,22 @@ package com.example.digigoods.security;
 
 import com.example.digigoods.model.User;
 import com.example.digigoods.repository.UserRepository;
-import java.util.ArrayList;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * User details service implementation.
+ *
+ * <p>Also stores rehashed passwords: after a successful login whose stored hash no longer
+ * matches the configured encoding, the authentication provider calls
+ * {@link #updatePassword(UserDetails, String)} with a fresh hash.
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
   private final UserRepository userRepository;
 
@@ -25,10 +30,22 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     User user = userRepository.findByUsername(username)
         .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-    return new org.springframework.security.core.userdetails.User(
+    return new AuthenticatedUser(
+        user.getId(),
         user.getUsername(),
         user.getPassword(),
-        new ArrayList<>()
+        user.getTokenVersion()
     );
   }
+
+  @Override
+  @Transactional
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    userRepository.updatePasswordByUsername(user.getUsername(), newPassword);
+    if (user instanceof AuthenticatedUser authenticatedUser) {
+      return new AuthenticatedUser(authenticatedUser.getUserId(), user.getUsername(),
+          newPassword, authenticatedUser.getTokenVersion());
+    }
+    return loadUserByUsername(user.getUsername());
+  }
 }
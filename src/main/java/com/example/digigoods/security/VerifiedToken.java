@@ -0,0 +1,22 @@
+package com.example.digigoods.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have been verified.
+ *
+ * <p>The authentication filter verifies the bearer token once and stores the result as the
+ * {@link #REQUEST_ATTRIBUTE} request attribute, so later code on the same request reads the
+ * claims from there instead of parsing the token again.
+ *
+ * @param userId the user ID claim
+ * @param username the subject
+ * @param tokenVersion the user's token version when the token was issued
+ * @param issuedAt when the token was issued
+ * @param expiresAt when the token expires
+ */
+public record VerifiedToken(Long userId, String username, int tokenVersion, Instant issuedAt,
+                            Instant expiresAt) {
+
+  public static final String REQUEST_ATTRIBUTE = "com.example.digigoods.security.VerifiedToken";
+}
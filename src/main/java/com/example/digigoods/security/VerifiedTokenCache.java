@@ -0,0 +1,171 @@
+package com.example.digigoods.security;
+
+import com.example.digigoods.service.JwtService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of verified tokens, so a token reused across requests is verified once.
+ *
+ * <p>Entries are keyed by the SHA-256 digest of the token, so raw tokens are never retained.
+ * The cache is split into segments, each a small LRU map guarded by its own lock. An entry is
+ * dropped when its token expires, when its segment is full and it is the least recently used,
+ * when its user's tokens are revoked, and when the signing key is rotated.
+ *
+ * <p>Hits, misses and evictions are published as {@code security.token.cache.*} meters.
+ */
+@Component
+public class VerifiedTokenCache {
+
+  private static final int SEGMENTS = 16;
+
+  private final JwtService jwtService;
+  private final Segment[] segments = new Segment[SEGMENTS];
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter expiredEvictions;
+  private final Counter sizeEvictions;
+  private final Counter invalidations;
+
+  public VerifiedTokenCache(JwtService jwtService, MeterRegistry meterRegistry,
+                            @Value("${jwt.token-cache.max-size:10000}") int maxSize) {
+    this.jwtService = jwtService;
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment(Math.max(0, maxSize / SEGMENTS));
+    }
+    this.hits = meterRegistry.counter("security.token.cache.hits");
+    this.misses = meterRegistry.counter("security.token.cache.misses");
+    this.expiredEvictions = meterRegistry.counter("security.token.cache.evictions",
+        "cause", "expired");
+    this.sizeEvictions = meterRegistry.counter("security.token.cache.evictions",
+        "cause", "size");
+    this.invalidations = meterRegistry.counter("security.token.cache.evictions",
+        "cause", "invalidated");
+    Gauge.builder("security.token.cache.size", this, VerifiedTokenCache::size)
+        .register(meterRegistry);
+    jwtService.onKeyRotation(this::invalidateAll);
+  }
+
+  /**
+   * Verify a token, reusing an earlier verification of the same token while it is unexpired.
+   *
+   * @param token the JWT token
+   * @return the verified claims
+   * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+   */
+  public VerifiedToken verify(String token) {
+    String key = digest(token);
+    Segment segment = segmentFor(key);
+    VerifiedToken cached;
+    synchronized (segment) {
+      cached = segment.get(key);
+      if (cached != null && isExpired(cached)) {
+        segment.remove(key);
+        expiredEvictions.increment();
+        cached = null;
+      }
+    }
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+
+    misses.increment();
+    VerifiedToken verifiedToken = jwtService.verify(token);
+    if (verifiedToken.expiresAt() != null && segment.capacity > 0) {
+      synchronized (segment) {
+        segment.put(key, verifiedToken);
+      }
+    }
+    return verifiedToken;
+  }
+
+  /**
+   * Drop every cached token of a user, e.g. on logout.
+   *
+   * @param userId the user ID
+   */
+  public void invalidateUser(Long userId) {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        int before = segment.size();
+        segment.values().removeIf(token -> userId.equals(token.userId()));
+        invalidations.increment(before - segment.size());
+      }
+    }
+  }
+
+  /**
+   * Drop every cached token, e.g. on signing key rotation.
+   */
+  public void invalidateAll() {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        invalidations.increment(segment.size());
+        segment.clear();
+      }
+    }
+  }
+
+  private int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  private Segment segmentFor(String key) {
+    return segments[Math.floorMod(key.hashCode(), SEGMENTS)];
+  }
+
+  private static boolean isExpired(VerifiedToken token) {
+    return !token.expiresAt().isAfter(Instant.now());
+  }
+
+  private static String digest(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(token.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(Arrays.copyOf(digest, 16));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private final class Segment extends LinkedHashMap<String, VerifiedToken> {
+
+    private final int capacity;
+
+    Segment(int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+      if (size() <= capacity) {
+        return false;
+      }
+      if (isExpired(eldest.getValue())) {
+        expiredEvictions.increment();
+      } else {
+        sizeEvictions.increment();
+      }
+      return true;
+    }
+  }
+}
@@ -2,10 +2,11 @@ package com.example.digigoods.service;
 
 import com.example.digigoods.dto.LoginRequest;
 import com.example.digigoods.dto.LoginResponse;
-import com.example.digigoods.model.User;
-import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.security.AuthenticatedUser;
+import com.example.digigoods.security.TokenRevocationService;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
 
@@ -17,14 +18,14 @@ public class AuthService {
 
   private final AuthenticationManager authenticationManager;
   private final JwtService jwtService;
-  private final UserRepository userRepository;
+  private final TokenRevocationService tokenRevocationService;
 
   public AuthService(AuthenticationManager authenticationManager,
                      JwtService jwtService,
-                     UserRepository userRepository) {
+                     TokenRevocationService tokenRevocationService) {
     this.authenticationManager = authenticationManager;
     this.jwtService = jwtService;
-    this.userRepository = userRepository;
+    this.tokenRevocationService = tokenRevocationService;
   }
 
   /**
@@ -33,20 +34,30 @@ public class AuthService {
    * @param loginRequest the login request
    * @return login response with JWT token
    * @throws AuthenticationException if authentication fails
+   * @throws com.example.digigoods.exception.LoginCapacityExceededException if too many logins
+   *     are already waiting for password hashing
    */
   public LoginResponse login(LoginRequest loginRequest) {
-    authenticationManager.authenticate(
+    Authentication authentication = authenticationManager.authenticate(
         new UsernamePasswordAuthenticationToken(
             loginRequest.getUsername(),
             loginRequest.getPassword()
         )
     );
 
-    User user = userRepository.findByUsername(loginRequest.getUsername())
-        .orElseThrow(() -> new RuntimeException("User not found"));
+    AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+    String token = jwtService.generateToken(user.getUserId(), user.getUsername(),
+        user.getTokenVersion());
 
-    String token = jwtService.generateToken(user.getId(), user.getUsername());
+    return new LoginResponse(token, user.getUserId(), user.getUsername());
+  }
 
-    return new LoginResponse(token, user.getId(), user.getUsername());
+  /**
+   * Log a user out of every session by revoking all tokens issued to them.
+   *
+   * @param userId the user ID
+   */
+  public void logout(Long userId) {
+    tokenRevocationService.revokeTokens(userId);
   }
 }
@@ -0,0 +1,18 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.Product;
+import java.math.BigDecimal;
+
+/**
+ * The slow-moving part of a product: everything but its stock.
+ *
+ * @param id the product ID
+ * @param name the product name
+ * @param price the unit price
+ */
+public record CatalogEntry(Long id, String name, BigDecimal price) {
+
+  static CatalogEntry of(Product product) {
+    return new CatalogEntry(product.getId(), product.getName(), product.getPrice());
+  }
+}
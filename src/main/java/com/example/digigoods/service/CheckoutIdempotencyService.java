@@ -0,0 +1,236 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.dto.OrderResponse;
+import com.example.digigoods.exception.IdempotencyKeyConflictException;
+import com.example.digigoods.model.CheckoutIdempotencyKey;
+import com.example.digigoods.model.CheckoutIdempotencyKeyId;
+import com.example.digigoods.repository.CheckoutIdempotencyKeyRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Places checkouts at most once per {@code Idempotency-Key}.
+ *
+ * <p>The response of a checkout sent with a key is stored in
+ * {@code checkout_idempotency_keys}, in the same transaction as the order, keyed by the user
+ * and the SHA-256 of the key. A retry with the same key and request gets the stored response
+ * back without touching products, discounts or orders; reusing a key for another request is
+ * rejected. Committed responses are also kept in memory, so most retries skip the database
+ * entirely. Two concurrent requests with the same key both run the checkout, but only one can
+ * insert the key: the other rolls back and returns the winner's response.
+ *
+ * <p>Keys are kept for at least {@code checkout.idempotency.ttl-ms} and purged every
+ * {@code checkout.idempotency.purge-interval-ms} by a background thread.
+ */
+@Service
+public class CheckoutIdempotencyService {
+
+  private static final Logger log = LoggerFactory.getLogger(CheckoutIdempotencyService.class);
+
+  private final CheckoutService checkoutService;
+  private final CheckoutIdempotencyKeyRepository idempotencyKeyRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Map<CheckoutIdempotencyKeyId, StoredResponse> responses =
+      new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService purger;
+
+  @Value("${checkout.idempotency.ttl-ms:86400000}")
+  private long ttlMillis;
+
+  @Value("${checkout.idempotency.cache.max-size:10000}")
+  private int maxSize;
+
+  @Value("${checkout.idempotency.purge-interval-ms:3600000}")
+  private long purgeIntervalMillis;
+
+  public CheckoutIdempotencyService(CheckoutService checkoutService,
+                                    CheckoutIdempotencyKeyRepository idempotencyKeyRepository,
+                                    PlatformTransactionManager transactionManager) {
+    this.checkoutService = checkoutService;
+    this.idempotencyKeyRepository = idempotencyKeyRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Start the background purge of expired keys.
+   */
+  @PostConstruct
+  public void start() {
+    purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "checkout-idempotency-purger");
+      thread.setDaemon(true);
+      return thread;
+    });
+    purger.scheduleWithFixedDelay(this::purgeQuietly, purgeIntervalMillis, purgeIntervalMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stop the background purge.
+   */
+  @PreDestroy
+  public void stop() {
+    if (purger != null) {
+      purger.shutdownNow();
+    }
+  }
+
+  /**
+   * Process a checkout, or return the response of the checkout already placed with the same
+   * key.
+   *
+   * @param request the checkout request
+   * @param authenticatedUserId the authenticated user ID
+   * @param idempotencyKey the key sent by the client, or null to always place the order
+   * @return the order response
+   * @throws IdempotencyKeyConflictException if the key was used for a different request
+   */
+  public OrderResponse processCheckout(CheckoutRequest request, Long authenticatedUserId,
+                                       String idempotencyKey) {
+    if (idempotencyKey == null) {
+      return checkoutService.processCheckout(request, authenticatedUserId);
+    }
+
+    CheckoutIdempotencyKeyId id =
+        new CheckoutIdempotencyKeyId(authenticatedUserId, digest(idempotencyKey));
+    String requestHash = digest(fingerprint(request));
+    StoredResponse stored = find(id);
+    if (stored != null) {
+      return stored.replay(requestHash);
+    }
+
+    try {
+      stored = transactionTemplate.execute(status -> {
+        OrderResponse response = checkoutService.processCheckout(request, authenticatedUserId);
+        idempotencyKeyRepository.insert(id.getUserId(), id.getKeyHash(), requestHash,
+            response.getMessage(), response.getFinalPrice(), response.getOrderId(),
+            LocalDateTime.now());
+        StoredResponse placed = new StoredResponse(requestHash, response.getMessage(),
+            response.getFinalPrice(), response.getOrderId(), System.nanoTime());
+        cacheAfterCommit(id, placed);
+        return placed;
+      });
+    } catch (DataIntegrityViolationException e) {
+      // A concurrent request with the same key committed first
+      stored = find(id);
+      if (stored == null) {
+        throw e;
+      }
+      return stored.replay(requestHash);
+    }
+    return stored.toResponse();
+  }
+
+  /**
+   * Delete the keys older than the time to live and drop expired cached responses.
+   *
+   * @return the number of deleted keys
+   */
+  public int purgeExpired() {
+    long now = System.nanoTime();
+    responses.values().removeIf(response -> isExpired(response, now));
+    return transactionTemplate.execute(status -> idempotencyKeyRepository.deleteCreatedBefore(
+        LocalDateTime.now().minusNanos(ttlMillis * 1_000_000)));
+  }
+
+  private StoredResponse find(CheckoutIdempotencyKeyId id) {
+    StoredResponse cached = responses.get(id);
+    if (cached != null && !isExpired(cached, System.nanoTime())) {
+      return cached;
+    }
+
+    StoredResponse stored = idempotencyKeyRepository.findById(id)
+        .map(StoredResponse::of)
+        .orElse(null);
+    if (stored != null) {
+      cache(id, stored);
+    }
+    return stored;
+  }
+
+  private void cache(CheckoutIdempotencyKeyId id, StoredResponse stored) {
+    if (responses.size() >= maxSize) {
+      responses.clear();
+    }
+    responses.put(id, stored);
+  }
+
+  private void cacheAfterCommit(CheckoutIdempotencyKeyId id, StoredResponse stored) {
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        cache(id, stored);
+      }
+    });
+  }
+
+  private boolean isExpired(StoredResponse response, long now) {
+    return now - response.loadedAtNanos() > ttlMillis * 1_000_000;
+  }
+
+  private void purgeQuietly() {
+    try {
+      purgeExpired();
+    } catch (RuntimeException e) {
+      log.warn("Failed to purge expired idempotency keys, will retry", e);
+    }
+  }
+
+  private static String fingerprint(CheckoutRequest request) {
+    List<String> discountCodes =
+        request.getDiscountCodes() == null ? List.of() : request.getDiscountCodes();
+    return request.getUserId() + "|" + request.getProductIds() + "|" + discountCodes;
+  }
+
+  private static String digest(String value) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+          .digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private record StoredResponse(String requestHash, String message, BigDecimal finalPrice,
+                                Long orderId, long loadedAtNanos) {
+
+    static StoredResponse of(CheckoutIdempotencyKey key) {
+      return new StoredResponse(key.getRequestHash(), key.getMessage(), key.getFinalPrice(),
+          key.getOrderId(), System.nanoTime());
+    }
+
+    OrderResponse replay(String requestHash) {
+      if (!this.requestHash.equals(requestHash)) {
+        throw new IdempotencyKeyConflictException();
+      }
+      return toResponse();
+    }
+
+    OrderResponse toResponse() {
+      return new OrderResponse(message, finalPrice, orderId);
+    }
+  }
+}
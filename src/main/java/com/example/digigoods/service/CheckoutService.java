@@ -1,25 +1,31 @@
 package com.example.digigoods.service;
 
+import com.example.digigoods.dto.BasketQuote;
+import com.example.digigoods.dto.BasketRequest;
 import com.example.digigoods.dto.CheckoutRequest;
 import com.example.digigoods.dto.OrderResponse;
+import com.example.digigoods.dto.QuoteRequest;
+import com.example.digigoods.dto.QuoteResponse;
 import com.example.digigoods.exception.ExcessiveDiscountException;
+import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.exception.ProductNotFoundException;
 import com.example.digigoods.exception.UnauthorizedAccessException;
-import com.example.digigoods.model.Discount;
-import com.example.digigoods.model.DiscountType;
 import com.example.digigoods.model.Order;
-import com.example.digigoods.model.Product;
+import com.example.digigoods.model.OrderLine;
 import com.example.digigoods.model.User;
 import com.example.digigoods.repository.OrderRepository;
 import com.example.digigoods.repository.UserRepository;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Service for checkout operations.
@@ -27,27 +33,45 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class CheckoutService {
 
-  private static final BigDecimal MAX_DISCOUNT_PERCENTAGE = new BigDecimal("75.00");
-  private static final BigDecimal HUNDRED = new BigDecimal("100.00");
+  private static final long MAX_DISCOUNT_BASIS_POINTS =
+      Money.toBasisPoints(new BigDecimal("75.00"));
 
   private final ProductService productService;
   private final DiscountService discountService;
   private final OrderRepository orderRepository;
   private final UserRepository userRepository;
+  private final PricingPlanCache pricingPlanCache;
+  private final OrderOutboxService orderOutboxService;
+  private final ApplicationEventPublisher eventPublisher;
 
   public CheckoutService(ProductService productService,
                          DiscountService discountService,
                          OrderRepository orderRepository,
-                         UserRepository userRepository) {
+                         UserRepository userRepository,
+                         PricingPlanCache pricingPlanCache,
+                         OrderOutboxService orderOutboxService,
+                         ApplicationEventPublisher eventPublisher) {
     this.productService = productService;
     this.discountService = discountService;
     this.orderRepository = orderRepository;
     this.userRepository = userRepository;
+    this.pricingPlanCache = pricingPlanCache;
+    this.orderOutboxService = orderOutboxService;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
    * Process checkout request.
    *
+   * <p>A checkout costs the same round trips whatever the size of the basket: product names
+   * and prices come from the catalog cache, with one query for the misses, and discounts from
+   * the discount registry; the user is only referenced. The writes go out as the order insert
+   * plus one JDBC batch each for the order lines, the applied discounts, the stock decrements
+   * and the discount use decrements.
+   *
+   * <p>An {@link OrderPlacedEvent} is published once the order rows are committed: after this
+   * transaction, or after the outbox worker's when the order is accepted through the outbox.
+   *
    * @param request the checkout request
    * @param authenticatedUserId the ID of the authenticated user
    * @return order response
@@ -57,138 +81,221 @@ public class CheckoutService {
     // 1. Authentication & Authorization
     validateUserAuthorization(request.getUserId(), authenticatedUserId);
 
-    // 2. Product Validation
-    List<Product> products = productService.getProductsByIds(request.getProductIds());
+    // 2. Product Validation (name and price only, served from the catalog cache)
+    Map<Long, CatalogEntry> catalogEntries =
+        productService.getCatalogEntries(request.getProductIds());
 
-    // 3. Original Subtotal Calculation
-    BigDecimal originalSubtotal = calculateOriginalSubtotal(request.getProductIds(), products);
+    // 3. Original Subtotal Calculation (in cents from here on)
+    BasketItems items = toBasketItems(request.getProductIds(), catalogEntries);
+    long originalSubtotal = calculateOriginalSubtotal(items);
 
     // 4. Discount Validation
-    List<Discount> discounts = discountService.validateAndGetDiscounts(request.getDiscountCodes());
+    List<DiscountDefinition> discounts =
+        discountService.validateAndGetDiscounts(request.getDiscountCodes());
 
     // 5. Discount Application
-    BigDecimal finalPrice = applyDiscounts(request.getProductIds(), products, discounts,
-        originalSubtotal);
+    PricingPlan plan = pricingPlanCache.getPlan(discounts);
+    long finalPrice = plan.price(items.ids(), items.prices());
 
     // 6. Maximum Discount Rule
     validateMaximumDiscount(originalSubtotal, finalPrice);
 
     // 7. Final Commit
-    commitTransaction(request, products, discounts, originalSubtotal, finalPrice);
-
-    return new OrderResponse("Order created successfully!", finalPrice);
-  }
-
-  private void validateUserAuthorization(Long requestUserId, Long authenticatedUserId) {
-    if (!requestUserId.equals(authenticatedUserId)) {
-      throw new UnauthorizedAccessException("User cannot place order for another user");
+    BigDecimal finalPriceAmount = Money.fromCents(finalPrice);
+    if (orderOutboxService.isEnabled()) {
+      Long orderId = acceptOrder(request, items, plan, discounts,
+          Money.fromCents(originalSubtotal), finalPriceAmount);
+      return new OrderResponse("Order accepted for processing", finalPriceAmount, orderId);
     }
-  }
-
-  private BigDecimal calculateOriginalSubtotal(List<Long> productIds, List<Product> products) {
-    Map<Long, Product> productMap = products.stream()
-        .collect(Collectors.toMap(Product::getId, Function.identity()));
+    Long orderId = commitTransaction(request, items, plan, discounts,
+        Money.fromCents(originalSubtotal), finalPriceAmount);
+    publishAfterCommit(new OrderPlacedEvent(orderId, request.getUserId(), finalPriceAmount));
 
-    return productIds.stream()
-        .map(productMap::get)
-        .map(Product::getPrice)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    return new OrderResponse("Order created successfully!", finalPriceAmount, orderId);
   }
 
-  private BigDecimal applyDiscounts(List<Long> productIds, List<Product> products,
-                                    List<Discount> discounts,
-                                    BigDecimal originalSubtotal) {
-    Map<Long, Product> productMap = products.stream()
-        .collect(Collectors.toMap(Product::getId, Function.identity()));
-
-    // Separate discounts by type
-    List<Discount> productSpecificDiscounts = discounts.stream()
-        .filter(d -> d.getType() == DiscountType.PRODUCT_SPECIFIC)
-        .toList();
-
-    List<Discount> generalDiscounts = discounts.stream()
-        .filter(d -> d.getType() == DiscountType.GENERAL)
+  /**
+   * Price baskets exactly as checkout would, without creating orders or taking stock or
+   * discount uses.
+   *
+   * <p>Products and discount codes are looked up once for the whole request, then the
+   * baskets are priced in parallel. Stock is not checked.
+   *
+   * @param request the quote request
+   * @return one quote per basket, in request order
+   */
+  public QuoteResponse quote(QuoteRequest request) {
+    List<BasketRequest> baskets = request.getBaskets();
+
+    Map<Long, CatalogEntry> catalogEntries = productService.findCatalogEntries(
+        baskets.stream().flatMap(basket -> basket.getProductIds().stream()).distinct().toList());
+    Map<String, DiscountLookup> discountLookups = new HashMap<>();
+    baskets.stream()
+        .filter(basket -> basket.getDiscountCodes() != null)
+        .flatMap(basket -> basket.getDiscountCodes().stream())
+        .distinct()
+        .forEach(code -> discountLookups.put(code, lookUpDiscount(code)));
+
+    // Pricing is CPU-bound from here on: no lookups, no locks
+    List<BasketQuote> quotes = baskets.parallelStream()
+        .map(basket -> quoteBasket(basket, catalogEntries, code -> discountLookups.get(code)
+            .discountOrThrow()))
         .toList();
-
-    // Apply product-specific discounts first
-    BigDecimal intermediateSubtotal = applyProductSpecificDiscounts(
-        productIds, productMap, productSpecificDiscounts);
-
-    // Apply general discounts to intermediate subtotal
-    return applyGeneralDiscounts(intermediateSubtotal, generalDiscounts);
+    return new QuoteResponse(quotes);
   }
 
-  private BigDecimal applyProductSpecificDiscounts(List<Long> productIds,
-                                                   Map<Long, Product> productMap,
-                                                   List<Discount> productSpecificDiscounts) {
-    BigDecimal total = BigDecimal.ZERO;
-
-    for (Long productId : productIds) {
-      Product product = productMap.get(productId);
-      BigDecimal itemPrice = product.getPrice();
-
-      // Find applicable discounts for this product
-      BigDecimal totalDiscountPercentage = productSpecificDiscounts.stream()
-          .filter(discount -> discount.getApplicableProducts().contains(product))
-          .map(Discount::getPercentage)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
+  private DiscountLookup lookUpDiscount(String code) {
+    try {
+      return new DiscountLookup(discountService.validateAndGetDiscount(code), null);
+    } catch (InvalidDiscountException e) {
+      return new DiscountLookup(null, e);
+    }
+  }
 
-      // Apply discount
-      if (totalDiscountPercentage.compareTo(BigDecimal.ZERO) > 0) {
-        BigDecimal discountAmount = itemPrice.multiply(totalDiscountPercentage)
-            .divide(HUNDRED, 2, RoundingMode.HALF_UP);
-        itemPrice = itemPrice.subtract(discountAmount);
-      }
+  private BasketQuote quoteBasket(BasketRequest basket, Map<Long, CatalogEntry> catalogEntries,
+                                  Function<String, DiscountDefinition> discountValidator) {
+    try {
+      productService.checkCatalogEntries(basket.getProductIds(), catalogEntries);
+    } catch (ProductNotFoundException e) {
+      return new BasketQuote(null, null, e.getMessage());
+    }
 
-      total = total.add(itemPrice);
+    BasketItems items = toBasketItems(basket.getProductIds(), catalogEntries);
+    long originalSubtotal = calculateOriginalSubtotal(items);
+    BigDecimal originalSubtotalAmount = Money.fromCents(originalSubtotal);
+    try {
+      List<DiscountDefinition> discounts = discountService.validateAndGetDiscounts(
+          basket.getDiscountCodes(), discountValidator);
+      long finalPrice = applyDiscounts(items, discounts);
+      validateMaximumDiscount(originalSubtotal, finalPrice);
+      return new BasketQuote(originalSubtotalAmount, Money.fromCents(finalPrice), null);
+    } catch (InvalidDiscountException | ExcessiveDiscountException e) {
+      return new BasketQuote(originalSubtotalAmount, null, e.getMessage());
     }
+  }
 
-    return total;
+  private void validateUserAuthorization(Long requestUserId, Long authenticatedUserId) {
+    if (!requestUserId.equals(authenticatedUserId)) {
+      throw new UnauthorizedAccessException("User cannot place order for another user");
+    }
   }
 
-  private BigDecimal applyGeneralDiscounts(BigDecimal subtotal, List<Discount> generalDiscounts) {
-    BigDecimal currentPrice = subtotal;
+  private BasketItems toBasketItems(List<Long> productIds,
+                                    Map<Long, CatalogEntry> catalogEntries) {
+    long[] ids = new long[productIds.size()];
+    long[] prices = new long[productIds.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = productIds.get(i);
+      prices[i] = Money.toCents(catalogEntries.get(productIds.get(i)).price());
+    }
+    return new BasketItems(ids, prices);
+  }
 
-    for (Discount discount : generalDiscounts) {
-      BigDecimal discountAmount = currentPrice.multiply(discount.getPercentage())
-          .divide(HUNDRED, 2, RoundingMode.HALF_UP);
-      currentPrice = currentPrice.subtract(discountAmount);
+  private long calculateOriginalSubtotal(BasketItems items) {
+    long subtotal = 0;
+    for (long price : items.prices()) {
+      subtotal += price;
     }
+    return subtotal;
+  }
 
-    return currentPrice;
+  private long applyDiscounts(BasketItems items, List<DiscountDefinition> discounts) {
+    // Apply product-specific discounts first, then general discounts to the intermediate
+    // subtotal
+    return pricingPlanCache.getPlan(discounts).price(items.ids(), items.prices());
   }
 
-  private void validateMaximumDiscount(BigDecimal originalSubtotal, BigDecimal finalPrice) {
-    BigDecimal totalDiscount = originalSubtotal.subtract(finalPrice);
-    BigDecimal discountPercentage = totalDiscount.multiply(HUNDRED)
-        .divide(originalSubtotal, 2, RoundingMode.HALF_UP);
+  private void validateMaximumDiscount(long originalSubtotal, long finalPrice) {
+    long discountBasisPoints = Money.basisPointsOf(originalSubtotal - finalPrice,
+        originalSubtotal);
 
-    if (discountPercentage.compareTo(MAX_DISCOUNT_PERCENTAGE) > 0) {
+    if (discountBasisPoints > MAX_DISCOUNT_BASIS_POINTS) {
       throw new ExcessiveDiscountException();
     }
   }
 
-  private void commitTransaction(CheckoutRequest request, List<Product> products,
-                                 List<Discount> discounts, BigDecimal originalSubtotal,
-                                 BigDecimal finalPrice) {
-    // Get user
-    User user = userRepository.findById(request.getUserId())
-        .orElseThrow(() -> new RuntimeException("User not found"));
+  private Long commitTransaction(CheckoutRequest request, BasketItems items, PricingPlan plan,
+                                 List<DiscountDefinition> discounts,
+                                 BigDecimal originalSubtotal, BigDecimal finalPrice) {
+    // The user is the authenticated one: reference it without loading it
+    User user = userRepository.getReferenceById(request.getUserId());
 
     // Create order
     Order order = new Order();
     order.setUser(user);
-    order.setProducts(new HashSet<>(products));
-    order.setAppliedDiscounts(new HashSet<>(discounts));
     order.setOriginalSubtotal(originalSubtotal);
     order.setFinalPrice(finalPrice);
 
-    orderRepository.save(order);
+    // The lines and discount links written over JDBC below reference the order row
+    orderRepository.saveAndFlush(order);
+    // Write lines by product ID, so products priced from the catalog cache are never loaded
+    orderRepository.insertOrderLines(toOrderLines(order.getId(), items, plan));
+    // Link discounts by ID too: they come from the discount registry, not the database
+    orderRepository.insertOrderAppliedDiscounts(order.getId(),
+        discounts.stream().map(DiscountDefinition::id).toList());
 
     // Update product stock
     productService.validateAndUpdateStock(request.getProductIds());
 
     // Update discount usage
     discountService.updateDiscountUsage(discounts);
+    return order.getId();
+  }
+
+  private Long acceptOrder(CheckoutRequest request, BasketItems items, PricingPlan plan,
+                           List<DiscountDefinition> discounts, BigDecimal originalSubtotal,
+                           BigDecimal finalPrice) {
+    // Reserve stock and discount uses now; the order rows are written later by the outbox
+    // worker, under an ID allocated up front
+    productService.validateAndUpdateStock(request.getProductIds());
+    discountService.updateDiscountUsage(discounts);
+
+    Long orderId = orderRepository.allocateOrderId();
+    orderOutboxService.append(new PricedOrder(orderId, request.getUserId(), originalSubtotal,
+        finalPrice, toOrderLines(orderId, items, plan),
+        discounts.stream().map(DiscountDefinition::id).toList()));
+    return orderId;
+  }
+
+  private void publishAfterCommit(OrderPlacedEvent event) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      eventPublisher.publishEvent(event);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        eventPublisher.publishEvent(event);
+      }
+    });
+  }
+
+  private List<OrderLine> toOrderLines(Long orderId, BasketItems items, PricingPlan plan) {
+    Map<Long, OrderLine> lines = new LinkedHashMap<>();
+    for (int i = 0; i < items.ids().length; i++) {
+      long productId = items.ids()[i];
+      OrderLine line = lines.get(productId);
+      if (line != null) {
+        line.setQuantity(line.getQuantity() + 1);
+        continue;
+      }
+      long unitPrice = items.prices()[i];
+      lines.put(productId, new OrderLine(orderId, productId, 1, Money.fromCents(unitPrice),
+          Money.fromCents(plan.applyProductSpecificDiscounts(productId, unitPrice))));
+    }
+    return List.copyOf(lines.values());
+  }
+
+  private record BasketItems(long[] ids, long[] prices) {
+  }
+
+  private record DiscountLookup(DiscountDefinition discount, InvalidDiscountException rejection) {
+
+    DiscountDefinition discountOrThrow() {
+      if (rejection != null) {
+        throw rejection;
+      }
+      return discount;
+    }
   }
 }
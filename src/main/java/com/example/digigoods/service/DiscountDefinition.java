@@ -0,0 +1,57 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.DiscountResponse;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable definition of a discount: everything needed to validate and apply a code, without
+ * the remaining uses, which only the database knows for sure.
+ *
+ * @param id the discount ID
+ * @param code the discount code
+ * @param type the discount type
+ * @param percentage the discount percentage
+ * @param validFrom the first day the code is valid
+ * @param validUntil the last day the code is valid
+ * @param applicableProductIds the IDs of the products a product-specific discount applies to
+ */
+public record DiscountDefinition(Long id, String code, DiscountType type, BigDecimal percentage,
+                                 LocalDate validFrom, LocalDate validUntil,
+                                 Set<Long> applicableProductIds) {
+
+  public DiscountDefinition {
+    applicableProductIds = Set.copyOf(applicableProductIds);
+  }
+
+  /**
+   * Create the definition of a discount entity, reading its applicable products.
+   *
+   * @param discount the discount
+   * @return the definition
+   */
+  public static DiscountDefinition of(Discount discount) {
+    return new DiscountDefinition(discount.getId(), discount.getCode(), discount.getType(),
+        discount.getPercentage(), discount.getValidFrom(), discount.getValidUntil(),
+        discount.getApplicableProducts().stream()
+            .map(Product::getId)
+            .collect(Collectors.toSet()));
+  }
+
+  /**
+   * Create the definition of a discount read as a projection.
+   *
+   * @param discount the discount projection
+   * @return the definition
+   */
+  public static DiscountDefinition of(DiscountResponse discount) {
+    return new DiscountDefinition(discount.getId(), discount.getCode(), discount.getType(),
+        discount.getPercentage(), discount.getValidFrom(), discount.getValidUntil(),
+        Set.copyOf(discount.getApplicableProductIds()));
+  }
+}
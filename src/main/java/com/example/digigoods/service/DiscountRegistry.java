@@ -0,0 +1,193 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.DiscountResponse;
+import com.example.digigoods.repository.DiscountRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory index of every discount code that has not expired, so checkout can validate codes
+ * without querying {@code discounts}.
+ *
+ * <p>The index is an immutable map published through a volatile field: lookups never lock.
+ * It is reloaded in one query on the first lookup after {@link #markChanged()}, which the
+ * {@link DiscountRegistryInvalidator} calls on every JPA write to a discount, and every
+ * {@code discounts.registry.refresh-interval-ms} by a background thread, which evicts codes
+ * that have expired and picks up writes made outside the application.
+ *
+ * <p>Remaining uses are only tracked as a hint: codes without uses at load time, or found
+ * exhausted by a later decrement, are marked so checkout can reject them early. The database
+ * decrement stays authoritative.
+ */
+@Component
+public class DiscountRegistry {
+
+  private static final Logger log = LoggerFactory.getLogger(DiscountRegistry.class);
+
+  private final DiscountRepository discountRepository;
+  private final PricingPlanCache pricingPlanCache;
+  private final AtomicLong version = new AtomicLong(1);
+  private final Object reloadLock = new Object();
+
+  private volatile Index index = new Index(0, Map.of(), Set.of());
+  private ScheduledExecutorService refresher;
+
+  @Value("${discounts.registry.refresh-interval-ms:60000}")
+  private long refreshIntervalMillis;
+
+  public DiscountRegistry(DiscountRepository discountRepository,
+                          PricingPlanCache pricingPlanCache) {
+    this.discountRepository = discountRepository;
+    this.pricingPlanCache = pricingPlanCache;
+  }
+
+  /**
+   * Start the background refresh.
+   */
+  @PostConstruct
+  public void start() {
+    refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "discount-registry-refresher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMillis,
+        refreshIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stop the background refresh.
+   */
+  @PreDestroy
+  public void stop() {
+    if (refresher != null) {
+      refresher.shutdownNow();
+    }
+  }
+
+  /**
+   * Find the definition of a code that had not expired when the index was loaded.
+   *
+   * @param code the discount code
+   * @return the definition, or null if the code is unknown or expired
+   */
+  public DiscountDefinition find(String code) {
+    return current().byCode().get(code);
+  }
+
+  /**
+   * Check if a discount is known to have no remaining uses.
+   *
+   * @param discountId the discount ID
+   * @return true if it had none left when last seen, false otherwise
+   */
+  public boolean isExhausted(Long discountId) {
+    return current().exhaustedIds().contains(discountId);
+  }
+
+  /**
+   * Record that a discount has no remaining uses left.
+   *
+   * @param discountId the discount ID
+   */
+  public void markExhausted(Long discountId) {
+    synchronized (reloadLock) {
+      Index current = index;
+      Set<Long> exhaustedIds = new HashSet<>(current.exhaustedIds());
+      exhaustedIds.add(discountId);
+      index = new Index(current.version(), current.byCode(), Set.copyOf(exhaustedIds));
+    }
+  }
+
+  /**
+   * Mark the index stale now and, inside a transaction, again once it completes, so an index
+   * loaded from the not yet committed state in between is not kept.
+   */
+  public void markChanged() {
+    version.incrementAndGet();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          version.incrementAndGet();
+        }
+      });
+    }
+  }
+
+  /**
+   * Reload the index from the database, dropping codes that have expired.
+   */
+  public void refresh() {
+    synchronized (reloadLock) {
+      publish(load());
+    }
+  }
+
+  private Index current() {
+    Index current = index;
+    if (current.version() == version.get()) {
+      return current;
+    }
+
+    synchronized (reloadLock) {
+      current = index;
+      if (current.version() != version.get()) {
+        current = publish(load());
+      }
+      return current;
+    }
+  }
+
+  private Index load() {
+    // Read the version first: a change racing with the reload leaves the index stale
+    long loadedVersion = version.get();
+    Map<String, DiscountDefinition> byCode = new HashMap<>();
+    Set<Long> exhaustedIds = new HashSet<>();
+    for (DiscountResponse discount : discountRepository.findActiveResponses(LocalDate.now())) {
+      byCode.put(discount.getCode(), DiscountDefinition.of(discount));
+      if (discount.getRemainingUses() <= 0) {
+        exhaustedIds.add(discount.getId());
+      }
+    }
+    return new Index(loadedVersion, Map.copyOf(byCode), Set.copyOf(exhaustedIds));
+  }
+
+  private Index publish(Index loaded) {
+    boolean definitionsChanged = !loaded.byCode().equals(index.byCode());
+    index = loaded;
+    // Only once the new definitions are visible: plans compiled from the old ones until then
+    // are dropped too
+    if (definitionsChanged) {
+      pricingPlanCache.invalidateAll();
+    }
+    return loaded;
+  }
+
+  private void refreshQuietly() {
+    try {
+      refresh();
+    } catch (RuntimeException e) {
+      log.warn("Failed to refresh discount registry, will retry", e);
+    }
+  }
+
+  private record Index(long version, Map<String, DiscountDefinition> byCode,
+                       Set<Long> exhaustedIds) {
+  }
+}
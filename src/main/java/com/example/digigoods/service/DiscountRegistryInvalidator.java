@@ -0,0 +1,32 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.Discount;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that marks the {@link DiscountRegistry} stale whenever a discount row is
+ * written.
+ *
+ * <p>Hibernate instantiates this listener while the entity manager factory is being built,
+ * so the registry, which needs a repository, is looked up lazily.
+ */
+@Component
+public class DiscountRegistryInvalidator {
+
+  private final ObjectProvider<DiscountRegistry> discountRegistry;
+
+  public DiscountRegistryInvalidator(ObjectProvider<DiscountRegistry> discountRegistry) {
+    this.discountRegistry = discountRegistry;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  void onDiscountWritten(Discount discount) {
+    discountRegistry.getObject().markChanged();
+  }
+}
@@ -1,10 +1,15 @@
 package com.example.digigoods.service;
 
+import com.example.digigoods.dto.DiscountResponse;
 import com.example.digigoods.exception.InvalidDiscountException;
 import com.example.digigoods.model.Discount;
 import com.example.digigoods.repository.DiscountRepository;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 import org.springframework.stereotype.Service;
 
 /**
@@ -14,82 +19,126 @@ import org.springframework.stereotype.Service;
 public class DiscountService {
 
   private final DiscountRepository discountRepository;
+  private final DiscountRegistry discountRegistry;
+  private final DiscountUsageService discountUsageService;
 
-  public DiscountService(DiscountRepository discountRepository) {
+  public DiscountService(DiscountRepository discountRepository,
+                         DiscountRegistry discountRegistry,
+                         DiscountUsageService discountUsageService) {
     this.discountRepository = discountRepository;
+    this.discountRegistry = discountRegistry;
+    this.discountUsageService = discountUsageService;
   }
 
   /**
-   * Get all discounts from the database.
+   * Get all discounts from the database in ID order, with the IDs of their applicable
+   * products.
    *
    * @return list of all discounts
    */
-  public List<Discount> getAllDiscounts() {
-    return discountRepository.findAll();
+  public List<DiscountResponse> getAllDiscounts() {
+    return discountRepository.findAllResponses();
   }
 
   /**
    * Validate and get discounts by their codes.
    *
+   * <p>Codes are looked up in the {@link DiscountRegistry}; only a code it does not know
+   * goes to the database, to tell an expired code from an unknown one.
+   *
    * @param discountCodes the list of discount codes
-   * @return list of valid discounts
+   * @return list of valid discounts, in the order of the codes
    * @throws InvalidDiscountException if any discount is invalid
    */
-  public List<Discount> validateAndGetDiscounts(List<String> discountCodes) {
+  public List<DiscountDefinition> validateAndGetDiscounts(List<String> discountCodes) {
+    return validateAndGetDiscounts(discountCodes, this::validateAndGetDiscount);
+  }
+
+  /**
+   * Validate and get discounts by their codes, validating each code with the given function.
+   *
+   * @param discountCodes the list of discount codes
+   * @param validator validates one code, like {@link #validateAndGetDiscount(String)}
+   * @return list of valid discounts, in the order of the codes
+   * @throws InvalidDiscountException if any discount is invalid or applied twice
+   */
+  public List<DiscountDefinition> validateAndGetDiscounts(
+      List<String> discountCodes, Function<String, DiscountDefinition> validator) {
     if (discountCodes == null || discountCodes.isEmpty()) {
       return List.of();
     }
 
-    List<Discount> discounts = discountRepository.findAllByCodeIn(discountCodes);
-
-    // Check if all codes were found
-    if (discounts.size() != discountCodes.size()) {
-      List<String> foundCodes = discounts.stream()
-          .map(Discount::getCode)
-          .toList();
-
-      String missingCode = discountCodes.stream()
-          .filter(code -> !foundCodes.contains(code))
-          .findFirst()
-          .orElse("unknown");
-
-      throw new InvalidDiscountException(missingCode, "discount code not found");
-    }
-
-    // Validate each discount
-    LocalDate today = LocalDate.now();
-    for (Discount discount : discounts) {
-      validateDiscount(discount, today);
+    List<DiscountDefinition> discounts = new ArrayList<>(discountCodes.size());
+    Set<String> seenCodes = new HashSet<>();
+    for (String code : discountCodes) {
+      if (!seenCodes.add(code)) {
+        throw new InvalidDiscountException(code, "discount code applied more than once");
+      }
+      discounts.add(validator.apply(code));
     }
 
     return discounts;
   }
 
   /**
-   * Update remaining uses for discounts.
+   * Validate and get one discount by its code.
+   *
+   * @param code the discount code
+   * @return the valid discount
+   * @throws InvalidDiscountException if the discount is invalid
+   */
+  public DiscountDefinition validateAndGetDiscount(String code) {
+    DiscountDefinition discount = discountRegistry.find(code);
+    if (discount == null) {
+      discount = findUnregisteredDiscount(code);
+    }
+    validateDiscount(discount, LocalDate.now());
+    return discount;
+  }
+
+  /**
+   * Take one use of each discount through the {@link DiscountUsageService}.
    *
    * @param discounts the list of discounts to update
+   * @throws InvalidDiscountException if any discount has no remaining uses left
    */
-  public void updateDiscountUsage(List<Discount> discounts) {
-    for (Discount discount : discounts) {
-      discount.setRemainingUses(discount.getRemainingUses() - 1);
-      discountRepository.save(discount);
+  public void updateDiscountUsage(List<DiscountDefinition> discounts) {
+    List<Long> exhaustedIds = discountUsageService.consume(discounts);
+    if (exhaustedIds.isEmpty()) {
+      return;
     }
+
+    exhaustedIds.forEach(discountRegistry::markExhausted);
+    DiscountDefinition exhausted = discounts.stream()
+        .filter(discount -> discount.id().equals(exhaustedIds.get(0)))
+        .findFirst()
+        .orElseThrow();
+    throw new InvalidDiscountException(exhausted.code(), "discount has no remaining uses");
+  }
+
+  private DiscountDefinition findUnregisteredDiscount(String code) {
+    Discount discount = discountRepository.findByCode(code)
+        .orElseThrow(() -> new InvalidDiscountException(code, "discount code not found"));
+    if (discount.getRemainingUses() <= 0) {
+      throw new InvalidDiscountException(code, "discount has no remaining uses");
+    }
+    return DiscountDefinition.of(discount);
   }
 
-  private void validateDiscount(Discount discount, LocalDate today) {
+  private void validateDiscount(DiscountDefinition discount, LocalDate today) {
     // Check if discount is expired
-    if (today.isBefore(discount.getValidFrom())) {
-      throw new InvalidDiscountException(discount.getCode(), "discount is not yet valid");
+    if (today.isBefore(discount.validFrom())) {
+      throw new InvalidDiscountException(discount.code(), "discount is not yet valid");
     }
 
-    if (today.isAfter(discount.getValidUntil())) {
-      throw new InvalidDiscountException(discount.getCode(), "discount has expired");
+    if (today.isAfter(discount.validUntil())) {
+      throw new InvalidDiscountException(discount.code(), "discount has expired");
     }
 
-    // Check if discount has remaining uses
-    if (discount.getRemainingUses() <= 0) {
-      throw new InvalidDiscountException(discount.getCode(), "discount has no remaining uses");
+    // Check if discount is known to have no remaining uses, here or in a leased block
+    if (discountRegistry.isExhausted(discount.id())
+        && discountUsageService.getLeasedUses(discount.id()) == 0) {
+      throw new InvalidDiscountException(discount.code(), "discount has no remaining uses");
     }
   }
 }
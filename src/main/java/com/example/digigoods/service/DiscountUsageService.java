@@ -0,0 +1,214 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.repository.DiscountRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Consumes discount uses without ever taking more than a code has.
+ *
+ * <p>A use is normally taken with one conditional decrement of {@code remaining_uses} that
+ * only succeeds while uses are left, so concurrent checkouts cannot oversell a code, but they
+ * all lock the same row until they commit. For the hot codes listed in
+ * {@code discounts.usage-lease.hot-codes}, each node instead moves a block of up to
+ * {@code discounts.usage-lease.block-size} uses out of the row in its own short transaction
+ * and hands them out from memory. The block is refilled in the background once half of it is
+ * gone; a checkout that finds it empty falls back to the conditional decrement rather than
+ * waiting for the refill.
+ *
+ * <p>A use taken from a block by a checkout that rolls back goes back to the block. Unused
+ * uses are given back to the row on shutdown; a node that crashes loses its block, which can
+ * leave a code under-used but never oversold.
+ */
+@Service
+public class DiscountUsageService {
+
+  private static final Logger log = LoggerFactory.getLogger(DiscountUsageService.class);
+
+  @Value("${discounts.usage-lease.enabled:false}")
+  private boolean leaseEnabled;
+
+  @Value("${discounts.usage-lease.hot-codes:}")
+  private List<String> hotCodes;
+
+  @Value("${discounts.usage-lease.block-size:50}")
+  private int blockSize;
+
+  private final DiscountRepository discountRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  private final Map<Long, Block> blocks = new ConcurrentHashMap<>();
+  private Executor refiller;
+
+  public DiscountUsageService(DiscountRepository discountRepository,
+                              PlatformTransactionManager transactionManager) {
+    this.discountRepository = discountRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(
+        TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Start the background refill of leased blocks.
+   */
+  @PostConstruct
+  public void start() {
+    if (!leaseEnabled) {
+      return;
+    }
+
+    refiller = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "discount-usage-refiller");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Stop refilling and give every unused leased use back to its discount.
+   *
+   * @throws InterruptedException if interrupted while waiting for a running refill
+   */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    if (refiller instanceof ExecutorService executor) {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    returnLeasedUses();
+  }
+
+  /**
+   * Check if uses of a code are leased in blocks.
+   *
+   * @param code the discount code
+   * @return true if the code is a hot code and leasing is enabled, false otherwise
+   */
+  public boolean isLeased(String code) {
+    return leaseEnabled && hotCodes.contains(code);
+  }
+
+  /**
+   * Get the uses of a discount leased to this node and not taken yet, which the database no
+   * longer counts as remaining.
+   *
+   * @param discountId the discount ID
+   * @return the number of leased uses left
+   */
+  public int getLeasedUses(Long discountId) {
+    Block block = blocks.get(discountId);
+    return block == null ? 0 : block.available.get();
+  }
+
+  /**
+   * Take one use of each discount.
+   *
+   * <p>When called inside a transaction, uses taken from leased blocks are given back if that
+   * transaction rolls back; decrements roll back with it.
+   *
+   * @param discounts the discounts
+   * @return the IDs of the discounts that had no remaining uses
+   */
+  public List<Long> consume(List<DiscountDefinition> discounts) {
+    List<Long> decrementIds = new ArrayList<>(discounts.size());
+    for (DiscountDefinition discount : discounts) {
+      if (!isLeased(discount.code()) || !takeLeased(discount.id())) {
+        decrementIds.add(discount.id());
+      }
+    }
+    return discountRepository.decrementRemainingUses(decrementIds);
+  }
+
+  private void returnLeasedUses() {
+    blocks.values().forEach(block -> {
+      int unused = block.available.getAndSet(0);
+      if (unused > 0) {
+        transactionTemplate.executeWithoutResult(status ->
+            discountRepository.returnRemainingUses(block.discountId, unused));
+      }
+    });
+  }
+
+  private boolean takeLeased(Long discountId) {
+    Block block = blocks.computeIfAbsent(discountId, Block::new);
+    int available = block.available.get();
+    while (available > 0) {
+      if (block.available.compareAndSet(available, available - 1)) {
+        if (available - 1 <= blockSize / 2) {
+          requestRefill(block);
+        }
+        returnOnRollback(block);
+        return true;
+      }
+      available = block.available.get();
+    }
+
+    requestRefill(block);
+    return false;
+  }
+
+  private void requestRefill(Block block) {
+    if (block.refilling.compareAndSet(false, true)) {
+      refiller.execute(() -> refill(block));
+    }
+  }
+
+  private void refill(Block block) {
+    try {
+      int wanted = blockSize - block.available.get();
+      if (wanted > 0) {
+        Integer leased = transactionTemplate.execute(status ->
+            discountRepository.leaseRemainingUses(block.discountId, wanted));
+        block.available.addAndGet(leased);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Failed to lease uses of discount {}, will retry", block.discountId, e);
+    } finally {
+      block.refilling.set(false);
+    }
+  }
+
+  private void returnOnRollback(Block block) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status == STATUS_ROLLED_BACK) {
+          block.available.incrementAndGet();
+        }
+      }
+    });
+  }
+
+  private static final class Block {
+
+    private final Long discountId;
+    private final AtomicInteger available = new AtomicInteger();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    private Block(Long discountId) {
+      this.discountId = discountId;
+    }
+  }
+}
@@ -1,103 +1,184 @@
 package com.example.digigoods.service;
 
+import com.example.digigoods.security.VerifiedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
  * Service for JWT token operations.
+ *
+ * <p>Signing keys and the parser are built once. Tokens carry the ID of the key that signed
+ * them, so {@link #rotateSigningKey(String)} can switch to a new key at runtime while tokens
+ * signed with the previous key stay valid.
  */
 @Service
 public class JwtService {
 
+  private static final String TOKEN_VERSION_CLAIM = "ver";
+
   @Value("${jwt.secret:mySecretKey}")
   private String secret;
 
+  @Value("${jwt.previous-secret:}")
+  private String previousSecret;
+
   @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
   private Long expiration;
 
+  private final JwtParser parser = Jwts.parser()
+      .keyLocator(this::locateVerificationKey)
+      .build();
+
+  private final List<Runnable> keyRotationListeners = new CopyOnWriteArrayList<>();
+
+  private volatile KeyRing keyRing;
+
   /**
-   * Generate JWT token for a user.
+   * Build the signing key and the keys accepted for verification.
+   */
+  @PostConstruct
+  public void init() {
+    SigningKey signingKey = SigningKey.of(secret);
+    keyRing = previousSecret == null || previousSecret.isEmpty()
+        ? KeyRing.of(signingKey, null)
+        : KeyRing.of(signingKey, SigningKey.of(previousSecret));
+  }
+
+  /**
+   * Sign new tokens with a new secret. Tokens signed with the current key stay valid; tokens
+   * signed with the key before it are rejected, so rotate at most once per token lifetime.
    *
-   * @param userId the user ID
-   * @param username the username
-   * @return JWT token
+   * @param newSecret the new secret, at least 256 bits long
    */
-  public String generateToken(Long userId, String username) {
-    return Jwts.builder()
-        .subject(username)
-        .claim("userId", userId)
-        .issuedAt(new Date())
-        .expiration(new Date(System.currentTimeMillis() + expiration))
-        .signWith(getSigningKey())
-        .compact();
+  public synchronized void rotateSigningKey(String newSecret) {
+    keyRing = KeyRing.of(SigningKey.of(newSecret), keyRing.current());
+    keyRotationListeners.forEach(Runnable::run);
   }
 
   /**
-   * Extract username from JWT token.
+   * Register a callback run after every signing key rotation.
    *
-   * @param token the JWT token
-   * @return username
+   * @param listener the callback
    */
-  public String extractUsername(String token) {
-    return extractClaim(token, Claims::getSubject);
+  public void onKeyRotation(Runnable listener) {
+    keyRotationListeners.add(listener);
   }
 
   /**
-   * Extract user ID from JWT token.
+   * Generate JWT token for a user.
    *
-   * @param token the JWT token
-   * @return user ID
+   * @param userId the user ID
+   * @param username the username
+   * @return JWT token
    */
-  public Long extractUserId(String token) {
-    return extractClaim(token, claims -> claims.get("userId", Long.class));
+  public String generateToken(Long userId, String username) {
+    return generateToken(userId, username, 0);
   }
 
   /**
-   * Check if JWT token is expired.
+   * Generate JWT token for a user, carrying the user's token version.
    *
-   * @param token the JWT token
-   * @return true if expired, false otherwise
+   * @param userId the user ID
+   * @param username the username
+   * @param tokenVersion the user's current token version
+   * @return JWT token
    */
-  public boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+  public String generateToken(Long userId, String username, int tokenVersion) {
+    SigningKey signingKey = keyRing.current();
+    return Jwts.builder()
+        .header().keyId(signingKey.id()).and()
+        .subject(username)
+        .claim("userId", userId)
+        .claim(TOKEN_VERSION_CLAIM, tokenVersion)
+        .issuedAt(new Date())
+        .expiration(new Date(System.currentTimeMillis() + expiration))
+        .signWith(signingKey.key())
+        .compact();
   }
 
   /**
-   * Validate JWT token.
+   * Verify a JWT token's signature and expiry and read its claims, parsing it only once.
    *
    * @param token the JWT token
-   * @param username the username to validate against
-   * @return true if valid, false otherwise
+   * @return the verified claims
+   * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
    */
-  public boolean validateToken(String token, String username) {
-    final String extractedUsername = extractUsername(token);
-    return (extractedUsername.equals(username) && !isTokenExpired(token));
+  public VerifiedToken verify(String token) {
+    Claims claims = extractAllClaims(token);
+    Integer tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+    return new VerifiedToken(
+        claims.get("userId", Long.class),
+        claims.getSubject(),
+        tokenVersion == null ? 0 : tokenVersion,
+        claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+        claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
   }
 
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  private Claims extractAllClaims(String token) {
+    return parser.parseSignedClaims(token).getPayload();
   }
 
-  private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-    final Claims claims = extractAllClaims(token);
-    return claimsResolver.apply(claims);
+  private Key locateVerificationKey(Header header) {
+    KeyRing ring = keyRing;
+    String keyId = header instanceof ProtectedHeader protectedHeader
+        ? protectedHeader.getKeyId()
+        : null;
+    if (keyId == null) {
+      // Tokens issued before key IDs were added
+      return ring.current().key();
+    }
+    SecretKey key = ring.keys().get(keyId);
+    if (key == null) {
+      throw new SignatureException("JWT signing key " + keyId + " is not recognized");
+    }
+    return key;
   }
 
-  private Claims extractAllClaims(String token) {
-    return Jwts.parser()
-        .verifyWith(getSigningKey())
-        .build()
-        .parseSignedClaims(token)
-        .getPayload();
+  private record SigningKey(String id, SecretKey key) {
+
+    static SigningKey of(String secret) {
+      byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+      return new SigningKey(keyId(secretBytes), Keys.hmacShaKeyFor(secretBytes));
+    }
+
+    /**
+     * Derive a key ID from the secret, so every instance sharing a secret agrees on it without
+     * revealing the secret.
+     */
+    private static String keyId(byte[] secretBytes) {
+      try {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(secretBytes);
+        return HexFormat.of().formatHex(digest, 0, 8);
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("SHA-256 is not available", e);
+      }
+    }
   }
 
-  private SecretKey getSigningKey() {
-    return Keys.hmacShaKeyFor(secret.getBytes());
+  private record KeyRing(SigningKey current, Map<String, SecretKey> keys) {
+
+    static KeyRing of(SigningKey current, SigningKey previous) {
+      return new KeyRing(current, previous == null || previous.id().equals(current.id())
+          ? Map.of(current.id(), current.key())
+          : Map.of(current.id(), current.key(), previous.id(), previous.key()));
+    }
   }
 }
@@ -0,0 +1,84 @@
+package com.example.digigoods.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point money arithmetic on {@code long} cents and basis points.
+ *
+ * <p>Amounts are whole cents (the scale of every price column) and percentages are basis
+ * points, i.e. hundredths of a percent (the scale of {@code discounts.percentage}). Every
+ * operation rounds HALF_UP exactly like {@code BigDecimal.divide(divisor, 2, HALF_UP)} does
+ * on the equivalent decimal values. Conversion to {@link BigDecimal} only happens at the API
+ * and persistence boundary.
+ */
+public final class Money {
+
+  private static final long BASIS_POINTS_PER_WHOLE = 10_000L;
+
+  private Money() {
+  }
+
+  /**
+   * Convert an amount to cents.
+   *
+   * @param amount the amount, with at most two decimal places
+   * @return the amount in cents
+   * @throws ArithmeticException if the amount has fractional cents or overflows a long
+   */
+  public static long toCents(BigDecimal amount) {
+    return amount.movePointRight(2).longValueExact();
+  }
+
+  /**
+   * Convert cents to an amount with two decimal places.
+   *
+   * @param cents the amount in cents
+   * @return the amount
+   */
+  public static BigDecimal fromCents(long cents) {
+    return BigDecimal.valueOf(cents, 2);
+  }
+
+  /**
+   * Convert a percentage to basis points.
+   *
+   * @param percentage the percentage, with at most two decimal places
+   * @return the percentage in basis points
+   * @throws ArithmeticException if the percentage has more than two decimal places
+   */
+  public static long toBasisPoints(BigDecimal percentage) {
+    return percentage.movePointRight(2).longValueExact();
+  }
+
+  /**
+   * Take a percentage of an amount, rounded HALF_UP to cents.
+   *
+   * @param cents the amount in cents
+   * @param basisPoints the percentage in basis points
+   * @return the share of the amount in cents
+   */
+  public static long percentageOf(long cents, long basisPoints) {
+    return divideHalfUp(Math.multiplyExact(cents, basisPoints), BASIS_POINTS_PER_WHOLE);
+  }
+
+  /**
+   * Express a part of a whole as a percentage, rounded HALF_UP to basis points.
+   *
+   * @param partCents the part in cents
+   * @param wholeCents the whole in cents
+   * @return the percentage in basis points
+   * @throws ArithmeticException if the whole is zero
+   */
+  public static long basisPointsOf(long partCents, long wholeCents) {
+    return divideHalfUp(Math.multiplyExact(partCents, BASIS_POINTS_PER_WHOLE), wholeCents);
+  }
+
+  private static long divideHalfUp(long dividend, long divisor) {
+    long quotient = dividend / divisor;
+    long remainder = dividend % divisor;
+    if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+      quotient += Long.signum(dividend) * Long.signum(divisor);
+    }
+    return quotient;
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.OrderHistoryPageResponse;
+import com.example.digigoods.dto.OrderSummaryResponse;
+import com.example.digigoods.repository.OrderRepository;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for reading users' orders back.
+ */
+@Service
+public class OrderHistoryService {
+
+  private final OrderRepository orderRepository;
+
+  @Value("${orders.history.page.max-size:100}")
+  private int maxPageSize;
+
+  public OrderHistoryService(OrderRepository orderRepository) {
+    this.orderRepository = orderRepository;
+  }
+
+  /**
+   * Get one page of a user's orders, newest first, using the last seen order ID as the
+   * cursor.
+   *
+   * <p>Orders accepted through the order outbox appear once the outbox worker has written
+   * them.
+   *
+   * @param userId the user ID
+   * @param afterOrderId the ID of the last order of the previous page, or null for the first
+   *                     page
+   * @param limit the requested page size, capped at {@code orders.history.page.max-size}
+   * @return the page with the cursor of the next page, or a null cursor on the last page
+   */
+  public OrderHistoryPageResponse getOrderHistory(Long userId, Long afterOrderId, int limit) {
+    int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+    List<OrderSummaryResponse> orders =
+        orderRepository.findSummariesByUserId(userId, afterOrderId, pageSize + 1);
+
+    Long nextCursor = null;
+    if (orders.size() > pageSize) {
+      orders = orders.subList(0, pageSize);
+      nextCursor = orders.get(pageSize - 1).getId();
+    }
+    return new OrderHistoryPageResponse(orders, nextCursor);
+  }
+}
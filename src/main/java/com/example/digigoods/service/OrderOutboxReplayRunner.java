@@ -0,0 +1,52 @@
+package com.example.digigoods.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replays a range of order outbox entries on startup when
+ * {@code checkout.outbox.replay.from-order-id} is set, e.g. to re-create orders lost in a
+ * restore or to publish their events again:
+ *
+ * <pre>
+ * java -jar digigoods.jar --spring.main.web-application-type=none \
+ *     --checkout.outbox.replay.from-order-id=1000 --checkout.outbox.replay.to-order-id=2000
+ * </pre>
+ *
+ * <p>The replayed entries are processed before the runner returns, so without a web server
+ * the application exits once they are written.
+ */
+@Component
+public class OrderOutboxReplayRunner implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(OrderOutboxReplayRunner.class);
+
+  private final OrderOutboxService orderOutboxService;
+
+  @Value("${checkout.outbox.replay.from-order-id:#{null}}")
+  private Long fromOrderId;
+
+  @Value("${checkout.outbox.replay.to-order-id:#{null}}")
+  private Long toOrderId;
+
+  public OrderOutboxReplayRunner(OrderOutboxService orderOutboxService) {
+    this.orderOutboxService = orderOutboxService;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (fromOrderId == null) {
+      return;
+    }
+
+    Long lastOrderId = toOrderId == null ? Long.MAX_VALUE : toOrderId;
+    int replayed = orderOutboxService.replay(fromOrderId, lastOrderId);
+    int processed = orderOutboxService.processPending();
+    log.info("Replayed {} order outbox entries for orders {} to {}, processed {}", replayed,
+        fromOrderId, lastOrderId, processed);
+  }
+}
@@ -0,0 +1,333 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.OrderLine;
+import com.example.digigoods.model.OrderOutboxEntry;
+import com.example.digigoods.repository.OrderOutboxRepository;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Transactional outbox of accepted orders, and the worker that writes them to {@code orders}.
+ *
+ * <p>When {@code checkout.outbox.enabled} is set, checkout reserves stock and discount uses
+ * and appends the priced order to {@code order_outbox} in the same transaction, then returns
+ * the allocated order ID without writing the order itself. A background worker claims up to
+ * {@code checkout.outbox.batch-size} pending entries every
+ * {@code checkout.outbox.poll-interval-ms}, writes their orders, lines and applied discounts
+ * with one JDBC batch each, marks them processed in the same transaction and then publishes an
+ * {@link OrderPlacedEvent} per entry.
+ *
+ * <p>Entries are processed in the order they were appended. Claiming locks the oldest pending
+ * entries, so workers on several nodes take turns rather than running side by side. Entry
+ * numbers are taken when an entry is appended, not when it commits, so the orders of a user
+ * are written in the order that user placed them as long as one checkout committed before
+ * the next began; the orders of overlapping checkouts of the same user may be written in
+ * either order. Writing is idempotent: orders that already exist are skipped, which makes
+ * {@link #replay(Long, Long) replaying} entries safe. Processed entries are kept for
+ * {@code checkout.outbox.retention-ms}.
+ *
+ * <p>An entry whose order cannot be written, e.g. because its payload is unreadable or a row
+ * it references is gone, is retried on its own and set aside after
+ * {@code checkout.outbox.max-attempts} failures, keeping its last error. The entries behind it
+ * are written meanwhile, including later orders of the same user. Set-aside entries are kept
+ * until they are replayed.
+ */
+@Service
+public class OrderOutboxService {
+
+  private static final Logger log = LoggerFactory.getLogger(OrderOutboxService.class);
+
+  private static final long PURGE_INTERVAL_MILLIS = 3_600_000;
+  private static final int MAX_ERROR_LENGTH = 1000;
+
+  @Value("${checkout.outbox.enabled:false}")
+  private boolean enabled;
+
+  @Value("${checkout.outbox.batch-size:500}")
+  private int batchSize;
+
+  @Value("${checkout.outbox.poll-interval-ms:200}")
+  private long pollIntervalMillis;
+
+  @Value("${checkout.outbox.max-attempts:5}")
+  private int maxAttempts;
+
+  @Value("${checkout.outbox.retention-ms:604800000}")
+  private long retentionMillis;
+
+  private final OrderOutboxRepository outboxRepository;
+  private final OrderRepository orderRepository;
+  private final UserRepository userRepository;
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TransactionTemplate transactionTemplate;
+
+  private ScheduledExecutorService worker;
+
+  public OrderOutboxService(OrderOutboxRepository outboxRepository,
+                            OrderRepository orderRepository,
+                            UserRepository userRepository,
+                            ObjectMapper objectMapper,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager) {
+    this.outboxRepository = outboxRepository;
+    this.orderRepository = orderRepository;
+    this.userRepository = userRepository;
+    this.objectMapper = objectMapper;
+    this.eventPublisher = eventPublisher;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Check if checkout appends orders to the outbox instead of writing them.
+   *
+   * @return true if enabled, false otherwise
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Start the background worker.
+   */
+  @PostConstruct
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+
+    worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "order-outbox-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    worker.scheduleWithFixedDelay(this::processQuietly, pollIntervalMillis, pollIntervalMillis,
+        TimeUnit.MILLISECONDS);
+    worker.scheduleWithFixedDelay(this::purgeQuietly, PURGE_INTERVAL_MILLIS,
+        PURGE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stop the background worker, letting a running batch finish.
+   *
+   * @throws InterruptedException if interrupted while waiting for the running batch
+   */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    if (worker != null) {
+      worker.shutdown();
+      worker.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Append an accepted order to the outbox, in the current transaction.
+   *
+   * @param order the priced order
+   */
+  public void append(PricedOrder order) {
+    outboxRepository.save(new OrderOutboxEntry(null, order.orderId(), order.userId(),
+        write(order), LocalDateTime.now(), null, 0, null, null));
+  }
+
+  /**
+   * Write the orders of pending entries until none are left.
+   *
+   * @return the number of entries processed
+   */
+  public int processPending() {
+    int total = 0;
+    int processed;
+    do {
+      processed = processBatch();
+      total += processed;
+    } while (processed == batchSize);
+    return total;
+  }
+
+  /**
+   * Write the orders of one batch of pending entries.
+   *
+   * <p>If the batch fails, its entries are retried one by one, each in its own transaction,
+   * so one entry that cannot be written does not hold up the others. A failure the database
+   * reports as transient ends the pass instead, to be retried with the next one; any other
+   * failure counts against the entry, which is set aside once it has failed
+   * {@code checkout.outbox.max-attempts} times.
+   *
+   * @return the number of entries processed
+   */
+  public int processBatch() {
+    List<Long> claimedEntryNos = new ArrayList<>();
+    List<OrderPlacedEvent> events;
+    try {
+      events = transactionTemplate.execute(status -> {
+        List<OrderOutboxEntry> entries = outboxRepository.claimPending(batchSize);
+        entries.forEach(entry -> claimedEntryNos.add(entry.getEntryNo()));
+        return writeOrders(entries);
+      });
+    } catch (TransientDataAccessException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      if (claimedEntryNos.isEmpty()) {
+        throw e;
+      }
+      log.warn("Failed to process order outbox batch, retrying its entries one by one", e);
+      return processEach(claimedEntryNos);
+    }
+
+    events.forEach(eventPublisher::publishEvent);
+    return events.size();
+  }
+
+  /**
+   * Mark the entries of a range of orders as pending again, so their missing orders are
+   * written and their events published once more.
+   *
+   * @param fromOrderId the first order ID, inclusive
+   * @param toOrderId the last order ID, inclusive
+   * @return the number of entries marked for replay
+   */
+  public int replay(Long fromOrderId, Long toOrderId) {
+    return transactionTemplate.execute(status ->
+        outboxRepository.markPending(fromOrderId, toOrderId));
+  }
+
+  /**
+   * Delete the entries processed longer ago than the retention period.
+   *
+   * @return the number of deleted entries
+   */
+  public int purgeProcessed() {
+    return transactionTemplate.execute(status -> outboxRepository.deleteProcessedBefore(
+        LocalDateTime.now().minusNanos(retentionMillis * 1_000_000)));
+  }
+
+  private int processEach(List<Long> entryNos) {
+    int processed = 0;
+    for (Long entryNo : entryNos) {
+      List<OrderPlacedEvent> events;
+      try {
+        events = transactionTemplate.execute(status ->
+            writeOrders(outboxRepository.claimPendingEntry(entryNo)));
+      } catch (TransientDataAccessException e) {
+        throw e;
+      } catch (RuntimeException e) {
+        recordFailure(entryNo, e);
+        continue;
+      }
+      events.forEach(eventPublisher::publishEvent);
+      processed += events.size();
+    }
+    return processed;
+  }
+
+  private void recordFailure(Long entryNo, RuntimeException failure) {
+    String error = failure.toString();
+    if (error.length() > MAX_ERROR_LENGTH) {
+      error = error.substring(0, MAX_ERROR_LENGTH);
+    }
+    final String lastError = error;
+    transactionTemplate.executeWithoutResult(status -> outboxRepository.recordFailure(entryNo,
+        lastError, maxAttempts, LocalDateTime.now()));
+    log.warn("Failed to write order of outbox entry {}, will retry up to {} attempts in all",
+        entryNo, maxAttempts, failure);
+  }
+
+  private List<OrderPlacedEvent> writeOrders(List<OrderOutboxEntry> entries) {
+    if (entries.isEmpty()) {
+      return List.of();
+    }
+
+    List<PricedOrder> orders = entries.stream().map(this::read).toList();
+    writeMissingOrders(entries, orders);
+    outboxRepository.markProcessed(
+        entries.stream().map(OrderOutboxEntry::getEntryNo).toList(), LocalDateTime.now());
+    return orders.stream()
+        .map(order -> new OrderPlacedEvent(order.orderId(), order.userId(),
+            order.finalPrice()))
+        .toList();
+  }
+
+  private void writeMissingOrders(List<OrderOutboxEntry> entries, List<PricedOrder> orders) {
+    Set<Long> existingIds = new HashSet<>(orderRepository.findExistingIds(
+        orders.stream().map(PricedOrder::orderId).toList()));
+
+    List<Order> newOrders = new ArrayList<>();
+    List<OrderLine> lines = new ArrayList<>();
+    Map<Long, List<Long>> discountIds = new LinkedHashMap<>();
+    for (int i = 0; i < orders.size(); i++) {
+      PricedOrder order = orders.get(i);
+      if (existingIds.contains(order.orderId())) {
+        continue;
+      }
+      Order row = new Order();
+      row.setId(order.orderId());
+      row.setUser(userRepository.getReferenceById(order.userId()));
+      row.setOriginalSubtotal(order.originalSubtotal());
+      row.setFinalPrice(order.finalPrice());
+      row.setOrderDate(entries.get(i).getCreatedAt());
+      newOrders.add(row);
+      lines.addAll(order.lines());
+      discountIds.put(order.orderId(), order.discountIds());
+    }
+
+    orderRepository.insertOrders(newOrders);
+    orderRepository.insertOrderLines(lines);
+    orderRepository.insertOrderAppliedDiscounts(discountIds);
+  }
+
+  private String write(PricedOrder order) {
+    try {
+      return objectMapper.writeValueAsString(order);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize order " + order.orderId(), e);
+    }
+  }
+
+  private PricedOrder read(OrderOutboxEntry entry) {
+    try {
+      return objectMapper.readValue(entry.getPayload(), PricedOrder.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to read outbox entry " + entry.getEntryNo(), e);
+    }
+  }
+
+  private void processQuietly() {
+    try {
+      processPending();
+    } catch (RuntimeException e) {
+      log.warn("Failed to process order outbox, will retry", e);
+    }
+  }
+
+  private void purgeQuietly() {
+    try {
+      purgeProcessed();
+    } catch (RuntimeException e) {
+      log.warn("Failed to purge order outbox, will retry", e);
+    }
+  }
+}
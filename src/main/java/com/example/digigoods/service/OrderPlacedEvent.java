@@ -0,0 +1,14 @@
+package com.example.digigoods.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Published once the rows of an order are committed, whether checkout wrote them itself or
+ * the order outbox worker did.
+ *
+ * @param orderId the order ID
+ * @param userId the ID of the user who placed the order
+ * @param finalPrice the price after discounts
+ */
+public record OrderPlacedEvent(Long orderId, Long userId, BigDecimal finalPrice) {
+}
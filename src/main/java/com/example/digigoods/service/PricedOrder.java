@@ -0,0 +1,19 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.OrderLine;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Order priced and reserved at checkout, with everything needed to write its rows.
+ *
+ * @param orderId the allocated order ID
+ * @param userId the ID of the user who placed the order
+ * @param originalSubtotal the subtotal before discounts
+ * @param finalPrice the price after discounts
+ * @param lines the order lines, one per distinct product
+ * @param discountIds the IDs of the applied discounts
+ */
+public record PricedOrder(Long orderId, Long userId, BigDecimal originalSubtotal,
+                          BigDecimal finalPrice, List<OrderLine> lines, List<Long> discountIds) {
+}
@@ -0,0 +1,149 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.DiscountType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable pricing plan compiled from a set of discounts.
+ *
+ * <p>Product-specific discounts are folded into an open-addressing index from product ID to
+ * the summed discount percentage, so pricing a basket costs one primitive lookup per item
+ * instead of a scan over every discount. General discounts are kept in application order.
+ * Rounding is identical to applying the discounts one by one: each item is discounted and
+ * rounded HALF_UP to cents, then each general discount is applied to the running total.
+ *
+ * <p>Pricing works on {@link Money} cents and basis points and does not allocate. A plan is
+ * thread-safe and can be reused for any number of baskets.
+ */
+public final class PricingPlan {
+
+  private static final long EMPTY = Long.MIN_VALUE;
+
+  private final long[] keys;
+  private final long[] productBasisPoints;
+  private final int mask;
+  private final long[] generalBasisPoints;
+
+  private PricingPlan(Map<Long, Long> productBasisPoints, long[] generalBasisPoints) {
+    int capacity = Integer.highestOneBit(Math.max(2, productBasisPoints.size() * 2 - 1)) << 1;
+    this.keys = new long[capacity];
+    this.productBasisPoints = new long[capacity];
+    this.mask = capacity - 1;
+    Arrays.fill(keys, EMPTY);
+    productBasisPoints.forEach(this::put);
+    this.generalBasisPoints = generalBasisPoints;
+  }
+
+  /**
+   * Compile a pricing plan from discounts.
+   *
+   * @param discounts the discounts to apply, in application order
+   * @return the compiled plan
+   */
+  public static PricingPlan compile(List<DiscountDefinition> discounts) {
+    Map<Long, Long> productBasisPoints = new HashMap<>();
+    List<Long> generalBasisPoints = new ArrayList<>();
+
+    for (DiscountDefinition discount : discounts) {
+      long basisPoints = Money.toBasisPoints(discount.percentage());
+      if (discount.type() == DiscountType.PRODUCT_SPECIFIC) {
+        for (Long productId : discount.applicableProductIds()) {
+          productBasisPoints.merge(productId, basisPoints, Long::sum);
+        }
+      } else if (discount.type() == DiscountType.GENERAL) {
+        generalBasisPoints.add(basisPoints);
+      }
+    }
+
+    return new PricingPlan(productBasisPoints,
+        generalBasisPoints.stream().mapToLong(Long::longValue).toArray());
+  }
+
+  /**
+   * Price a basket with product-specific discounts first, then general discounts.
+   *
+   * @param itemIds the product ID of each item
+   * @param itemPrices the unit price of each item in cents
+   * @return the discounted price in cents
+   */
+  public long price(long[] itemIds, long[] itemPrices) {
+    return applyGeneralDiscounts(applyProductSpecificDiscounts(itemIds, itemPrices));
+  }
+
+  /**
+   * Sum the basket with product-specific discounts applied to each item.
+   *
+   * @param itemIds the product ID of each item
+   * @param itemPrices the unit price of each item in cents
+   * @return the intermediate subtotal in cents
+   */
+  public long applyProductSpecificDiscounts(long[] itemIds, long[] itemPrices) {
+    long total = 0;
+
+    for (int i = 0; i < itemIds.length; i++) {
+      total += applyProductSpecificDiscounts(itemIds[i], itemPrices[i]);
+    }
+
+    return total;
+  }
+
+  /**
+   * Apply the product-specific discounts of a product to one unit of it.
+   *
+   * @param productId the product ID
+   * @param unitPrice the unit price in cents
+   * @return the discounted unit price in cents
+   */
+  public long applyProductSpecificDiscounts(long productId, long unitPrice) {
+    long totalDiscountBasisPoints = get(productId);
+    if (totalDiscountBasisPoints > 0) {
+      return unitPrice - Money.percentageOf(unitPrice, totalDiscountBasisPoints);
+    }
+    return unitPrice;
+  }
+
+  /**
+   * Apply general discounts to a subtotal, one after another.
+   *
+   * @param subtotal the subtotal in cents
+   * @return the discounted subtotal in cents
+   */
+  public long applyGeneralDiscounts(long subtotal) {
+    long currentPrice = subtotal;
+
+    for (long basisPoints : generalBasisPoints) {
+      currentPrice -= Money.percentageOf(currentPrice, basisPoints);
+    }
+
+    return currentPrice;
+  }
+
+  private void put(long productId, long basisPoints) {
+    int slot = slot(productId);
+    while (keys[slot] != EMPTY) {
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = productId;
+    productBasisPoints[slot] = basisPoints;
+  }
+
+  private long get(long productId) {
+    int slot = slot(productId);
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == productId) {
+        return productBasisPoints[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return 0;
+  }
+
+  private int slot(long productId) {
+    long hash = productId * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+}
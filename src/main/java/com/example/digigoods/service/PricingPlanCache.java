@@ -0,0 +1,70 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.DiscountType;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of compiled pricing plans, one per discount set.
+ *
+ * <p>A discount set is identified by the ID, type, percentage and applicable products of each
+ * discount, in application order, so a changed definition always gets a plan of its own.
+ * Applicable products are compared but not hashed: definitions handed out by the
+ * {@link DiscountRegistry} share their product sets, so a cache hit compares them by identity.
+ * Plans of definitions that no longer exist are dropped by {@link #invalidateAll()}, or when
+ * the cache fills up.
+ */
+@Component
+public class PricingPlanCache {
+
+  private static final int MAX_SIZE = 1024;
+
+  private final Map<List<PlanKey>, PricingPlan> plans = new ConcurrentHashMap<>();
+
+  /**
+   * Get the pricing plan of a discount set, compiling it on first use.
+   *
+   * @param discounts the discounts to apply, in application order
+   * @return the compiled plan
+   */
+  public PricingPlan getPlan(List<DiscountDefinition> discounts) {
+    List<PlanKey> key = discounts.stream()
+        .map(discount -> new PlanKey(discount.id(), discount.type(), discount.percentage(),
+            discount.applicableProductIds()))
+        .toList();
+
+    PricingPlan plan = plans.get(key);
+    if (plan == null) {
+      if (plans.size() >= MAX_SIZE) {
+        plans.clear();
+      }
+      plan = plans.computeIfAbsent(key, ignored -> PricingPlan.compile(discounts));
+    }
+    return plan;
+  }
+
+  /**
+   * Drop all compiled plans.
+   */
+  public void invalidateAll() {
+    plans.clear();
+  }
+
+  private record PlanKey(Long discountId, DiscountType type, BigDecimal percentage,
+                         Set<Long> applicableProductIds) {
+
+    @Override
+    public int hashCode() {
+      // Leave the product set out: keys of one discount differing only there are rare, and
+      // equals tells them apart
+      int hash = Objects.hashCode(discountId);
+      hash = 31 * hash + Objects.hashCode(type);
+      return 31 * hash + Objects.hashCode(percentage);
+    }
+  }
+}
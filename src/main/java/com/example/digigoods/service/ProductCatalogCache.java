@@ -0,0 +1,135 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.Product;
+import com.example.digigoods.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache of {@link CatalogEntry catalog entries} keyed by product ID.
+ *
+ * <p>Only name and price are cached; stock changes on every checkout and is always read from
+ * its owner. Entries are invalidated whenever a product row is written through JPA (see
+ * {@link ProductCatalogInvalidator}) and expire after {@code catalog.cache.ttl-ms} to pick up
+ * writes made outside the application.
+ *
+ * <p>Every load is stamped with the number of invalidations so far and only kept if no
+ * invalidation happened while it ran, so a row read just before a write commits is not
+ * cached after the write has evicted it.
+ *
+ * <p>Hits and misses are published as {@code catalog.cache.*} meters, together with the hit
+ * ratio since startup.
+ */
+@Component
+public class ProductCatalogCache {
+
+  private final ProductRepository productRepository;
+  private final Map<Long, CachedEntry> entries = new ConcurrentHashMap<>();
+  private final Counter hits;
+  private final Counter misses;
+  private final AtomicLong invalidations = new AtomicLong();
+
+  @Value("${catalog.cache.max-size:10000}")
+  private int maxSize;
+
+  @Value("${catalog.cache.ttl-ms:300000}")
+  private long ttlMillis;
+
+  public ProductCatalogCache(ProductRepository productRepository, MeterRegistry meterRegistry) {
+    this.productRepository = productRepository;
+    this.hits = meterRegistry.counter("catalog.cache.hits");
+    this.misses = meterRegistry.counter("catalog.cache.misses");
+    Gauge.builder("catalog.cache.size", entries, Map::size).register(meterRegistry);
+    Gauge.builder("catalog.cache.hit.ratio", this, ProductCatalogCache::hitRatio)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Get the catalog entries of several products, loading all misses with one query.
+   *
+   * @param productIds the product IDs
+   * @return the entries keyed by product ID; products that do not exist are absent
+   */
+  public Map<Long, CatalogEntry> getEntries(Collection<Long> productIds) {
+    Map<Long, CatalogEntry> result = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    long now = System.nanoTime();
+
+    for (Long productId : productIds) {
+      if (result.containsKey(productId)) {
+        continue;
+      }
+      CachedEntry cached = entries.get(productId);
+      if (cached != null && now - cached.loadedAtNanos() <= ttlMillis * 1_000_000) {
+        result.put(productId, cached.entry());
+        hits.increment();
+      } else if (!missing.contains(productId)) {
+        missing.add(productId);
+        misses.increment();
+      }
+    }
+
+    if (!missing.isEmpty()) {
+      // Read before the query: an invalidation racing with it discards what it loads
+      long stamp = invalidations.get();
+      for (Product product : productRepository.findAllByIdIn(missing)) {
+        CatalogEntry entry = CatalogEntry.of(product);
+        put(entry, now, stamp);
+        result.put(entry.id(), entry);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Drop the cached entry of a product.
+   *
+   * @param productId the product ID
+   */
+  public void invalidate(Long productId) {
+    invalidations.incrementAndGet();
+    entries.remove(productId);
+  }
+
+  /**
+   * Drop all cached entries.
+   */
+  public void invalidateAll() {
+    invalidations.incrementAndGet();
+    entries.clear();
+  }
+
+  private void put(CatalogEntry entry, long now, long stamp) {
+    if (invalidations.get() != stamp) {
+      return;
+    }
+    if (entries.size() >= maxSize) {
+      entries.clear();
+    }
+    CachedEntry cached = new CachedEntry(entry, now);
+    entries.put(entry.id(), cached);
+    // An invalidation between the check and the put counts before it removes, so either it
+    // removes this entry or it shows here
+    if (invalidations.get() != stamp) {
+      entries.remove(entry.id(), cached);
+    }
+  }
+
+  private double hitRatio() {
+    double lookups = hits.count() + misses.count();
+    return lookups == 0 ? 0 : hits.count() / lookups;
+  }
+
+  private record CachedEntry(CatalogEntry entry, long loadedAtNanos) {
+  }
+}
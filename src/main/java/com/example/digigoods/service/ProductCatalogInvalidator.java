@@ -0,0 +1,52 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that evicts a product from the {@link ProductCatalogCache} whenever its
+ * row is written, and moves the {@link ProductCatalogVersion} forward.
+ *
+ * <p>The entry is evicted right away and again once the transaction completes. A reader that
+ * loaded the old row before that second eviction does not cache it: the cache drops loads
+ * that an eviction overlapped.
+ *
+ * <p>Hibernate instantiates this listener while the entity manager factory is being built,
+ * so the cache, which needs a repository, is looked up lazily.
+ */
+@Component
+public class ProductCatalogInvalidator {
+
+  private final ObjectProvider<ProductCatalogCache> productCatalogCache;
+  private final ProductCatalogVersion catalogVersion;
+
+  public ProductCatalogInvalidator(ObjectProvider<ProductCatalogCache> productCatalogCache,
+                                   ProductCatalogVersion catalogVersion) {
+    this.productCatalogCache = productCatalogCache;
+    this.catalogVersion = catalogVersion;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  void onProductWritten(Product product) {
+    catalogVersion.markChanged();
+    Long productId = product.getId();
+    ProductCatalogCache cache = productCatalogCache.getObject();
+    cache.invalidate(productId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          cache.invalidate(productId);
+        }
+      });
+    }
+  }
+}
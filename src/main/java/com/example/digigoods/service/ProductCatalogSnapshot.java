@@ -0,0 +1,147 @@
+package com.example.digigoods.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pre-rendered JSON of the full product list served by {@code GET /products}.
+ *
+ * <p>The list is the same for every caller, so it is serialized once, gzipped once and
+ * tagged with a hash of its content. It is rebuilt on the first request after the
+ * {@link ProductCatalogVersion} moves, or after {@code catalog.snapshot.max-age-ms} to pick
+ * up writes made outside the application. A rebuild that produces the same bytes keeps the
+ * same ETag, so clients holding it still get 304 responses.
+ *
+ * <p>Stock reserved at checkout moves the version too, so under steady checkout traffic the
+ * snapshot is stale most of the time. Only one caller rebuilds it at a time; the others keep
+ * getting the previous snapshot meanwhile instead of waiting. Only the very first build makes
+ * callers wait.
+ */
+@Component
+public class ProductCatalogSnapshot {
+
+  private final ProductService productService;
+  private final ProductCatalogVersion catalogVersion;
+  private final ObjectMapper objectMapper;
+  private final Object rebuildLock = new Object();
+  private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+  private volatile Snapshot snapshot;
+
+  @Value("${catalog.snapshot.max-age-ms:60000}")
+  private long maxAgeMillis;
+
+  public ProductCatalogSnapshot(ProductService productService,
+                                ProductCatalogVersion catalogVersion,
+                                ObjectMapper objectMapper) {
+    this.productService = productService;
+    this.catalogVersion = catalogVersion;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Get the snapshot of the current catalog, rebuilding it if the catalog has changed. While
+   * another caller rebuilds it, the previous snapshot is returned.
+   *
+   * @return the snapshot
+   */
+  public Snapshot current() {
+    Snapshot current = snapshot;
+    if (isFresh(current)) {
+      return current;
+    }
+
+    if (current != null) {
+      if (!rebuilding.compareAndSet(false, true)) {
+        return current;
+      }
+      try {
+        current = build();
+        snapshot = current;
+        return current;
+      } finally {
+        rebuilding.set(false);
+      }
+    }
+
+    synchronized (rebuildLock) {
+      current = snapshot;
+      if (!isFresh(current)) {
+        current = build();
+        snapshot = current;
+      }
+      return current;
+    }
+  }
+
+  private boolean isFresh(Snapshot current) {
+    return current != null
+        && current.version() == catalogVersion.current()
+        && System.nanoTime() - current.builtAtNanos() <= maxAgeMillis * 1_000_000;
+  }
+
+  private Snapshot build() {
+    // Read the version first: a change racing with the rebuild leaves the snapshot stale
+    long version = catalogVersion.current();
+    long builtAtNanos = System.nanoTime();
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(productService.getAllProducts());
+      return new Snapshot(version, builtAtNanos, json, gzip(json), etag(json));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize product catalog", e);
+    }
+  }
+
+  private static byte[] gzip(byte[] json) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+      gzip.write(json);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return buffer.toByteArray();
+  }
+
+  private static String etag(byte[] json) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+      return "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + "\"";
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  /**
+   * One rendering of the catalog.
+   *
+   * @param version the catalog version it was built from
+   * @param builtAtNanos when it was built, in {@link System#nanoTime()} units
+   * @param json the JSON array of all products
+   * @param gzip the same JSON, gzip-compressed
+   * @param etag the strong ETag of the uncompressed JSON, quoted
+   */
+  public record Snapshot(long version, long builtAtNanos, byte[] json, byte[] gzip,
+                         String etag) {
+
+    /**
+     * Get the strong ETag of the gzip variant, which differs from the uncompressed one as
+     * the bytes on the wire differ.
+     *
+     * @return the quoted ETag
+     */
+    public String gzipEtag() {
+      return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+  }
+}
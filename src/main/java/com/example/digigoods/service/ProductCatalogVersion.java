@@ -0,0 +1,44 @@
+package com.example.digigoods.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Counter that moves forward whenever anything shown by {@code GET /products} changes:
+ * a product row written through JPA, or stock reserved at checkout.
+ *
+ * <p>Derived views such as the {@link ProductCatalogSnapshot} compare versions to decide
+ * whether they are stale.
+ */
+@Component
+public class ProductCatalogVersion {
+
+  private final AtomicLong version = new AtomicLong();
+
+  /**
+   * Get the current version.
+   *
+   * @return the current version
+   */
+  public long current() {
+    return version.get();
+  }
+
+  /**
+   * Move the version forward now and, inside a transaction, again once it completes, so a
+   * view rebuilt from the not yet committed state in between is not kept.
+   */
+  public void markChanged() {
+    version.incrementAndGet();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          version.incrementAndGet();
+        }
+      });
+    }
+  }
+}
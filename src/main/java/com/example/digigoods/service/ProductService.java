@@ -1,14 +1,27 @@
 package com.example.digigoods.service;
 
+import com.example.digigoods.dto.ProductPageResponse;
+import com.example.digigoods.dto.ProductResponse;
+import com.example.digigoods.dto.ProductSearchRequest;
 import com.example.digigoods.exception.InsufficientStockException;
 import com.example.digigoods.exception.ProductNotFoundException;
 import com.example.digigoods.model.Product;
 import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.ProductSearchCriteria;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service for product operations.
@@ -17,9 +30,27 @@ import org.springframework.stereotype.Service;
 public class ProductService {
 
   private final ProductRepository productRepository;
+  private final StockShardService stockShardService;
+  private final StockLedgerService stockLedgerService;
+  private final ProductCatalogCache productCatalogCache;
+  private final ProductCatalogVersion catalogVersion;
 
-  public ProductService(ProductRepository productRepository) {
+  @Value("${catalog.page.max-size:500}")
+  private int maxPageSize;
+
+  @Value("${catalog.stream.fetch-size:500}")
+  private int streamFetchSize;
+
+  public ProductService(ProductRepository productRepository,
+                        StockShardService stockShardService,
+                        StockLedgerService stockLedgerService,
+                        ProductCatalogCache productCatalogCache,
+                        ProductCatalogVersion catalogVersion) {
     this.productRepository = productRepository;
+    this.stockShardService = stockShardService;
+    this.stockLedgerService = stockLedgerService;
+    this.productCatalogCache = productCatalogCache;
+    this.catalogVersion = catalogVersion;
   }
 
   /**
@@ -49,46 +80,241 @@ public class ProductService {
   }
 
   /**
-   * Get all products from the database.
+   * Get the catalog entries of products from the catalog cache and validate they exist.
+   *
+   * @param productIds the product IDs (duplicates allowed)
+   * @return the entries keyed by product ID
+   * @throws ProductNotFoundException if any product is not found
+   */
+  public Map<Long, CatalogEntry> getCatalogEntries(List<Long> productIds) {
+    Map<Long, CatalogEntry> entries = findCatalogEntries(productIds);
+    checkCatalogEntries(productIds, entries);
+    return entries;
+  }
+
+  /**
+   * Get the catalog entries of the products that exist, from the catalog cache.
+   *
+   * @param productIds the product IDs (duplicates allowed)
+   * @return the entries keyed by product ID, without the products that are not found
+   */
+  public Map<Long, CatalogEntry> findCatalogEntries(List<Long> productIds) {
+    return productCatalogCache.getEntries(productIds);
+  }
+
+  /**
+   * Validate that entries were found for all products.
+   *
+   * @param productIds the product IDs (duplicates allowed)
+   * @param entries the entries found, keyed by product ID
+   * @throws ProductNotFoundException if any product is not found
+   */
+  public void checkCatalogEntries(List<Long> productIds, Map<Long, CatalogEntry> entries) {
+    List<Long> missingIds = productIds.stream()
+        .distinct()
+        .filter(id -> !entries.containsKey(id))
+        .collect(Collectors.toList());
+    if (!missingIds.isEmpty()) {
+      throw new ProductNotFoundException("Products not found with IDs: " + missingIds);
+    }
+  }
+
+  /**
+   * Get all products from the database in ID order.
+   *
+   * <p>Products whose stock lives in shards or in the stock ledger carry that stock.
    *
    * @return list of all products
    */
-  public List<Product> getAllProducts() {
-    return productRepository.findAll();
+  public List<ProductResponse> getAllProducts() {
+    List<ProductResponse> products = productRepository.findAllResponses();
+    Map<Long, Integer> stockOverrides = getStockOverrides();
+    if (stockOverrides.isEmpty()) {
+      return products;
+    }
+
+    return products.stream()
+        .map(product -> withStockOverride(product, stockOverrides))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Get one page of products in ID order, using the last seen ID as the cursor.
+   *
+   * <p>Each page is a single index range scan, so its cost does not depend on how deep into
+   * the catalog it is.
+   *
+   * @param afterId the ID of the last product of the previous page, or null for the first page
+   * @param limit the requested page size, capped at {@code catalog.page.max-size}
+   * @return the page with the cursor of the next page, or a null cursor on the last page
+   */
+  public ProductPageResponse getProductPage(Long afterId, int limit) {
+    int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+    List<ProductResponse> products = productRepository.findResponsesAfter(
+        afterId == null ? Long.MIN_VALUE : afterId, Limit.of(pageSize + 1));
+
+    Long nextCursor = null;
+    if (products.size() > pageSize) {
+      products = products.subList(0, pageSize);
+      nextCursor = products.get(pageSize - 1).getId();
+    }
+
+    Map<Long, Integer> stockOverrides = getStockOverrides();
+    if (!stockOverrides.isEmpty()) {
+      products = products.stream()
+          .map(product -> withStockOverride(product, stockOverrides))
+          .collect(Collectors.toList());
+    }
+    return new ProductPageResponse(products, nextCursor);
+  }
+
+  /**
+   * Search products by name, price and availability, one page at a time in ID order.
+   *
+   * <p>Search text is split into lower-case words that must all appear in the name. The page
+   * may hold fewer than {@code limit} products when the in-stock filter drops products whose
+   * live stock, held by the stock ledger, has run out since it was last written; follow
+   * {@code nextCursor} until it is null.
+   *
+   * @param request the filters, page size and cursor
+   * @return the page with the cursor of the next page, or a null cursor on the last page
+   */
+  public ProductPageResponse searchProducts(ProductSearchRequest request) {
+    int pageSize = Math.max(1, Math.min(request.getLimit(), maxPageSize));
+    Map<Long, Integer> shardedStock = stockShardService.getAllShardedStock();
+    Map<Long, Integer> stockOverrides = getStockOverrides(shardedStock);
+    ProductSearchCriteria criteria = new ProductSearchCriteria(
+        searchTerms(request.getText()),
+        request.getPrefix() == null || request.getPrefix().isBlank()
+            ? null : request.getPrefix().strip().toLowerCase(Locale.ROOT),
+        request.getMinPrice(),
+        request.getMaxPrice(),
+        request.isInStock(),
+        shardedStock.entrySet().stream()
+            .filter(entry -> entry.getValue() > 0)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toSet()),
+        request.getAfter());
+    List<ProductResponse> products = productRepository.search(criteria, pageSize + 1);
+
+    Long nextCursor = null;
+    if (products.size() > pageSize) {
+      products = products.subList(0, pageSize);
+      nextCursor = products.get(pageSize - 1).getId();
+    }
+
+    products = products.stream()
+        .map(product -> withStockOverride(product, stockOverrides))
+        .filter(product -> !request.isInStock() || product.getStock() > 0)
+        .collect(Collectors.toList());
+    return new ProductPageResponse(products, nextCursor);
+  }
+
+  private static List<String> searchTerms(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    return Arrays.stream(text.strip().toLowerCase(Locale.ROOT).split("\\s+"))
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Hand every product to a consumer in ID order as it is read from a database cursor.
+   *
+   * @param consumer receives each product
+   */
+  @Transactional(readOnly = true)
+  public void streamAllProducts(Consumer<ProductResponse> consumer) {
+    Map<Long, Integer> stockOverrides = getStockOverrides();
+    productRepository.streamAll(streamFetchSize,
+        product -> consumer.accept(withStockOverride(product, stockOverrides)));
+  }
+
+  private Map<Long, Integer> getStockOverrides() {
+    return getStockOverrides(stockShardService.getAllShardedStock());
+  }
+
+  private Map<Long, Integer> getStockOverrides(Map<Long, Integer> shardedStock) {
+    Map<Long, Integer> stockOverrides = new HashMap<>(shardedStock);
+    stockOverrides.putAll(stockLedgerService.getTrackedStock());
+    return stockOverrides;
+  }
+
+  private static ProductResponse withStockOverride(ProductResponse product,
+                                                  Map<Long, Integer> stockOverrides) {
+    Integer stock = stockOverrides.get(product.getId());
+    if (stock != null) {
+      product.setStock(stock);
+    }
+    return product;
+  }
+
+  /**
+   * Get the total available stock of a product.
+   *
+   * @param productId the product ID
+   * @return the stock, summed over all shards for sharded products
+   * @throws ProductNotFoundException if the product is not found
+   */
+  public int getTotalStock(Long productId) {
+    OptionalInt ledgerStock = stockLedgerService.getAvailableStock(productId);
+    if (ledgerStock.isPresent()) {
+      return ledgerStock.getAsInt();
+    }
+
+    Product product = productRepository.findById(productId)
+        .orElseThrow(() -> new ProductNotFoundException(productId));
+    return product.getStock() + stockShardService.getShardedStock(productId).orElse(0);
   }
 
   /**
    * Validate and update stock for products.
    *
+   * <p>Stock is reserved with one conditional decrement per distinct product, sent to the
+   * database as a single batch. Rows are never read beforehand; a product is only inspected
+   * when its decrement did not apply, in order to report why. Sharded products are reserved
+   * from their shards instead, and with the stock ledger enabled the whole basket is reserved
+   * in memory.
+   *
    * @param productIds the list of product IDs (with duplicates for quantity)
+   * @throws ProductNotFoundException if any product is not found
    * @throws InsufficientStockException if any product has insufficient stock
    */
+  @Transactional
   public void validateAndUpdateStock(List<Long> productIds) {
-    // Count quantities for each product
-    Map<Long, Long> productQuantities = productIds.stream()
-        .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
-
-    // Get all unique products
-    List<Product> products = getProductsByIds(productQuantities.keySet().stream()
-        .collect(Collectors.toList()));
-
-    // Validate stock availability
-    for (Product product : products) {
-      Long requestedQuantity = productQuantities.get(product.getId());
-      if (product.getStock() < requestedQuantity) {
-        throw new InsufficientStockException(
-            product.getId(),
-            requestedQuantity.intValue(),
-            product.getStock()
-        );
-      }
+    // Count quantities for each product, ordered by ID so concurrent baskets lock rows
+    // in the same order
+    Map<Long, Integer> productQuantities = productIds.stream()
+        .collect(Collectors.groupingBy(Function.identity(), TreeMap::new,
+            Collectors.summingInt(id -> 1)));
+    // Stock is written without going through JPA, so report the change explicitly
+    catalogVersion.markChanged();
+
+    if (stockLedgerService.isEnabled()) {
+      stockLedgerService.reserve(productQuantities);
+      return;
     }
 
-    // Update stock
-    for (Product product : products) {
-      Long requestedQuantity = productQuantities.get(product.getId());
-      product.setStock(product.getStock() - requestedQuantity.intValue());
-      productRepository.save(product);
+    productQuantities.keySet().removeAll(stockShardService.reserveStock(productQuantities));
+    if (productQuantities.isEmpty()) {
+      return;
     }
+
+    int[] updateCounts = productRepository.decrementStock(productQuantities);
+
+    int index = 0;
+    for (Map.Entry<Long, Integer> entry : productQuantities.entrySet()) {
+      if (updateCounts[index++] == 0) {
+        throw stockReservationFailure(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  private RuntimeException stockReservationFailure(Long productId, int requestedQuantity) {
+    return productRepository.findById(productId)
+        .<RuntimeException>map(product -> new InsufficientStockException(
+            productId, requestedQuantity, product.getStock()))
+        .orElseGet(() -> new ProductNotFoundException(productId));
   }
 }
@@ -0,0 +1,426 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.exception.InsufficientStockException;
+import com.example.digigoods.exception.ProductNotFoundException;
+import com.example.digigoods.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory stock reservation ledger with write-behind to the {@code products} table.
+ *
+ * <p>Available stock is kept in one atomic counter per product, loaded from the database the
+ * first time the product is reserved. A reservation is a compare-and-set on those counters
+ * followed by an append to a local journal; the accumulated decrements are written to the
+ * database in a single batch every {@code inventory.ledger.flush-interval-ms} or as soon as
+ * {@code inventory.ledger.batch-size} reservations are pending.
+ *
+ * <p>Crash safety: every reservation is journaled before it is acknowledged, and the journal
+ * segments covering a batch are only deleted once that batch is committed. On startup any
+ * remaining segments are applied to the database before the ledger serves reservations. A
+ * crash between committing a batch and deleting its segments replays the batch once more,
+ * which can under-sell but never oversell.
+ *
+ * <p>While enabled the ledger owns stock: {@code products.stock} must not be changed by
+ * anything else. It cannot be combined with {@code inventory.sharding.enabled}, whose products
+ * keep their stock in shards the ledger does not know about.
+ */
+@Service
+public class StockLedgerService {
+
+  private static final Logger log = LoggerFactory.getLogger(StockLedgerService.class);
+
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  @Value("${inventory.ledger.enabled:false}")
+  private boolean enabled;
+
+  @Value("${inventory.sharding.enabled:false}")
+  private boolean shardingEnabled;
+
+  @Value("${inventory.ledger.flush-interval-ms:200}")
+  private long flushIntervalMillis;
+
+  @Value("${inventory.ledger.batch-size:500}")
+  private int batchSize;
+
+  @Value("${inventory.ledger.journal-dir:data/stock-ledger}")
+  private String journalDir;
+
+  @Value("${inventory.ledger.journal-fsync:true}")
+  private boolean journalFsync;
+
+  private final ProductRepository productRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  private final Map<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+  private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+  private final Object journalLock = new Object();
+  private final AtomicInteger pendingReservations = new AtomicInteger();
+  private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+  private volatile Map<Long, Integer> pending = new ConcurrentHashMap<>();
+  private FileChannel journal;
+  private long segmentNo;
+  private ScheduledExecutorService flusher;
+
+  public StockLedgerService(ProductRepository productRepository,
+                            PlatformTransactionManager transactionManager) {
+    this.productRepository = productRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Check if the stock ledger is enabled.
+   *
+   * @return true if enabled, false otherwise
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Replay leftover journal segments into the database and start the write-behind flusher.
+   *
+   * @throws IOException if the journal cannot be read or created
+   * @throws IllegalStateException if stock sharding is enabled as well
+   */
+  @PostConstruct
+  public void start() throws IOException {
+    if (!enabled) {
+      return;
+    }
+    if (shardingEnabled) {
+      throw new IllegalStateException(
+          "inventory.ledger.enabled cannot be combined with inventory.sharding.enabled");
+    }
+
+    Path directory = Paths.get(journalDir);
+    Files.createDirectories(directory);
+    List<Path> segments = listSegments(directory);
+    recover(segments);
+    segmentNo = segments.isEmpty() ? 0 : segmentNumber(segments.get(segments.size() - 1)) + 1;
+    journal = openSegment(segmentNo);
+
+    flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "stock-ledger-flusher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stop the flusher and write every pending reservation to the database.
+   *
+   * @throws IOException if the journal cannot be closed
+   */
+  @PreDestroy
+  public void stop() throws IOException {
+    if (flusher == null) {
+      return;
+    }
+
+    flusher.shutdown();
+    flush();
+    journal.close();
+  }
+
+  /**
+   * Reserve stock for a basket, all or nothing.
+   *
+   * <p>When called inside a transaction, the reservation is released again if that
+   * transaction rolls back.
+   *
+   * @param quantities the requested quantity keyed by product ID
+   * @throws ProductNotFoundException if any product is not found
+   * @throws InsufficientStockException if any product has insufficient stock
+   */
+  public void reserve(Map<Long, Integer> quantities) {
+    Map<Long, Integer> reservation = new TreeMap<>(quantities);
+    loadCounters(reservation.keySet());
+
+    segmentLock.readLock().lock();
+    try {
+      List<Map.Entry<Long, Integer>> taken = new ArrayList<>(reservation.size());
+      try {
+        for (Map.Entry<Long, Integer> entry : reservation.entrySet()) {
+          AtomicInteger counter = available.get(entry.getKey());
+          if (!tryTake(counter, entry.getValue())) {
+            throw new InsufficientStockException(entry.getKey(), entry.getValue(),
+                counter.get());
+          }
+          taken.add(entry);
+        }
+        appendToJournal(reservation, 1);
+      } catch (RuntimeException e) {
+        taken.forEach(done -> available.get(done.getKey()).addAndGet(done.getValue()));
+        throw e;
+      }
+      reservation.forEach((productId, quantity) -> pending.merge(productId, quantity,
+          Integer::sum));
+    } finally {
+      segmentLock.readLock().unlock();
+    }
+
+    releaseOnRollback(reservation);
+    if (pendingReservations.incrementAndGet() >= batchSize) {
+      requestFlush();
+    }
+  }
+
+  /**
+   * Give previously reserved stock back.
+   *
+   * @param quantities the reserved quantity keyed by product ID
+   */
+  public void release(Map<Long, Integer> quantities) {
+    segmentLock.readLock().lock();
+    try {
+      appendToJournal(quantities, -1);
+      quantities.forEach((productId, quantity) -> {
+        available.get(productId).addAndGet(quantity);
+        pending.merge(productId, -quantity, Integer::sum);
+      });
+    } finally {
+      segmentLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Get the available stock of a product tracked by the ledger.
+   *
+   * @param productId the product ID
+   * @return the available stock, or empty if the product has not been reserved yet
+   */
+  public OptionalInt getAvailableStock(Long productId) {
+    AtomicInteger counter = enabled ? available.get(productId) : null;
+    return counter == null ? OptionalInt.empty() : OptionalInt.of(counter.get());
+  }
+
+  /**
+   * Get the available stock of every product tracked by the ledger.
+   *
+   * @return the available stock keyed by product ID
+   */
+  public Map<Long, Integer> getTrackedStock() {
+    if (!enabled) {
+      return Map.of();
+    }
+    return available.entrySet().stream()
+        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get()));
+  }
+
+  /**
+   * Write all pending reservations to the database in one batch.
+   */
+  public synchronized void flush() {
+    if (!enabled) {
+      return;
+    }
+
+    Map<Long, Integer> batch;
+    long flushedSegmentNo;
+    segmentLock.writeLock().lock();
+    try {
+      flushRequested.set(false);
+      if (pending.isEmpty()) {
+        return;
+      }
+      batch = pending;
+      pending = new ConcurrentHashMap<>();
+      pendingReservations.set(0);
+      flushedSegmentNo = segmentNo;
+      rotateSegment();
+    } finally {
+      segmentLock.writeLock().unlock();
+    }
+
+    Map<Long, Integer> deltas = new TreeMap<>(batch);
+    deltas.values().removeIf(quantity -> quantity == 0);
+    try {
+      transactionTemplate.executeWithoutResult(status ->
+          productRepository.subtractStock(deltas));
+    } catch (RuntimeException e) {
+      // Keep the segments and retry these reservations with the next batch
+      batch.forEach((productId, quantity) -> pending.merge(productId, quantity, Integer::sum));
+      log.warn("Failed to flush stock ledger, will retry", e);
+      return;
+    }
+    deleteSegmentsUpTo(flushedSegmentNo);
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      log.error("Unexpected stock ledger flush failure", e);
+    }
+  }
+
+  private void requestFlush() {
+    if (flusher != null && flushRequested.compareAndSet(false, true)) {
+      flusher.execute(this::flushQuietly);
+    }
+  }
+
+  private void loadCounters(Collection<Long> productIds) {
+    // Queried outside computeIfAbsent, which would hold the map bin lock meanwhile; a counter
+    // loaded concurrently by another reservation wins
+    for (Long productId : productIds) {
+      if (!available.containsKey(productId)) {
+        int stock = productRepository.findById(productId)
+            .orElseThrow(() -> new ProductNotFoundException(productId))
+            .getStock();
+        available.putIfAbsent(productId, new AtomicInteger(stock));
+      }
+    }
+  }
+
+  private static boolean tryTake(AtomicInteger counter, int quantity) {
+    while (true) {
+      int current = counter.get();
+      if (current < quantity) {
+        return false;
+      }
+      if (counter.compareAndSet(current, current - quantity)) {
+        return true;
+      }
+    }
+  }
+
+  private void releaseOnRollback(Map<Long, Integer> reservation) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status == STATUS_ROLLED_BACK) {
+          release(reservation);
+        }
+      }
+    });
+  }
+
+  private void appendToJournal(Map<Long, Integer> quantities, int sign) {
+    StringBuilder lines = new StringBuilder();
+    quantities.forEach((productId, quantity) ->
+        lines.append(productId).append(' ').append(sign * quantity).append('\n'));
+    ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.US_ASCII));
+
+    synchronized (journalLock) {
+      try {
+        while (buffer.hasRemaining()) {
+          journal.write(buffer);
+        }
+        if (journalFsync) {
+          journal.force(false);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to append to stock ledger journal", e);
+      }
+    }
+  }
+
+  private void rotateSegment() {
+    try {
+      journal.close();
+      segmentNo++;
+      journal = openSegment(segmentNo);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to rotate stock ledger journal", e);
+    }
+  }
+
+  private void recover(List<Path> segments) throws IOException {
+    Map<Long, Integer> deltas = new TreeMap<>();
+    for (Path segment : segments) {
+      try (Stream<String> lines = Files.lines(segment, StandardCharsets.US_ASCII)) {
+        lines.filter(line -> line.indexOf(' ') > 0)
+            .map(line -> line.split(" "))
+            .forEach(fields -> deltas.merge(Long.valueOf(fields[0]),
+                Integer.valueOf(fields[1]), Integer::sum));
+      }
+    }
+    deltas.values().removeIf(quantity -> quantity == 0);
+
+    if (!deltas.isEmpty()) {
+      transactionTemplate.executeWithoutResult(status ->
+          productRepository.subtractStock(deltas));
+      log.info("Recovered {} unflushed stock ledger entries", deltas.size());
+    }
+    for (Path segment : segments) {
+      Files.delete(segment);
+    }
+  }
+
+  private void deleteSegmentsUpTo(long lastSegmentNo) {
+    try {
+      for (Path segment : listSegments(Paths.get(journalDir))) {
+        if (segmentNumber(segment) <= lastSegmentNo) {
+          Files.deleteIfExists(segment);
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Failed to delete flushed stock ledger segments", e);
+    }
+  }
+
+  private FileChannel openSegment(long number) throws IOException {
+    Path segment = Paths.get(journalDir, String.format("%s%020d%s", SEGMENT_PREFIX, number,
+        SEGMENT_SUFFIX));
+    return FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+  }
+
+  private static List<Path> listSegments(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+          .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .sorted()
+          .toList();
+    }
+  }
+
+  private static long segmentNumber(Path segment) {
+    String fileName = segment.getFileName().toString();
+    return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(),
+        fileName.length() - SEGMENT_SUFFIX.length()));
+  }
+}
@@ -0,0 +1,223 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.exception.InsufficientStockException;
+import com.example.digigoods.exception.ProductNotFoundException;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.ProductStockShard;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.ProductStockShardRepository;
+import com.example.digigoods.repository.ProductStockShardRepository.ShardCount;
+import com.example.digigoods.repository.ProductStockShardRepository.ShardedStock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for sharded inventory of hot products.
+ *
+ * <p>The stock of a hot product is moved out of {@code products.stock} and split across
+ * several rows of {@code product_stock_shards}, so concurrent checkouts of the same product
+ * lock different rows. A product is sharded exactly when it has shard rows.
+ */
+@Service
+public class StockShardService {
+
+  @Value("${inventory.sharding.enabled:false}")
+  private boolean enabled;
+
+  @Value("${inventory.sharding.hot-product-ids:}")
+  private List<Long> hotProductIds;
+
+  @Value("${inventory.sharding.shard-count:8}")
+  private int shardCount;
+
+  private final ProductStockShardRepository shardRepository;
+  private final ProductRepository productRepository;
+
+  public StockShardService(ProductStockShardRepository shardRepository,
+                           ProductRepository productRepository) {
+    this.shardRepository = shardRepository;
+    this.productRepository = productRepository;
+  }
+
+  /**
+   * Check if sharded inventory mode is enabled.
+   *
+   * @return true if enabled, false otherwise
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Shard the configured hot products that are not sharded yet.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional
+  public void shardHotProducts() {
+    if (!enabled || hotProductIds.isEmpty()) {
+      return;
+    }
+
+    Set<Long> alreadySharded = shardRepository.countShardsByProductIdIn(hotProductIds).stream()
+        .map(ShardCount::getProductId)
+        .collect(Collectors.toSet());
+
+    for (Long productId : hotProductIds) {
+      if (!alreadySharded.contains(productId)) {
+        shardProduct(productId, shardCount);
+      }
+    }
+  }
+
+  /**
+   * Reserve stock for the sharded products of a basket.
+   *
+   * <p>Each product first tries a randomly chosen shard, then the remaining shards in turn.
+   * If no single shard holds the requested quantity, all shards of the product are locked and
+   * drained in shard order.
+   *
+   * @param quantities the requested quantity keyed by product ID
+   * @return IDs of the products whose stock was reserved from shards
+   * @throws InsufficientStockException if a sharded product has insufficient stock
+   */
+  @Transactional
+  public Set<Long> reserveStock(Map<Long, Integer> quantities) {
+    if (!enabled || quantities.isEmpty()) {
+      return Set.of();
+    }
+
+    Map<Long, Long> shardCounts = shardRepository.countShardsByProductIdIn(quantities.keySet())
+        .stream()
+        .collect(Collectors.toMap(ShardCount::getProductId, ShardCount::getShardCount));
+
+    Set<Long> reserved = new HashSet<>();
+    for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+      Long shards = shardCounts.get(entry.getKey());
+      if (shards != null) {
+        reserveFromShards(entry.getKey(), entry.getValue(), shards.intValue());
+        reserved.add(entry.getKey());
+      }
+    }
+    return reserved;
+  }
+
+  /**
+   * Get the total stock of a sharded product.
+   *
+   * @param productId the product ID
+   * @return sum of the shards, or empty if the product is not sharded
+   */
+  public Optional<Integer> getShardedStock(Long productId) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(shardRepository.sumStockByProductId(productId))
+        .map(Long::intValue);
+  }
+
+  /**
+   * Get the total stock of every sharded product.
+   *
+   * @return sum of the shards keyed by product ID
+   */
+  public Map<Long, Integer> getAllShardedStock() {
+    if (!enabled) {
+      return Map.of();
+    }
+    return shardRepository.sumStockGroupByProductId().stream()
+        .collect(Collectors.toMap(ShardedStock::getProductId,
+            shardedStock -> shardedStock.getTotalStock().intValue()));
+  }
+
+  /**
+   * Move the stock of a product into evenly sized shards.
+   *
+   * @param productId the product ID
+   * @param shards the number of shards to create
+   * @throws ProductNotFoundException if the product is not found
+   */
+  @Transactional
+  public void shardProduct(Long productId, int shards) {
+    if (shards < 1) {
+      throw new IllegalArgumentException("Shard count must be positive");
+    }
+
+    Product product = productRepository.findById(productId)
+        .orElseThrow(() -> new ProductNotFoundException(productId));
+    List<ProductStockShard> existingShards =
+        shardRepository.findAllByProductIdOrderByShardNo(productId);
+    int stock = product.getStock() + existingShards.stream()
+        .mapToInt(ProductStockShard::getStock)
+        .sum();
+    shardRepository.deleteAll(existingShards);
+    shardRepository.flush();
+
+    List<ProductStockShard> newShards = new ArrayList<>(shards);
+    for (int shardNo = 0; shardNo < shards; shardNo++) {
+      int shardStock = stock / shards + (shardNo < stock % shards ? 1 : 0);
+      newShards.add(new ProductStockShard(productId, shardNo, shardStock));
+    }
+    shardRepository.saveAll(newShards);
+
+    product.setStock(0);
+    productRepository.save(product);
+  }
+
+  /**
+   * Move the stock of a sharded product back into {@code products.stock}.
+   *
+   * @param productId the product ID
+   * @throws ProductNotFoundException if the product is not found
+   */
+  @Transactional
+  public void unshardProduct(Long productId) {
+    Product product = productRepository.findById(productId)
+        .orElseThrow(() -> new ProductNotFoundException(productId));
+    List<ProductStockShard> shards = shardRepository.findAllByProductIdOrderByShardNo(productId);
+    int shardedStock = shards.stream().mapToInt(ProductStockShard::getStock).sum();
+
+    shardRepository.deleteAll(shards);
+    product.setStock(product.getStock() + shardedStock);
+    productRepository.save(product);
+  }
+
+  private void reserveFromShards(Long productId, int quantity, int shards) {
+    int firstShard = ThreadLocalRandom.current().nextInt(shards);
+    for (int attempt = 0; attempt < shards; attempt++) {
+      int shardNo = (firstShard + attempt) % shards;
+      if (shardRepository.decrementShard(productId, shardNo, quantity) > 0) {
+        return;
+      }
+    }
+
+    // No single shard can cover the quantity, so drain several of them under lock
+    List<ProductStockShard> lockedShards =
+        shardRepository.findAllByProductIdOrderByShardNo(productId);
+    int available = lockedShards.stream().mapToInt(ProductStockShard::getStock).sum();
+    if (available < quantity) {
+      throw new InsufficientStockException(productId, quantity, available);
+    }
+
+    int remaining = quantity;
+    for (ProductStockShard shard : lockedShards) {
+      int taken = Math.min(remaining, shard.getStock());
+      shard.setStock(shard.getStock() - taken);
+      remaining -= taken;
+      if (remaining == 0) {
+        break;
+      }
+    }
+    shardRepository.saveAll(lockedShards);
+  }
+}
@@ -0,0 +1,112 @@
+package com.example.digigoods.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.CheckoutService;
+import com.example.digigoods.service.ProductCatalogCache;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Latency benchmark of checkout with the product catalog cache warm versus cold.
+ *
+ * <p>Not picked up by the default test run. Run it explicitly with
+ * {@code ./mvnw test -Dtest=CheckoutLatencyBenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class CheckoutLatencyBenchmark {
+
+  private static final int CATALOG_SIZE = 200;
+  private static final int BASKET_SIZE = 10;
+  private static final int WARMUP_CHECKOUTS = 2_000;
+  private static final int MEASURED_CHECKOUTS = 5_000;
+
+  @Autowired
+  private CheckoutService checkoutService;
+
+  @Autowired
+  private ProductCatalogCache productCatalogCache;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private final Random random = new Random(42);
+
+  @Test
+  @DisplayName("Given catalog, when checking out with warm and cold cache, then report latency")
+  void givenCatalog_whenCheckingOutWithWarmAndColdCache_thenReportLatency() {
+    // Arrange
+    User user = userRepository.save(new User("benchmark", "password"));
+    List<Long> catalog = new ArrayList<>();
+    for (int i = 0; i < CATALOG_SIZE; i++) {
+      catalog.add(productRepository.save(new Product(null, "Product " + i,
+          BigDecimal.valueOf(100 + random.nextInt(99_900), 2), 1_000_000)).getId());
+    }
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    System.out.printf("%-8s %14s %22s%n", "cache", "us/checkout", "JPA statements/checkout");
+
+    // Act
+    for (boolean warm : new boolean[] {false, true, false, true}) {
+      runCheckouts(user.getId(), catalog, warm, WARMUP_CHECKOUTS);
+      statistics.clear();
+      long elapsedNanos = runCheckouts(user.getId(), catalog, warm, MEASURED_CHECKOUTS);
+      System.out.printf("%-8s %14.1f %22.2f%n", warm ? "warm" : "cold",
+          elapsedNanos / 1_000.0 / MEASURED_CHECKOUTS,
+          (double) statistics.getPrepareStatementCount() / MEASURED_CHECKOUTS);
+    }
+
+    // Assert
+    Product product = productRepository.findById(catalog.get(0)).orElseThrow();
+    assertEquals(true, product.getStock() < 1_000_000);
+  }
+
+  private long runCheckouts(Long userId, List<Long> catalog, boolean warm, int checkouts) {
+    List<CheckoutRequest> requests = new ArrayList<>(checkouts);
+    for (int i = 0; i < checkouts; i++) {
+      List<Long> productIds = new ArrayList<>(BASKET_SIZE);
+      for (int j = 0; j < BASKET_SIZE; j++) {
+        productIds.add(catalog.get(random.nextInt(CATALOG_SIZE)));
+      }
+      requests.add(new CheckoutRequest(userId, productIds, List.of()));
+    }
+
+    long elapsed = 0;
+    for (CheckoutRequest request : requests) {
+      if (!warm) {
+        productCatalogCache.invalidateAll();
+      }
+      long start = System.nanoTime();
+      checkoutService.processCheckout(request, userId);
+      elapsed += System.nanoTime() - start;
+    }
+    return elapsed;
+  }
+}
@@ -0,0 +1,97 @@
+package com.example.digigoods.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.digigoods.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.time.Instant;
+import java.util.Date;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Micro-benchmark of token validation per request: three claim extractions with the parser
+ * built per call or built once, versus a single {@link JwtService#verify(String)}.
+ *
+ * <p>Not picked up by the default test run. Run it explicitly with
+ * {@code ./mvnw test -Dtest=JwtValidationBenchmark}.
+ */
+class JwtValidationBenchmark {
+
+  private static final String SECRET = "myVerySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm";
+  private static final long WARMUP_NANOS = 2_000_000_000L;
+  private static final long MEASURE_NANOS = 3_000_000_000L;
+
+  @Test
+  @DisplayName("Given signed token, when validating repeatedly, then report tokens per second")
+  void givenSignedToken_whenValidatingRepeatedly_thenReportTokensPerSecond() {
+    // Arrange
+    JwtService jwtService = new JwtService();
+    ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+    ReflectionTestUtils.setField(jwtService, "expiration", 86400000L);
+    jwtService.init();
+    String token = jwtService.generateToken(1L, "testuser");
+
+    // Act
+    double perCallParser = measure(token, JwtValidationBenchmark::validateWithPerCallParser);
+    final double sharedParser = measure(token, candidate -> {
+      // The same three claim extractions, each a full parse with the shared parser
+      String username = jwtService.verify(candidate).username();
+      return jwtService.verify(candidate).username().equals(username)
+          && jwtService.verify(candidate).expiresAt().isAfter(Instant.now());
+    });
+    final double verifiedOnce = measure(token, candidate ->
+        jwtService.verify(candidate).username() != null);
+
+    // Assert
+    assertEquals(true, validateWithPerCallParser(token));
+    System.out.printf("%-24s %14s%n", "parser", "tokens/s");
+    System.out.printf("%-24s %14.0f%n", "built per call", perCallParser);
+    System.out.printf("%-24s %14.0f%n", "built once", sharedParser);
+    System.out.printf("%-24s %14.0f%n", "built once, parsed once", verifiedOnce);
+  }
+
+  /**
+   * Validation as it was before the parser was cached: key and parser are rebuilt for each of
+   * the three claim extractions.
+   */
+  private static boolean validateWithPerCallParser(String token) {
+    String username = parse(token).getSubject();
+    return parse(token).getSubject().equals(username)
+        && !parse(token).getExpiration().before(new Date());
+  }
+
+  private static Claims parse(String token) {
+    return Jwts.parser()
+        .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+        .build()
+        .parseSignedClaims(token)
+        .getPayload();
+  }
+
+  private static double measure(String token, Predicate<String> validation) {
+    boolean valid = true;
+    long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+    while (System.nanoTime() < warmupEnd) {
+      valid &= validation.test(token);
+    }
+
+    long iterations = 0;
+    long start = System.nanoTime();
+    long elapsed;
+    do {
+      valid &= validation.test(token);
+      iterations++;
+      elapsed = System.nanoTime() - start;
+    } while (elapsed < MEASURE_NANOS);
+
+    if (!valid) {
+      throw new IllegalStateException();
+    }
+    return iterations / (elapsed / 1_000_000_000.0);
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.digigoods.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.CheckoutService;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Latency and statement count of persisting the order of a 20-item checkout.
+ *
+ * <p>Not picked up by the default test run. Run it explicitly with
+ * {@code ./mvnw test -Dtest=OrderPersistenceBenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class OrderPersistenceBenchmark {
+
+  private static final int CATALOG_SIZE = 200;
+  private static final int BASKET_SIZE = 20;
+  private static final int WARMUP_CHECKOUTS = 2_000;
+  private static final int MEASURED_CHECKOUTS = 5_000;
+
+  @Autowired
+  private CheckoutService checkoutService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private final Random random = new Random(42);
+
+  @Test
+  @DisplayName("Given 20-item baskets, when checking out, then report latency and statements")
+  void givenTwentyItemBaskets_whenCheckingOut_thenReportLatencyAndStatements() {
+    // Arrange
+    User user = userRepository.save(new User("order-benchmark", "password"));
+    List<Long> catalog = new ArrayList<>();
+    for (int i = 0; i < CATALOG_SIZE; i++) {
+      catalog.add(productRepository.save(new Product(null, "Product " + i,
+          BigDecimal.valueOf(100 + random.nextInt(99_900), 2), 1_000_000)).getId());
+    }
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    runCheckouts(user.getId(), catalog, WARMUP_CHECKOUTS);
+    final long ordersBefore = orderRepository.count();
+    statistics.clear();
+
+    // Act
+    long elapsedNanos = runCheckouts(user.getId(), catalog, MEASURED_CHECKOUTS);
+
+    // Assert
+    System.out.printf("%14s %22s %22s%n", "us/checkout", "JPA statements/checkout",
+        "entity inserts/checkout");
+    System.out.printf("%14.1f %22.2f %22.2f%n", elapsedNanos / 1_000.0 / MEASURED_CHECKOUTS,
+        (double) statistics.getPrepareStatementCount() / MEASURED_CHECKOUTS,
+        (double) statistics.getEntityInsertCount() / MEASURED_CHECKOUTS);
+    assertEquals(ordersBefore + MEASURED_CHECKOUTS, orderRepository.count());
+  }
+
+  private long runCheckouts(Long userId, List<Long> catalog, int checkouts) {
+    List<CheckoutRequest> requests = new ArrayList<>(checkouts);
+    for (int i = 0; i < checkouts; i++) {
+      List<Long> productIds = new ArrayList<>(BASKET_SIZE);
+      for (int j = 0; j < BASKET_SIZE; j++) {
+        productIds.add(catalog.get(random.nextInt(CATALOG_SIZE)));
+      }
+      requests.add(new CheckoutRequest(userId, productIds, List.of()));
+    }
+
+    long start = System.nanoTime();
+    for (CheckoutRequest request : requests) {
+      checkoutService.processCheckout(request, userId);
+    }
+    return System.nanoTime() - start;
+  }
+}
@@ -0,0 +1,125 @@
+package com.example.digigoods.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.service.BigDecimalPricingReference;
+import com.example.digigoods.service.DiscountDefinition;
+import com.example.digigoods.service.Money;
+import com.example.digigoods.service.PricingPlan;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Micro-benchmark of basket pricing: the compiled {@link PricingPlan}, with and without the
+ * cost of compiling it, versus scanning every product-specific discount for every item.
+ *
+ * <p>Not picked up by the default test run. Run it explicitly with
+ * {@code ./mvnw test -Dtest=PricingPlanBenchmark}.
+ */
+class PricingPlanBenchmark {
+
+  private static final int CATALOG_SIZE = 2_000;
+  private static final int PRODUCT_SPECIFIC_DISCOUNTS = 20;
+  private static final int PRODUCTS_PER_DISCOUNT = 50;
+  private static final long WARMUP_NANOS = 2_000_000_000L;
+  private static final long MEASURE_NANOS = 3_000_000_000L;
+
+  private final Random random = new Random(42);
+
+  @Test
+  @DisplayName("Given discount set, when pricing baskets of growing size, then report time "
+      + "per basket")
+  void givenDiscountSet_whenPricingBasketsOfGrowingSize_thenReportTimePerBasket() {
+    // Arrange
+    List<Product> catalog = new ArrayList<>();
+    for (long id = 1; id <= CATALOG_SIZE; id++) {
+      catalog.add(new Product(id, "Product " + id,
+          BigDecimal.valueOf(100 + random.nextInt(99_900), 2), 1_000));
+    }
+    List<Discount> discounts = discounts(catalog);
+    List<DiscountDefinition> definitions = discounts.stream()
+        .map(DiscountDefinition::of)
+        .toList();
+    PricingPlan plan = PricingPlan.compile(definitions);
+    System.out.printf("%-8s %16s %16s %16s%n", "items", "scan ns/basket",
+        "compile+price ns", "price ns/basket");
+
+    for (int basketSize : new int[] {1, 50, 1_000}) {
+      List<Long> productIds = new ArrayList<>(basketSize);
+      Map<Long, Product> productMap = new HashMap<>();
+      long[] itemIds = new long[basketSize];
+      long[] itemPrices = new long[basketSize];
+      for (int i = 0; i < basketSize; i++) {
+        Product product = catalog.get(random.nextInt(CATALOG_SIZE));
+        productIds.add(product.getId());
+        productMap.put(product.getId(), product);
+        itemIds[i] = product.getId();
+        itemPrices[i] = Money.toCents(product.getPrice());
+      }
+
+      // Act
+      double scanNanos = measure(() ->
+          BigDecimalPricingReference.price(productIds, productMap, discounts));
+      double compileNanos = measure(() ->
+          Money.fromCents(PricingPlan.compile(definitions).price(itemIds, itemPrices)));
+      double planNanos = measure(() -> Money.fromCents(plan.price(itemIds, itemPrices)));
+
+      // Assert
+      assertEquals(BigDecimalPricingReference.price(productIds, productMap, discounts),
+          Money.fromCents(plan.price(itemIds, itemPrices)));
+      System.out.printf("%-8d %16.0f %16.0f %16.0f%n", basketSize, scanNanos, compileNanos,
+          planNanos);
+    }
+  }
+
+  private List<Discount> discounts(List<Product> catalog) {
+    List<Discount> discounts = new ArrayList<>();
+    for (int i = 0; i < PRODUCT_SPECIFIC_DISCOUNTS; i++) {
+      Set<Product> applicableProducts = new HashSet<>();
+      while (applicableProducts.size() < PRODUCTS_PER_DISCOUNT) {
+        applicableProducts.add(catalog.get(random.nextInt(catalog.size())));
+      }
+      discounts.add(new Discount((long) i, "P" + i, new BigDecimal("2.50"),
+          DiscountType.PRODUCT_SPECIFIC, LocalDate.MIN, LocalDate.MAX, 100,
+          applicableProducts));
+    }
+    discounts.add(new Discount(100L, "G10", new BigDecimal("10.00"), DiscountType.GENERAL,
+        LocalDate.MIN, LocalDate.MAX, 100, new HashSet<>()));
+    return discounts;
+  }
+
+  private static double measure(Supplier<BigDecimal> pricing) {
+    Object sink = null;
+    long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+    while (System.nanoTime() < warmupEnd) {
+      sink = pricing.get();
+    }
+
+    long iterations = 0;
+    long start = System.nanoTime();
+    long elapsed;
+    do {
+      sink = pricing.get();
+      iterations++;
+      elapsed = System.nanoTime() - start;
+    } while (elapsed < MEASURE_NANOS);
+
+    if (sink == null) {
+      throw new IllegalStateException();
+    }
+    return (double) elapsed / iterations;
+  }
+}
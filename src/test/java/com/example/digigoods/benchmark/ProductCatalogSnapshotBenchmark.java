@@ -0,0 +1,146 @@
+package com.example.digigoods.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.digigoods.model.Product;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Benchmark of {@code GET /products} over HTTP: the pre-rendered snapshot as plain JSON,
+ * gzipped and as a 304, next to the cost of loading and serializing the catalog that every
+ * request paid before. Reports round-trip latency and the CPU time spent on Tomcat request
+ * threads, which is what the snapshot saves.
+ *
+ * <p>Not picked up by the default test run. Run it explicitly with
+ * {@code ./mvnw test -Dtest=ProductCatalogSnapshotBenchmark}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.org.springframework.security=INFO"
+})
+class ProductCatalogSnapshotBenchmark {
+
+  private static final int CATALOG_SIZE = 1_000;
+  private static final int WARMUP_REQUESTS = 2_000;
+  private static final int MEASURED_REQUESTS = 5_000;
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .build();
+  private final Random random = new Random(42);
+
+  @Test
+  @DisplayName("Given catalog, when getting all products, then report time and bytes per "
+      + "request")
+  void givenCatalog_whenGettingAllProducts_thenReportTimeAndBytesPerRequest() throws Exception {
+    // Arrange
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < CATALOG_SIZE; i++) {
+      products.add(new Product(null, "Product " + i,
+          BigDecimal.valueOf(100 + random.nextInt(99_900), 2), random.nextInt(1_000)));
+    }
+    productRepository.saveAll(products);
+    HttpRequest plain = request().build();
+    final String etag = send(plain).headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+    System.out.printf("%-24s %12s %16s %10s%n", "variant", "us/request", "server CPU us",
+        "bytes");
+
+    // Act & Assert
+    byte[] serialized = objectMapper.writeValueAsBytes(productService.getAllProducts());
+    double serializeMicros = measure(() ->
+        objectMapper.writeValueAsBytes(productService.getAllProducts()).length);
+    System.out.printf("%-24s %12.1f %16s %10d%n", "load+serialize (no HTTP)", serializeMicros,
+        "-", serialized.length);
+
+    report("snapshot", plain, 200);
+    report("snapshot gzip", request().header(HttpHeaders.ACCEPT_ENCODING, "gzip").build(),
+        200);
+    report("304 not modified", request().header(HttpHeaders.IF_NONE_MATCH, etag).build(),
+        304);
+
+    productRepository.deleteAll(products);
+  }
+
+  private HttpRequest.Builder request() {
+    return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/products"));
+  }
+
+  private HttpResponse<byte[]> send(HttpRequest request) throws Exception {
+    return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+  }
+
+  private void report(String variant, HttpRequest request, int expectedStatus)
+      throws Exception {
+    HttpResponse<byte[]> response = send(request);
+    assertEquals(expectedStatus, response.statusCode());
+    long cpuNanos = requestThreadCpuNanos();
+    double micros = measure(() -> send(request).body().length);
+    double cpuMicros = (requestThreadCpuNanos() - cpuNanos) / 1_000.0
+        / (WARMUP_REQUESTS + MEASURED_REQUESTS);
+    System.out.printf("%-24s %12.1f %16.1f %10d%n", variant, micros, cpuMicros,
+        response.body().length);
+  }
+
+  private static long requestThreadCpuNanos() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    return Thread.getAllStackTraces().keySet().stream()
+        .filter(thread -> thread.getName().startsWith("http-nio-"))
+        .mapToLong(thread -> Math.max(0, threads.getThreadCpuTime(thread.threadId())))
+        .sum();
+  }
+
+  private static double measure(Request request) throws Exception {
+    long sink = 0;
+    for (int i = 0; i < WARMUP_REQUESTS; i++) {
+      sink += request.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_REQUESTS; i++) {
+      sink += request.run();
+    }
+    long elapsedNanos = System.nanoTime() - start;
+    if (sink < 0) {
+      throw new IllegalStateException();
+    }
+    return elapsedNanos / 1_000.0 / MEASURED_REQUESTS;
+  }
+
+  @FunctionalInterface
+  private interface Request {
+    int run() throws Exception;
+  }
+}
@@ -0,0 +1,130 @@
+package com.example.digigoods.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.dto.ProductPageResponse;
+import com.example.digigoods.dto.ProductSearchRequest;
+import com.example.digigoods.service.ProductService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Latency benchmark of {@code /products/search} filters on a generated catalog of one million
+ * products, next to streaming the whole catalog and filtering it client-side.
+ *
+ * <p>Runs on the in-memory H2 database of the test profile, which has the price index but no
+ * trigram index, so name searches there scan the table until a page is full. Point
+ * {@code spring.datasource.*} at a PostgreSQL database migrated by Liquibase to measure the
+ * trigram and prefix indexes.
+ *
+ * <p>Not picked up by the default test run. Run it explicitly with
+ * {@code ./mvnw test -Dtest=ProductSearchBenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class ProductSearchBenchmark {
+
+  private static final int CATALOG_SIZE = 1_000_000;
+  private static final int INSERT_BATCH_SIZE = 10_000;
+  private static final int WARMUP_QUERIES = 20;
+  private static final int MEASURED_QUERIES = 100;
+  private static final String[] WORDS = {
+      "java", "python", "course", "ebook", "bundle", "guide", "template", "music", "video",
+      "font", "icon", "theme", "plugin", "preset", "photo", "pattern", "workbook", "audio",
+      "kotlin", "design"
+  };
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final Random random = new Random(42);
+
+  @Test
+  @DisplayName("Given one million products, when searching, then report latency per query")
+  void givenOneMillionProducts_whenSearching_thenReportLatencyPerQuery() {
+    // Arrange
+    insertCatalog();
+    Long deepCursor = jdbcTemplate.queryForObject(
+        "SELECT MAX(id) - 1000 FROM products", Long.class);
+    System.out.printf("%-32s %12s %10s%n", "query", "ms/query", "results");
+
+    // Act & Assert
+    report("first page, no filter", search(null, null, null, null, false, null));
+    report("deep page, no filter", search(null, null, null, null, false, deepCursor));
+    report("price 10.00-10.50", search(null, null, "10.00", "10.50", false, null));
+    report("price 10.00-10.50, in stock", search(null, null, "10.00", "10.50", true, null));
+    report("prefix 'kotlin font'", search(null, "kotlin font", null, null, false, null));
+    report("words 'java ebook'", search("java ebook", null, null, null, false, null));
+    report("words 'java ebook', price 1-2", search("java ebook", null, "1.00", "2.00", false,
+        null));
+    reportClientSideFiltering();
+
+    jdbcTemplate.update("DELETE FROM products");
+  }
+
+  private void insertCatalog() {
+    List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+    for (int i = 0; i < CATALOG_SIZE; i++) {
+      String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+          + " " + WORDS[random.nextInt(WORDS.length)] + " #" + i;
+      batch.add(new Object[] {name, BigDecimal.valueOf(100 + random.nextInt(99_900), 2),
+          random.nextInt(10) == 0 ? 0 : random.nextInt(100)});
+      if (batch.size() == INSERT_BATCH_SIZE) {
+        jdbcTemplate.batchUpdate("INSERT INTO products (name, price, stock) VALUES (?, ?, ?)",
+            batch);
+        batch.clear();
+      }
+    }
+  }
+
+  private Supplier<ProductPageResponse> search(String text, String prefix, String minPrice,
+                                               String maxPrice, boolean inStock, Long after) {
+    ProductSearchRequest request = new ProductSearchRequest(text, prefix,
+        minPrice == null ? null : new BigDecimal(minPrice),
+        maxPrice == null ? null : new BigDecimal(maxPrice), inStock, 20, after);
+    return () -> productService.searchProducts(request);
+  }
+
+  private void report(String query, Supplier<ProductPageResponse> search) {
+    int results = 0;
+    for (int i = 0; i < WARMUP_QUERIES; i++) {
+      results = search.get().getProducts().size();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_QUERIES; i++) {
+      results = search.get().getProducts().size();
+    }
+    double millis = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_QUERIES;
+    assertTrue(results > 0);
+    System.out.printf("%-32s %12.2f %10d%n", query, millis, results);
+  }
+
+  private void reportClientSideFiltering() {
+    AtomicInteger results = new AtomicInteger();
+    long start = System.nanoTime();
+    productService.streamAllProducts(product -> {
+      String name = product.getName();
+      if (name.contains("java") && name.contains("ebook")) {
+        results.incrementAndGet();
+      }
+    });
+    double millis = (System.nanoTime() - start) / 1_000_000.0;
+    System.out.printf("%-32s %12.2f %10d%n", "stream all, filter client-side", millis,
+        results.get());
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.digigoods.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.digigoods.model.Product;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.service.ProductService;
+import com.example.digigoods.service.StockShardService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Contention benchmark of sharded inventory: checkout throughput on one hot product versus
+ * shard count.
+ *
+ * <p>Not picked up by the default test run. Run it explicitly with
+ * {@code ./mvnw test -Dtest=StockShardContentionBenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "inventory.sharding.enabled=true",
+    "spring.jpa.show-sql=false"
+})
+class StockShardContentionBenchmark {
+
+  private static final int THREADS = 16;
+  private static final int CHECKOUTS = 4_000;
+  private static final long REMAINING_TRANSACTION_WORK_MILLIS = 2;
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private StockShardService stockShardService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Test
+  @DisplayName("Given hot product, when checking out concurrently, then report throughput "
+      + "per shard count")
+  void givenHotProduct_whenCheckingOutConcurrently_thenReportThroughputPerShardCount()
+      throws Exception {
+    System.out.printf("%-8s %12s%n", "shards", "checkouts/s");
+    for (int shards : new int[] {1, 2, 4, 8, 16}) {
+      // Arrange
+      Product product = productRepository.save(
+          new Product(null, "Online Course", new BigDecimal("99.99"), CHECKOUTS));
+      stockShardService.shardProduct(product.getId(), shards);
+
+      // Act
+      double throughput = runCheckouts(product.getId());
+
+      // Assert
+      assertEquals(0, productService.getTotalStock(product.getId()));
+      System.out.printf("%-8d %12.0f%n", shards, throughput);
+
+      stockShardService.unshardProduct(product.getId());
+      productRepository.deleteById(product.getId());
+    }
+  }
+
+  private double runCheckouts(Long productId) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<?>> futures = new ArrayList<>(CHECKOUTS);
+    long start = System.nanoTime();
+    for (int i = 0; i < CHECKOUTS; i++) {
+      futures.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+        productService.validateAndUpdateStock(List.of(productId));
+        // Hold the row lock as the rest of a checkout transaction would
+        sleep(REMAINING_TRANSACTION_WORK_MILLIS);
+      })));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    long elapsedNanos = System.nanoTime() - start;
+    executor.shutdown();
+    return CHECKOUTS / (elapsedNanos / 1_000_000_000.0);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
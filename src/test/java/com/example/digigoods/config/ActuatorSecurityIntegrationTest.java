@@ -0,0 +1,42 @@
+package com.example.digigoods.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ActuatorSecurityIntegrationTest {
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @Test
+  @DisplayName("Given anonymous caller, when getting health, then return ok")
+  void givenAnonymousCaller_whenGettingHealth_thenReturnOk() {
+    // Act
+    ResponseEntity<String> response = restTemplate.getForEntity("/actuator/health",
+        String.class);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+  }
+
+  @Test
+  @DisplayName("Given anonymous caller, when getting metrics, then return unauthorized")
+  void givenAnonymousCaller_whenGettingMetrics_thenReturnUnauthorized() {
+    // Act
+    ResponseEntity<String> response = restTemplate.getForEntity("/actuator/metrics",
+        String.class);
+
+    // Assert
+    assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+  }
+}
@@ -1,5 +1,7 @@
 package com.example.digigoods.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -7,7 +9,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.example.digigoods.dto.LoginRequest;
 import com.example.digigoods.model.User;
 import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.security.VerifiedToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,6 +20,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -42,6 +48,11 @@ class AuthControllerIntegrationTest {
   @Autowired
   private PasswordEncoder passwordEncoder;
 
+  @Autowired
+  private EntityManager entityManager;
+
+  private User testUser;
+
   @BeforeEach
   void setUp() {
     // Set up MockMvc
@@ -49,10 +60,10 @@ class AuthControllerIntegrationTest {
 
     // Clear and set up test data
     // Create test user
-    User testUser = new User();
+    testUser = new User();
     testUser.setUsername("testuser");
     testUser.setPassword(passwordEncoder.encode("password"));
-    userRepository.save(testUser);
+    testUser = userRepository.save(testUser);
   }
 
   @Test
@@ -113,4 +124,48 @@ class AuthControllerIntegrationTest {
         .andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("Password is required"));
   }
+
+  @Test
+  @DisplayName("Given hash with other cost, when logging in, then rehash with configured cost")
+  void givenHashWithOtherCost_whenLoggingIn_thenRehashWithConfiguredCost() throws Exception {
+    // Arrange
+    testUser.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+    userRepository.saveAndFlush(testUser);
+    LoginRequest loginRequest = new LoginRequest("testuser", "password");
+
+    // Act
+    mockMvc.perform(post("/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(loginRequest)))
+        .andExpect(status().isOk());
+
+    // Assert
+    entityManager.clear();
+    String storedPassword = userRepository.findByUsername("testuser").orElseThrow().getPassword();
+    assertTrue(storedPassword.startsWith("{bcrypt}$2a$10$"), storedPassword);
+  }
+
+  @Test
+  @DisplayName("Given authenticated user, when logging out, then revoke issued tokens")
+  void givenAuthenticatedUser_whenLoggingOut_thenRevokeIssuedTokens() throws Exception {
+    // Arrange
+    VerifiedToken verifiedToken = new VerifiedToken(testUser.getId(), "testuser", 0,
+        Instant.now(), Instant.now().plusSeconds(60));
+
+    // Act
+    mockMvc.perform(post("/auth/logout")
+            .requestAttr(VerifiedToken.REQUEST_ATTRIBUTE, verifiedToken))
+        .andExpect(status().isNoContent());
+
+    // Assert
+    assertEquals(1, userRepository.findTokenVersionById(testUser.getId()).orElseThrow());
+  }
+
+  @Test
+  @DisplayName("Given no token, when logging out, then return unauthorized")
+  void givenNoToken_whenLoggingOut_thenReturnUnauthorized() throws Exception {
+    // Act & Assert
+    mockMvc.perform(post("/auth/logout"))
+        .andExpect(status().isUnauthorized());
+  }
 }
@@ -0,0 +1,203 @@
+package com.example.digigoods.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.digigoods.dto.BasketRequest;
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.dto.QuoteRequest;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.security.VerifiedToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class CheckoutControllerIntegrationTest {
+
+  @Autowired
+  private WebApplicationContext webApplicationContext;
+
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private DiscountRepository discountRepository;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  private Product product1;
+  private Product product2;
+  private VerifiedToken token;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+    product1 = productRepository.save(
+        new Product(null, "Quote Product 1", new BigDecimal("10.00"), 5));
+    product2 = productRepository.save(
+        new Product(null, "Quote Product 2", new BigDecimal("20.00"), 5));
+    discountRepository.save(new Discount(null, "QUOTE10", new BigDecimal("10.00"),
+        DiscountType.GENERAL, LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), 3,
+        new HashSet<>()));
+    discountRepository.save(new Discount(null, "QUOTE80", new BigDecimal("80.00"),
+        DiscountType.GENERAL, LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), 3,
+        new HashSet<>()));
+    User user = userRepository.save(new User("checkout-user", "password"));
+    token = new VerifiedToken(user.getId(), user.getUsername(), 0, Instant.now(),
+        Instant.now().plusSeconds(3600));
+    entityManager.flush();
+  }
+
+  @Test
+  @DisplayName("Given checkout retried with the same idempotency key, when ordering, then "
+      + "place the order once and replay its response")
+  void givenRetriedCheckout_whenOrdering_thenPlaceOrderOnceAndReplayResponse()
+      throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(token.userId(),
+        List.of(product1.getId(), product2.getId()), List.of("QUOTE10"));
+    long ordersBefore = orderRepository.count();
+
+    // Act & Assert
+    for (int attempt = 0; attempt < 3; attempt++) {
+      mockMvc.perform(post("/orders")
+              .requestAttr(VerifiedToken.REQUEST_ATTRIBUTE, token)
+              .header("Idempotency-Key", "retry-key")
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(objectMapper.writeValueAsString(request)))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.message").value("Order created successfully!"))
+          .andExpect(jsonPath("$.finalPrice").value(27.00));
+    }
+
+    entityManager.clear();
+    assertEquals(ordersBefore + 1, orderRepository.count());
+    assertEquals(4, productRepository.findById(product1.getId()).orElseThrow().getStock());
+    assertEquals(2, discountRepository.findByCode("QUOTE10").orElseThrow().getRemainingUses());
+  }
+
+  @Test
+  @DisplayName("Given idempotency key already used, when ordering something else with it, "
+      + "then return unprocessable entity")
+  void givenUsedIdempotencyKey_whenOrderingSomethingElse_thenReturnUnprocessableEntity()
+      throws Exception {
+    // Arrange
+    CheckoutRequest first = new CheckoutRequest(token.userId(), List.of(product1.getId()),
+        null);
+    CheckoutRequest second = new CheckoutRequest(token.userId(), List.of(product2.getId()),
+        null);
+    mockMvc.perform(post("/orders")
+            .requestAttr(VerifiedToken.REQUEST_ATTRIBUTE, token)
+            .header("Idempotency-Key", "reused-key")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(first)))
+        .andExpect(status().isOk());
+    long ordersBefore = orderRepository.count();
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .requestAttr(VerifiedToken.REQUEST_ATTRIBUTE, token)
+            .header("Idempotency-Key", "reused-key")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(second)))
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.message")
+            .value("Idempotency key was already used for a different request"));
+
+    entityManager.clear();
+    assertEquals(ordersBefore, orderRepository.count());
+    assertEquals(5, productRepository.findById(product2.getId()).orElseThrow().getStock());
+  }
+
+  @Test
+  @DisplayName("Given several baskets, when quoting, then price each one like checkout "
+      + "without writing anything")
+  void givenSeveralBaskets_whenQuoting_thenPriceEachOneWithoutWritingAnything()
+      throws Exception {
+    // Arrange
+    QuoteRequest quoteRequest = new QuoteRequest(List.of(
+        new BasketRequest(List.of(product1.getId(), product2.getId()), List.of("QUOTE10")),
+        new BasketRequest(List.of(product1.getId(), 999_999L), null),
+        new BasketRequest(List.of(product2.getId()), List.of("UNKNOWN")),
+        new BasketRequest(List.of(product2.getId()), List.of("QUOTE10", "QUOTE80")),
+        new BasketRequest(List.of(product1.getId()), null)));
+    long ordersBefore = orderRepository.count();
+
+    // Act & Assert
+    mockMvc.perform(post("/orders/quote")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(quoteRequest)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.quotes.length()").value(5))
+        .andExpect(jsonPath("$.quotes[0].originalSubtotal").value(30.00))
+        .andExpect(jsonPath("$.quotes[0].finalPrice").value(27.00))
+        .andExpect(jsonPath("$.quotes[0].rejectionReason").doesNotExist())
+        .andExpect(jsonPath("$.quotes[1].originalSubtotal").doesNotExist())
+        .andExpect(jsonPath("$.quotes[1].rejectionReason")
+            .value("Products not found with IDs: [999999]"))
+        .andExpect(jsonPath("$.quotes[2].originalSubtotal").value(20.00))
+        .andExpect(jsonPath("$.quotes[2].finalPrice").doesNotExist())
+        .andExpect(jsonPath("$.quotes[2].rejectionReason")
+            .value("Invalid discount code 'UNKNOWN': discount code not found"))
+        .andExpect(jsonPath("$.quotes[3].rejectionReason")
+            .value("Total discount exceeds the maximum allowed 75% of the original subtotal"))
+        .andExpect(jsonPath("$.quotes[4].finalPrice").value(10.00));
+
+    entityManager.clear();
+    assertEquals(ordersBefore, orderRepository.count());
+    assertEquals(5, productRepository.findById(product1.getId()).orElseThrow().getStock());
+    assertEquals(3, discountRepository.findByCode("QUOTE10").orElseThrow().getRemainingUses());
+  }
+
+  @Test
+  @DisplayName("Given no baskets, when quoting, then return bad request")
+  void givenNoBaskets_whenQuoting_thenReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc.perform(post("/orders/quote")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new QuoteRequest(List.of()))))
+        .andExpect(status().isBadRequest());
+  }
+}
@@ -1,5 +1,6 @@
 package com.example.digigoods.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -7,11 +8,16 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.example.digigoods.model.Discount;
 import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
 import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.ProductRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.Set;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -45,6 +51,12 @@ class DiscountControllerIntegrationTest {
   @Autowired
   private DiscountRepository discountRepository;
 
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
   private Discount discount1;
   private Discount discount2;
 
@@ -105,6 +117,7 @@ class DiscountControllerIntegrationTest {
   void givenNoDiscountsInDatabase_whenGettingAllDiscounts_thenReturnEmptyList() throws Exception {
     // Arrange
     discountRepository.deleteAll();
+    discountRepository.flush();
 
     // Act & Assert
     mockMvc.perform(get("/discounts")
@@ -114,4 +127,29 @@ class DiscountControllerIntegrationTest {
         .andExpect(jsonPath("$").isArray())
         .andExpect(jsonPath("$.length()").value(0));
   }
+
+  @Test
+  @DisplayName("Given product-specific discount, when getting all discounts, then return "
+      + "applicable product IDs without loading entities")
+  void givenProductSpecificDiscount_whenGettingAllDiscounts_thenReturnApplicableProductIds()
+      throws Exception {
+    // Arrange
+    Product product1 = productRepository.save(
+        new Product(null, "Product 1", new BigDecimal("10.00"), 5));
+    Product product2 = productRepository.save(
+        new Product(null, "Product 2", new BigDecimal("20.00"), 5));
+    discount2.setApplicableProducts(new HashSet<>(Set.of(product2, product1)));
+    discountRepository.saveAndFlush(discount2);
+    entityManager.clear();
+
+    // Act & Assert
+    mockMvc.perform(get("/discounts"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].applicableProductIds").isEmpty())
+        .andExpect(jsonPath("$[1].applicableProductIds.length()").value(2))
+        .andExpect(jsonPath("$[1].applicableProductIds[0]").value(product1.getId()))
+        .andExpect(jsonPath("$[1].applicableProductIds[1]").value(product2.getId()))
+        .andExpect(jsonPath("$[1].applicableProducts").doesNotExist());
+    assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+  }
 }
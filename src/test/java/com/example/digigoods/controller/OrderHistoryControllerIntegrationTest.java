@@ -0,0 +1,139 @@
+package com.example.digigoods.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.OrderLine;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.security.VerifiedToken;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class OrderHistoryControllerIntegrationTest {
+
+  @Autowired
+  private WebApplicationContext webApplicationContext;
+
+  private MockMvc mockMvc;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private User user;
+  private Product product;
+  private VerifiedToken token;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+    user = userRepository.save(new User("history-user", "password"));
+    product = productRepository.save(
+        new Product(null, "History Product", new BigDecimal("10.00"), 5));
+    token = new VerifiedToken(user.getId(), user.getUsername(), 0, Instant.now(),
+        Instant.now().plusSeconds(3600));
+  }
+
+  @Test
+  @DisplayName("Given orders of user, when paging through history, then return newest first "
+      + "with item counts")
+  void givenOrdersOfUser_whenPagingThroughHistory_thenReturnNewestFirstWithItemCounts()
+      throws Exception {
+    // Arrange
+    LocalDateTime now = LocalDateTime.now().withNano(0);
+    Order oldest = placeOrder(now.minusDays(2), 1);
+    Order sameTimeFirst = placeOrder(now.minusDays(1), 2);
+    Order sameTimeSecond = placeOrder(now.minusDays(1), 3);
+    Order newest = placeOrder(now, 4);
+
+    // Act & Assert
+    mockMvc.perform(get("/users/{userId}/orders", user.getId())
+            .param("limit", "3")
+            .requestAttr(VerifiedToken.REQUEST_ATTRIBUTE, token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.orders.length()").value(3))
+        .andExpect(jsonPath("$.orders[0].id").value(newest.getId()))
+        .andExpect(jsonPath("$.orders[0].itemCount").value(4))
+        .andExpect(jsonPath("$.orders[0].originalSubtotal").value(40.00))
+        .andExpect(jsonPath("$.orders[0].finalPrice").value(36.00))
+        .andExpect(jsonPath("$.orders[1].id").value(sameTimeSecond.getId()))
+        .andExpect(jsonPath("$.orders[2].id").value(sameTimeFirst.getId()))
+        .andExpect(jsonPath("$.orders[2].itemCount").value(2))
+        .andExpect(jsonPath("$.nextCursor").value(sameTimeFirst.getId()));
+
+    mockMvc.perform(get("/users/{userId}/orders", user.getId())
+            .param("limit", "3")
+            .param("after", String.valueOf(sameTimeFirst.getId()))
+            .requestAttr(VerifiedToken.REQUEST_ATTRIBUTE, token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.orders.length()").value(1))
+        .andExpect(jsonPath("$.orders[0].id").value(oldest.getId()))
+        .andExpect(jsonPath("$.orders[0].itemCount").value(1))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("Given user without orders, when getting history, then return empty page")
+  void givenUserWithoutOrders_whenGettingHistory_thenReturnEmptyPage() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/users/{userId}/orders", user.getId())
+            .requestAttr(VerifiedToken.REQUEST_ATTRIBUTE, token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.orders.length()").value(0))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("Given token of another user, when getting history, then return forbidden")
+  void givenTokenOfAnotherUser_whenGettingHistory_thenReturnForbidden() throws Exception {
+    // Arrange
+    User otherUser = userRepository.save(new User("other-history-user", "password"));
+    placeOrder(LocalDateTime.now(), 1);
+
+    // Act & Assert
+    mockMvc.perform(get("/users/{userId}/orders", user.getId())
+            .requestAttr(VerifiedToken.REQUEST_ATTRIBUTE, new VerifiedToken(otherUser.getId(),
+                otherUser.getUsername(), 0, Instant.now(), Instant.now().plusSeconds(3600))))
+        .andExpect(status().isForbidden());
+  }
+
+  private Order placeOrder(LocalDateTime orderDate, int quantity) {
+    BigDecimal subtotal = new BigDecimal("10.00").multiply(BigDecimal.valueOf(quantity));
+    Order order = new Order(orderRepository.allocateOrderId(), user, new HashSet<>(), subtotal,
+        subtotal.multiply(new BigDecimal("0.9")).setScale(2), orderDate);
+    orderRepository.insertOrders(List.of(order));
+    orderRepository.insertOrderLines(List.of(new OrderLine(order.getId(), product.getId(),
+        quantity, new BigDecimal("10.00"), new BigDecimal("9.00"))));
+    return order;
+  }
+}
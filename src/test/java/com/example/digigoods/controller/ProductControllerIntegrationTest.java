@@ -1,21 +1,34 @@
 package com.example.digigoods.controller;
 
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.digigoods.model.Product;
 import com.example.digigoods.repository.ProductRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.util.zip.GZIPInputStream;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -42,6 +55,9 @@ class ProductControllerIntegrationTest {
   @Autowired
   private ProductRepository productRepository;
 
+  @Autowired
+  private EntityManager entityManager;
+
   private Product product1;
   private Product product2;
 
@@ -101,4 +117,223 @@ class ProductControllerIntegrationTest {
         .andExpect(jsonPath("$").isArray())
         .andExpect(jsonPath("$.length()").value(0));
   }
+
+  @Test
+  @DisplayName("Given products in database, when paging with limit, then follow cursor to "
+      + "last page")
+  void givenProductsInDatabase_whenPagingWithLimit_thenFollowCursorToLastPage() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/products")
+            .param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.products.length()").value(1))
+        .andExpect(jsonPath("$.products[0].id").value(product1.getId()))
+        .andExpect(jsonPath("$.nextCursor").value(product1.getId()));
+
+    mockMvc.perform(get("/products")
+            .param("limit", "1")
+            .param("after", product1.getId().toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.products.length()").value(1))
+        .andExpect(jsonPath("$.products[0].id").value(product2.getId()))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("Given products in database, when streaming, then write all products as array")
+  void givenProductsInDatabase_whenStreaming_thenWriteAllProductsAsArray() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/products")
+            .param("stream", "true"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].id").value(product1.getId()))
+        .andExpect(jsonPath("$[0].price").value(100.00))
+        .andExpect(jsonPath("$[1].name").value("Test Product 2"))
+        .andExpect(jsonPath("$[1].stock").value(5));
+  }
+
+  @Test
+  @DisplayName("Given ETag of current catalog, when getting all products, then return 304")
+  void givenEtagOfCurrentCatalog_whenGettingAllProducts_thenReturn304() throws Exception {
+    // Arrange
+    String etag = mockMvc.perform(get("/products"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // Act & Assert
+    mockMvc.perform(get("/products")
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag))
+        .andExpect(content().bytes(new byte[0]));
+  }
+
+  @Test
+  @DisplayName("Given catalog changed since ETag, when getting all products, then return new "
+      + "catalog")
+  void givenCatalogChangedSinceEtag_whenGettingAllProducts_thenReturnNewCatalog()
+      throws Exception {
+    // Arrange
+    String etag = mockMvc.perform(get("/products"))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    product2.setPrice(new BigDecimal("45.00"));
+    productRepository.saveAndFlush(product2);
+
+    // Act & Assert
+    mockMvc.perform(get("/products")
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+        .andExpect(jsonPath("$[1].price").value(45.00));
+  }
+
+  @Test
+  @DisplayName("Given client accepting gzip, when getting all products, then return gzipped "
+      + "catalog")
+  void givenClientAcceptingGzip_whenGettingAllProducts_thenReturnGzippedCatalog()
+      throws Exception {
+    // Arrange
+    MockHttpServletResponse plain = mockMvc.perform(get("/products"))
+        .andReturn().getResponse();
+
+    // Act
+    MockHttpServletResponse gzipped = mockMvc.perform(get("/products")
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+        .andReturn().getResponse();
+
+    // Assert
+    try (GZIPInputStream gzip = new GZIPInputStream(
+        new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+      assertArrayEquals(plain.getContentAsByteArray(), gzip.readAllBytes());
+    }
+    assertNotEquals(plain.getHeader(HttpHeaders.ETAG), gzipped.getHeader(HttpHeaders.ETAG));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"gzip;q=0", "deflate, gzip; q=0.0", "*;q=0", "br, *;q=1, gzip;q=0"})
+  @DisplayName("Given client refusing gzip, when getting all products, then return "
+      + "uncompressed catalog")
+  void givenClientRefusingGzip_whenGettingAllProducts_thenReturnUncompressedCatalog(
+      String acceptEncoding) throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/products")
+            .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(jsonPath("$").isArray());
+  }
+
+  @Test
+  @DisplayName("Given search words in any case, when searching, then return products "
+      + "containing all words")
+  void givenSearchWordsInAnyCase_whenSearching_thenReturnProductsContainingAllWords()
+      throws Exception {
+    // Arrange
+    productRepository.save(new Product(null, "Java Course Bundle", new BigDecimal("80.00"), 0));
+    productRepository.save(new Product(null, "Course on Java", new BigDecimal("20.00"), 4));
+    productRepository.save(new Product(null, "Python Course", new BigDecimal("30.00"), 4));
+
+    // Act & Assert
+    mockMvc.perform(get("/products/search")
+            .param("text", "COURSE java"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.products.length()").value(2))
+        .andExpect(jsonPath("$.products[0].name").value("Java Course Bundle"))
+        .andExpect(jsonPath("$.products[1].name").value("Course on Java"))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("Given prefix, price range and in-stock filters, when searching, then apply "
+      + "them all")
+  void givenPrefixPriceRangeAndInStockFilters_whenSearching_thenApplyThemAll()
+      throws Exception {
+    // Arrange
+    productRepository.save(new Product(null, "Java Course Bundle", new BigDecimal("80.00"), 0));
+    Product match = productRepository.save(
+        new Product(null, "Java Basics", new BigDecimal("20.00"), 4));
+    productRepository.save(new Product(null, "Java Deep Dive", new BigDecimal("200.00"), 4));
+    productRepository.save(new Product(null, "Learn Java", new BigDecimal("20.00"), 4));
+
+    // Act & Assert
+    mockMvc.perform(get("/products/search")
+            .param("prefix", "jav")
+            .param("minPrice", "10.00")
+            .param("maxPrice", "100.00")
+            .param("inStock", "true"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.products.length()").value(1))
+        .andExpect(jsonPath("$.products[0].id").value(match.getId()));
+  }
+
+  @Test
+  @DisplayName("Given wildcard characters in search text, when searching, then match them "
+      + "literally")
+  void givenWildcardCharactersInSearchText_whenSearching_thenMatchThemLiterally()
+      throws Exception {
+    // Arrange
+    productRepository.save(new Product(null, "100% Cotton Shirt", new BigDecimal("15.00"), 4));
+
+    // Act & Assert
+    mockMvc.perform(get("/products/search")
+            .param("text", "100%"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.products.length()").value(1));
+    mockMvc.perform(get("/products/search")
+            .param("text", "_"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.products.length()").value(0));
+  }
+
+  @Test
+  @DisplayName("Given matches beyond one page, when searching with limit, then follow cursor")
+  void givenMatchesBeyondOnePage_whenSearchingWithLimit_thenFollowCursor() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/products/search")
+            .param("text", "test product")
+            .param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.products[0].id").value(product1.getId()))
+        .andExpect(jsonPath("$.nextCursor").value(product1.getId()));
+
+    mockMvc.perform(get("/products/search")
+            .param("text", "test product")
+            .param("limit", "1")
+            .param("after", product1.getId().toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.products[0].id").value(product2.getId()))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("Given inverted price range, when searching, then return bad request")
+  void givenInvertedPriceRange_whenSearching_thenReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/products/search")
+            .param("minPrice", "50.00")
+            .param("maxPrice", "10.00"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Minimum price cannot exceed maximum price"));
+  }
+
+  @Test
+  @DisplayName("Given products in database, when reading products, then load no entities")
+  void givenProductsInDatabase_whenReadingProducts_thenLoadNoEntities() throws Exception {
+    // Arrange
+    entityManager.flush();
+    entityManager.clear();
+
+    // Act
+    mockMvc.perform(get("/products")).andExpect(status().isOk());
+    mockMvc.perform(get("/products").param("limit", "1")).andExpect(status().isOk());
+    mockMvc.perform(get("/products/search").param("text", "test")).andExpect(status().isOk());
+
+    // Assert
+    assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+  }
 }
@@ -123,6 +123,74 @@ class ExceptionClassesTest {
     }
   }
 
+  @Nested
+  @DisplayName("IdempotencyKeyConflictException Tests")
+  class IdempotencyKeyConflictExceptionTest {
+
+    @Test
+    @DisplayName("Given custom message, when creating exception, "
+        + "then message should be set correctly")
+    void givenCustomMessage_whenCreatingException_thenMessageShouldBeSetCorrectly() {
+      // Arrange
+      String customMessage = "Custom idempotency key message";
+
+      // Act
+      IdempotencyKeyConflictException exception =
+          new IdempotencyKeyConflictException(customMessage);
+
+      // Assert
+      assertEquals(customMessage, exception.getMessage());
+      assertTrue(exception instanceof RuntimeException);
+    }
+
+    @Test
+    @DisplayName("Given no parameters, when creating exception, "
+        + "then default message should be used")
+    void givenNoParameters_whenCreatingException_thenDefaultMessageShouldBeUsed() {
+      // Arrange & Act
+      IdempotencyKeyConflictException exception = new IdempotencyKeyConflictException();
+
+      // Assert
+      assertEquals("Idempotency key was already used for a different request",
+          exception.getMessage());
+      assertTrue(exception instanceof RuntimeException);
+    }
+  }
+
+  @Nested
+  @DisplayName("LoginCapacityExceededException Tests")
+  class LoginCapacityExceededExceptionTest {
+
+    @Test
+    @DisplayName("Given custom message, when creating exception, "
+        + "then message should be set correctly")
+    void givenCustomMessage_whenCreatingException_thenMessageShouldBeSetCorrectly() {
+      // Arrange
+      String customMessage = "Custom login capacity message";
+
+      // Act
+      LoginCapacityExceededException exception =
+          new LoginCapacityExceededException(customMessage);
+
+      // Assert
+      assertEquals(customMessage, exception.getMessage());
+      assertTrue(exception instanceof RuntimeException);
+    }
+
+    @Test
+    @DisplayName("Given no parameters, when creating exception, "
+        + "then default message should be used")
+    void givenNoParameters_whenCreatingException_thenDefaultMessageShouldBeUsed() {
+      // Arrange & Act
+      LoginCapacityExceededException exception = new LoginCapacityExceededException();
+
+      // Assert
+      assertEquals("Too many concurrent login attempts, please retry shortly",
+          exception.getMessage());
+      assertTrue(exception instanceof RuntimeException);
+    }
+  }
+
   @Nested
   @DisplayName("MissingJwtTokenException Tests")
   class MissingJwtTokenExceptionTest {
@@ -232,8 +300,10 @@ class ExceptionClassesTest {
     void allCustomExceptionsShouldExtendRuntimeException() {
       // Arrange & Act & Assert
       assertTrue(new ExcessiveDiscountException() instanceof RuntimeException);
+      assertTrue(new IdempotencyKeyConflictException() instanceof RuntimeException);
       assertTrue(new InsufficientStockException("test") instanceof RuntimeException);
       assertTrue(new InvalidDiscountException("test") instanceof RuntimeException);
+      assertTrue(new LoginCapacityExceededException() instanceof RuntimeException);
       assertTrue(new MissingJwtTokenException() instanceof RuntimeException);
       assertTrue(new ProductNotFoundException("test") instanceof RuntimeException);
       assertTrue(new UnauthorizedAccessException() instanceof RuntimeException);
@@ -244,8 +314,10 @@ class ExceptionClassesTest {
     void allCustomExceptionsShouldHaveNonNullMessages() {
       // Arrange & Act & Assert
       assertNotNull(new ExcessiveDiscountException().getMessage());
+      assertNotNull(new IdempotencyKeyConflictException().getMessage());
       assertNotNull(new InsufficientStockException("test").getMessage());
       assertNotNull(new InvalidDiscountException("test").getMessage());
+      assertNotNull(new LoginCapacityExceededException().getMessage());
       assertNotNull(new MissingJwtTokenException().getMessage());
       assertNotNull(new ProductNotFoundException("test").getMessage());
       assertNotNull(new UnauthorizedAccessException().getMessage());
@@ -0,0 +1,104 @@
+package com.example.digigoods.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+  @Mock
+  private VerifiedTokenCache verifiedTokenCache;
+
+  @Mock
+  private UserDetailsService userDetailsService;
+
+  @Mock
+  private TokenRevocationService tokenRevocationService;
+
+  private JwtAuthenticationFilter filter;
+  private MockHttpServletRequest request;
+  private VerifiedToken verifiedToken;
+
+  @BeforeEach
+  void setUp() {
+    filter = new JwtAuthenticationFilter(verifiedTokenCache, userDetailsService,
+        tokenRevocationService);
+    request = new MockHttpServletRequest("GET", "/users/1/profile");
+    request.addHeader("Authorization", "Bearer token");
+    verifiedToken = new VerifiedToken(1L, "testuser", 0, Instant.now(),
+        Instant.now().plusSeconds(60));
+    when(verifiedTokenCache.verify("token")).thenReturn(verifiedToken);
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("Given stateful mode, when filtering, then load user and store verified token")
+  void givenStatefulMode_whenFiltering_thenLoadUserAndStoreVerifiedToken() throws Exception {
+    // Arrange
+    when(userDetailsService.loadUserByUsername("testuser"))
+        .thenReturn(new User("testuser", "hash", List.of()));
+
+    // Act
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+    // Assert
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    assertEquals("testuser", authentication.getName());
+    assertEquals(verifiedToken, request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE));
+  }
+
+  @Test
+  @DisplayName("Given stateless mode, when filtering, then authenticate without loading user")
+  void givenStatelessMode_whenFiltering_thenAuthenticateWithoutLoadingUser() throws Exception {
+    // Arrange
+    ReflectionTestUtils.setField(filter, "stateless", true);
+
+    // Act
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+    // Assert
+    assertEquals("testuser", SecurityContextHolder.getContext().getAuthentication().getName());
+    verify(userDetailsService, never()).loadUserByUsername(anyString());
+  }
+
+  @Test
+  @DisplayName("Given revoked token, when filtering, then leave request unauthenticated")
+  void givenRevokedToken_whenFiltering_thenLeaveRequestUnauthenticated() throws Exception {
+    // Arrange
+    ReflectionTestUtils.setField(filter, "stateless", true);
+    when(tokenRevocationService.isRevoked(verifiedToken)).thenReturn(true);
+
+    // Act
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+    // Assert
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+    assertNull(request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE));
+  }
+}
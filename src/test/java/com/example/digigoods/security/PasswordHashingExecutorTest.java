@@ -0,0 +1,83 @@
+package com.example.digigoods.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.digigoods.exception.LoginCapacityExceededException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PasswordHashingExecutorTest {
+
+  private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  @DisplayName("Given task, when executing, then return its result")
+  void givenTask_whenExecuting_thenReturnItsResult() {
+    // Act & Assert
+    assertEquals("hash", executor.execute(() -> "hash"));
+  }
+
+  @Test
+  @DisplayName("Given failing task, when executing, then rethrow its exception")
+  void givenFailingTask_whenExecuting_thenRethrowItsException() {
+    // Act & Assert
+    assertThrows(BadCredentialsException.class, () -> executor.execute(() -> {
+      throw new BadCredentialsException("Bad credentials");
+    }));
+  }
+
+  @Test
+  @DisplayName("Given busy thread and full queue, when executing, "
+      + "then throw LoginCapacityExceededException")
+  void givenBusyThreadAndFullQueue_whenExecuting_thenThrowLoginCapacityExceededException()
+      throws Exception {
+    // Arrange
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    final CompletableFuture<Object> running = CompletableFuture.supplyAsync(() ->
+        executor.execute(() -> {
+          started.countDown();
+          await(release);
+          return "first";
+        }));
+    started.await(5, TimeUnit.SECONDS);
+    CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() ->
+        executor.execute(() -> "second"));
+    while (!queued.isDone() && executorQueueIsEmpty()) {
+      Thread.onSpinWait();
+    }
+
+    // Act & Assert
+    assertThrows(LoginCapacityExceededException.class, () -> executor.execute(() -> "third"));
+    release.countDown();
+    assertEquals("first", running.get(5, TimeUnit.SECONDS));
+    assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+  }
+
+  private boolean executorQueueIsEmpty() {
+    ThreadPoolExecutor pool =
+        (ThreadPoolExecutor) ReflectionTestUtils.getField(executor, "executor");
+    return pool.getQueue().isEmpty();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
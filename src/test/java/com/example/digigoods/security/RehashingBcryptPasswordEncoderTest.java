@@ -0,0 +1,36 @@
+package com.example.digigoods.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class RehashingBcryptPasswordEncoderTest {
+
+  private final RehashingBcryptPasswordEncoder encoder = new RehashingBcryptPasswordEncoder(6);
+
+  @Test
+  @DisplayName("Given hash with configured cost, when checking upgrade, then keep it")
+  void givenHashWithConfiguredCost_whenCheckingUpgrade_thenKeepIt() {
+    // Act & Assert
+    assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+  }
+
+  @Test
+  @DisplayName("Given hash with lower or higher cost, when checking upgrade, then rehash it")
+  void givenHashWithLowerOrHigherCost_whenCheckingUpgrade_thenRehashIt() {
+    // Act & Assert
+    assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+    assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(8).encode("password")));
+  }
+
+  @Test
+  @DisplayName("Given non-BCrypt value, when checking upgrade, then keep it")
+  void givenNonBcryptValue_whenCheckingUpgrade_thenKeepIt() {
+    // Act & Assert
+    assertFalse(encoder.upgradeEncoding("plain"));
+    assertFalse(encoder.upgradeEncoding(null));
+  }
+}
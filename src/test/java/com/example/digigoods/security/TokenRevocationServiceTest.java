@@ -0,0 +1,120 @@
+package com.example.digigoods.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.repository.UserRepository;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private VerifiedTokenCache verifiedTokenCache;
+
+  private TokenRevocationService tokenRevocationService;
+
+  @BeforeEach
+  void setUp() {
+    tokenRevocationService = new TokenRevocationService(userRepository, verifiedTokenCache);
+    ReflectionTestUtils.setField(tokenRevocationService, "cacheTtlMillis", 60_000L);
+    ReflectionTestUtils.setField(tokenRevocationService, "cacheMaxUsers", 100);
+  }
+
+  @Test
+  @DisplayName("Given current token version, when checking repeatedly, then accept and query "
+      + "once")
+  void givenCurrentTokenVersion_whenCheckingRepeatedly_thenAcceptAndQueryOnce() {
+    // Arrange
+    when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(2));
+
+    // Act & Assert
+    assertFalse(tokenRevocationService.isRevoked(token(1L, 2)));
+    assertFalse(tokenRevocationService.isRevoked(token(1L, 2)));
+    verify(userRepository, times(1)).findTokenVersionById(1L);
+  }
+
+  @Test
+  @DisplayName("Given older token version, when checking, then report revoked")
+  void givenOlderTokenVersion_whenChecking_thenReportRevoked() {
+    // Arrange
+    when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(3));
+
+    // Act & Assert
+    assertTrue(tokenRevocationService.isRevoked(token(1L, 2)));
+  }
+
+  @Test
+  @DisplayName("Given deleted user, when checking, then report revoked")
+  void givenDeletedUser_whenChecking_thenReportRevoked() {
+    // Arrange
+    when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.empty());
+
+    // Act & Assert
+    assertTrue(tokenRevocationService.isRevoked(token(1L, 0)));
+  }
+
+  @Test
+  @DisplayName("Given cached version, when revoking tokens, then reject token issued before")
+  void givenCachedVersion_whenRevokingTokens_thenRejectTokenIssuedBefore() {
+    // Arrange
+    when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0))
+        .thenReturn(Optional.of(1));
+    assertFalse(tokenRevocationService.isRevoked(token(1L, 0)));
+
+    // Act
+    tokenRevocationService.revokeTokens(1L);
+
+    // Assert
+    verify(userRepository).incrementTokenVersion(1L);
+    verify(verifiedTokenCache).invalidateUser(1L);
+    assertTrue(tokenRevocationService.isRevoked(token(1L, 0)));
+  }
+
+  @Test
+  @DisplayName("Given version reloaded before commit, when revocation commits, then evict it "
+      + "again")
+  void givenVersionReloadedBeforeCommit_whenRevocationCommits_thenEvictItAgain() {
+    // Arrange
+    when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0))
+        .thenReturn(Optional.of(0)).thenReturn(Optional.of(1));
+    assertFalse(tokenRevocationService.isRevoked(token(1L, 0)));
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      tokenRevocationService.revokeTokens(1L);
+      // A check in the window before the commit still reads the old version
+      assertFalse(tokenRevocationService.isRevoked(token(1L, 0)));
+
+      // Act
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Assert
+    verify(verifiedTokenCache, times(2)).invalidateUser(1L);
+    assertTrue(tokenRevocationService.isRevoked(token(1L, 0)));
+  }
+
+  private VerifiedToken token(Long userId, int tokenVersion) {
+    return new VerifiedToken(userId, "testuser", tokenVersion, Instant.now(),
+        Instant.now().plusSeconds(60));
+  }
+}
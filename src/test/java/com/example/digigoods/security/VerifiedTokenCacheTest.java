@@ -0,0 +1,130 @@
+package com.example.digigoods.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+  @Mock
+  private JwtService jwtService;
+
+  private SimpleMeterRegistry meterRegistry;
+  private VerifiedTokenCache verifiedTokenCache;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    verifiedTokenCache = new VerifiedTokenCache(jwtService, meterRegistry, 32);
+  }
+
+  @Test
+  @DisplayName("Given verified token, when verifying again, then return cached claims")
+  void givenVerifiedToken_whenVerifyingAgain_thenReturnCachedClaims() {
+    // Arrange
+    VerifiedToken verifiedToken = token(1L, Instant.now().plusSeconds(60));
+    when(jwtService.verify("token")).thenReturn(verifiedToken);
+    verifiedTokenCache.verify("token");
+
+    // Act
+    VerifiedToken result = verifiedTokenCache.verify("token");
+
+    // Assert
+    assertSame(verifiedToken, result);
+    verify(jwtService, times(1)).verify("token");
+    assertEquals(1.0, meterRegistry.counter("security.token.cache.hits").count());
+    assertEquals(1.0, meterRegistry.counter("security.token.cache.misses").count());
+  }
+
+  @Test
+  @DisplayName("Given expired cached token, when verifying, then verify token again")
+  void givenExpiredCachedToken_whenVerifying_thenVerifyTokenAgain() {
+    // Arrange
+    when(jwtService.verify("token")).thenReturn(token(1L, Instant.now().minusSeconds(1)));
+    verifiedTokenCache.verify("token");
+
+    // Act
+    verifiedTokenCache.verify("token");
+
+    // Assert
+    verify(jwtService, times(2)).verify("token");
+    assertEquals(1.0, meterRegistry.counter("security.token.cache.evictions",
+        "cause", "expired").count());
+  }
+
+  @Test
+  @DisplayName("Given full cache, when verifying more tokens, then stay within size")
+  void givenFullCache_whenVerifyingMoreTokens_thenStayWithinSize() {
+    // Arrange
+    for (int i = 0; i < 200; i++) {
+      when(jwtService.verify("token" + i)).thenReturn(token(1L, Instant.now().plusSeconds(60)));
+    }
+
+    // Act
+    for (int i = 0; i < 200; i++) {
+      verifiedTokenCache.verify("token" + i);
+    }
+
+    // Assert
+    double size = meterRegistry.get("security.token.cache.size").gauge().value();
+    double evicted = meterRegistry.counter("security.token.cache.evictions",
+        "cause", "size").count();
+    assertEquals(200.0, size + evicted);
+    assertEquals(true, size <= 32);
+  }
+
+  @Test
+  @DisplayName("Given cached tokens of two users, when invalidating one user, then re-verify "
+      + "only that user's token")
+  void givenCachedTokensOfTwoUsers_whenInvalidatingOneUser_thenReverifyOnlyThatUsersToken() {
+    // Arrange
+    when(jwtService.verify("first")).thenReturn(token(1L, Instant.now().plusSeconds(60)));
+    when(jwtService.verify("second")).thenReturn(token(2L, Instant.now().plusSeconds(60)));
+    verifiedTokenCache.verify("first");
+    verifiedTokenCache.verify("second");
+
+    // Act
+    verifiedTokenCache.invalidateUser(1L);
+    verifiedTokenCache.verify("first");
+    verifiedTokenCache.verify("second");
+
+    // Assert
+    verify(jwtService, times(2)).verify("first");
+    verify(jwtService, times(1)).verify("second");
+  }
+
+  @Test
+  @DisplayName("Given cached token, when signing key rotates, then verify token again")
+  void givenCachedToken_whenSigningKeyRotates_thenVerifyTokenAgain() {
+    // Arrange
+    ArgumentCaptor<Runnable> listener = ArgumentCaptor.forClass(Runnable.class);
+    verify(jwtService).onKeyRotation(listener.capture());
+    when(jwtService.verify("token")).thenReturn(token(1L, Instant.now().plusSeconds(60)));
+    verifiedTokenCache.verify("token");
+
+    // Act
+    listener.getValue().run();
+    verifiedTokenCache.verify("token");
+
+    // Assert
+    verify(jwtService, times(2)).verify("token");
+  }
+
+  private VerifiedToken token(Long userId, Instant expiresAt) {
+    return new VerifiedToken(userId, "user" + userId, 0, Instant.now(), expiresAt);
+  }
+}
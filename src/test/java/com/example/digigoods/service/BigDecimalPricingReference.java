@@ -0,0 +1,91 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reference implementation of checkout pricing on {@link BigDecimal}, exactly as
+ * CheckoutService computed it before the compiled plan and fixed-point money.
+ */
+public final class BigDecimalPricingReference {
+
+  private static final BigDecimal HUNDRED = new BigDecimal("100.00");
+
+  private BigDecimalPricingReference() {
+  }
+
+  /**
+   * Sum the undiscounted price of every item.
+   *
+   * @param productIds the product IDs of the basket (with duplicates for quantity)
+   * @param productMap the products of the basket keyed by ID
+   * @return the original subtotal
+   */
+  public static BigDecimal originalSubtotal(List<Long> productIds,
+                                            Map<Long, Product> productMap) {
+    return productIds.stream()
+        .map(productMap::get)
+        .map(Product::getPrice)
+        .reduce(BigDecimal.ZERO, BigDecimal::add);
+  }
+
+  /**
+   * Price a basket by scanning every product-specific discount for every item, then applying
+   * general discounts.
+   *
+   * @param productIds the product IDs of the basket (with duplicates for quantity)
+   * @param productMap the products of the basket keyed by ID
+   * @param discounts the discounts to apply, in application order
+   * @return the discounted price
+   */
+  public static BigDecimal price(List<Long> productIds, Map<Long, Product> productMap,
+                                 List<Discount> discounts) {
+    List<Discount> productSpecificDiscounts = discounts.stream()
+        .filter(d -> d.getType() == DiscountType.PRODUCT_SPECIFIC)
+        .toList();
+    List<Discount> generalDiscounts = discounts.stream()
+        .filter(d -> d.getType() == DiscountType.GENERAL)
+        .toList();
+
+    BigDecimal total = BigDecimal.ZERO;
+    for (Long productId : productIds) {
+      Product product = productMap.get(productId);
+      BigDecimal itemPrice = product.getPrice();
+      BigDecimal totalDiscountPercentage = productSpecificDiscounts.stream()
+          .filter(discount -> discount.getApplicableProducts().contains(product))
+          .map(Discount::getPercentage)
+          .reduce(BigDecimal.ZERO, BigDecimal::add);
+      if (totalDiscountPercentage.compareTo(BigDecimal.ZERO) > 0) {
+        BigDecimal discountAmount = itemPrice.multiply(totalDiscountPercentage)
+            .divide(HUNDRED, 2, RoundingMode.HALF_UP);
+        itemPrice = itemPrice.subtract(discountAmount);
+      }
+      total = total.add(itemPrice);
+    }
+
+    for (Discount discount : generalDiscounts) {
+      BigDecimal discountAmount = total.multiply(discount.getPercentage())
+          .divide(HUNDRED, 2, RoundingMode.HALF_UP);
+      total = total.subtract(discountAmount);
+    }
+    return total;
+  }
+
+  /**
+   * Express the total discount as a percentage of the original subtotal.
+   *
+   * @param originalSubtotal the original subtotal
+   * @param finalPrice the discounted price
+   * @return the discount percentage, rounded HALF_UP to two decimal places
+   */
+  public static BigDecimal discountPercentage(BigDecimal originalSubtotal,
+                                              BigDecimal finalPrice) {
+    return originalSubtotal.subtract(finalPrice).multiply(HUNDRED)
+        .divide(originalSubtotal, 2, RoundingMode.HALF_UP);
+  }
+}
@@ -0,0 +1,212 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.OrderLine;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.OrderLineRepository;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Integration tests for CheckoutService that count the SQL statements of a checkout.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RecordApplicationEvents
+@Transactional
+class CheckoutServiceIntegrationTest {
+
+  @TestConfiguration
+  static class StatementCounterConfiguration {
+
+    @Bean
+    static StatementCounter statementCounter() {
+      return new StatementCounter();
+    }
+  }
+
+  private static final int DISCOUNTS = 5;
+
+  @Autowired
+  private CheckoutService checkoutService;
+
+  @Autowired
+  private PricingPlanCache pricingPlanCache;
+
+  @Autowired
+  private DiscountRegistry discountRegistry;
+
+  @Autowired
+  private StatementCounter statementCounter;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private DiscountRepository discountRepository;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private OrderLineRepository orderLineRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ApplicationEvents applicationEvents;
+
+  private User user;
+  private final List<Long> productIds = new ArrayList<>();
+  private final List<String> discountCodes = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(new User("checkout-user", "password"));
+    for (int i = 0; i < DISCOUNTS; i++) {
+      Product first = productRepository.save(
+          new Product(null, "Product " + i + "a", new BigDecimal("10.00"), 100));
+      Product second = productRepository.save(
+          new Product(null, "Product " + i + "b", new BigDecimal("20.00"), 100));
+      productIds.add(first.getId());
+      productIds.add(second.getId());
+      discountRepository.save(new Discount(null, "PRODUCT" + i, new BigDecimal("5.00"),
+          DiscountType.PRODUCT_SPECIFIC, LocalDate.now().minusDays(1),
+          LocalDate.now().plusDays(1), 100, Set.of(first, second)));
+      discountCodes.add("PRODUCT" + i);
+    }
+    entityManager.flush();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3, 5})
+  @DisplayName("Given N product-specific discount codes, when checking out with cold pricing "
+      + "plan, then use a fixed number of round trips")
+  void givenDiscountCodes_whenCheckingOutWithColdPricingPlan_thenUseFixedNumberOfRoundTrips(
+      int discountCount) {
+    // Arrange
+    final CheckoutRequest request = new CheckoutRequest(user.getId(), productIds,
+        discountCodes.subList(0, discountCount));
+    discountRegistry.refresh();
+    pricingPlanCache.invalidateAll();
+    entityManager.clear();
+    Statistics statistics = entityManager.getEntityManagerFactory()
+        .unwrap(SessionFactory.class).getStatistics();
+    final long sequenceBefore = ordersSequenceValue();
+    statistics.clear();
+    statementCounter.reset();
+
+    // Act
+    checkoutService.processCheckout(request, user.getId());
+    entityManager.flush();
+
+    // Assert
+    final int executions = statementCounter.getExecutions();
+    int sequenceCalls = ordersSequenceValue() == sequenceBefore ? 0 : 1;
+    // Through JPA: catalog entries and order, plus a sequence call when the block of order
+    // IDs ran out; the user is only referenced and discounts come from the registry
+    assertEquals(2 + sequenceCalls, statistics.getPrepareStatementCount());
+    // Through JDBC: one batch each for order lines, discount links, stock and discount uses
+    assertEquals(6 + sequenceCalls, executions);
+    entityManager.clear();
+    assertEquals(99, discountRepository.findByCode("PRODUCT0").orElseThrow()
+        .getRemainingUses());
+    Order order = orderRepository.findAll().stream()
+        .filter(candidate -> candidate.getUser().getId().equals(user.getId()))
+        .findFirst()
+        .orElseThrow();
+    assertEquals(discountCount, order.getAppliedDiscounts().size());
+  }
+
+  @Test
+  @DisplayName("Given product bought twice, when checking out, then write one line per product "
+      + "with its quantity and prices")
+  void givenProductBoughtTwice_whenCheckingOut_thenWriteOneLinePerProduct() {
+    // Arrange
+    Long first = productIds.get(0);
+    Long second = productIds.get(1);
+    CheckoutRequest request = new CheckoutRequest(user.getId(), List.of(first, second, first),
+        List.of("PRODUCT0"));
+
+    // Act
+    checkoutService.processCheckout(request, user.getId());
+
+    // Assert
+    entityManager.clear();
+    Order order = orderRepository.findAll().stream()
+        .filter(candidate -> candidate.getUser().getId().equals(user.getId()))
+        .findFirst()
+        .orElseThrow();
+    assertEquals(new BigDecimal("38.00"), order.getFinalPrice());
+    assertEquals(List.of(
+            new OrderLine(order.getId(), first, 2, new BigDecimal("10.00"),
+                new BigDecimal("9.50")),
+            new OrderLine(order.getId(), second, 1, new BigDecimal("20.00"),
+                new BigDecimal("19.00"))),
+        orderLineRepository.findByOrderIdOrderByProductId(order.getId()));
+  }
+
+  @Test
+  @DisplayName("Given checkout, when its transaction commits, then publish order placed event")
+  void givenCheckout_whenItsTransactionCommits_thenPublishOrderPlacedEvent() {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(user.getId(), List.of(productIds.get(1)),
+        null);
+    Long orderId = checkoutService.processCheckout(request, user.getId()).getOrderId();
+    assertEquals(0, applicationEvents.stream(OrderPlacedEvent.class).count());
+
+    // Act
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(TransactionSynchronization::afterCommit);
+
+    // Assert
+    assertEquals(List.of(new OrderPlacedEvent(orderId, user.getId(), new BigDecimal("20.00"))),
+        applicationEvents.stream(OrderPlacedEvent.class).toList());
+  }
+
+  private long ordersSequenceValue() {
+    return jdbcTemplate.queryForObject("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES "
+        + "WHERE SEQUENCE_NAME = 'ORDERS_SEQ'", Long.class);
+  }
+}
@@ -0,0 +1,160 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.DiscountResponse;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.repository.DiscountRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DiscountRegistryTest {
+
+  @Mock
+  private DiscountRepository discountRepository;
+
+  @Mock
+  private PricingPlanCache pricingPlanCache;
+
+  private DiscountRegistry discountRegistry;
+
+  @BeforeEach
+  void setUp() {
+    discountRegistry = new DiscountRegistry(discountRepository, pricingPlanCache);
+  }
+
+  @Test
+  @DisplayName("Given loaded registry, when finding codes repeatedly, then query database once")
+  void givenLoadedRegistry_whenFindingCodesRepeatedly_thenQueryDatabaseOnce() {
+    // Arrange
+    when(discountRepository.findActiveResponses(any()))
+        .thenReturn(List.of(response(1L, "SAVE10", 5, 3L, 4L)));
+
+    // Act
+    DiscountDefinition first = discountRegistry.find("SAVE10");
+    DiscountDefinition second = discountRegistry.find("SAVE10");
+    DiscountDefinition unknown = discountRegistry.find("UNKNOWN");
+
+    // Assert
+    assertEquals(Set.of(3L, 4L), first.applicableProductIds());
+    assertEquals(first, second);
+    assertNull(unknown);
+    verify(discountRepository, times(1)).findActiveResponses(LocalDate.now());
+  }
+
+  @Test
+  @DisplayName("Given changed discount, when finding code, then reload and drop pricing plans")
+  void givenChangedDiscount_whenFindingCode_thenReloadAndDropPricingPlans() {
+    // Arrange
+    when(discountRepository.findActiveResponses(any()))
+        .thenReturn(List.of(response(1L, "SAVE10", 5)))
+        .thenReturn(List.of(response(1L, "SAVE10", 5, 3L)));
+    discountRegistry.find("SAVE10");
+
+    // Act
+    discountRegistry.markChanged();
+    DiscountDefinition reloaded = discountRegistry.find("SAVE10");
+
+    // Assert
+    assertEquals(Set.of(3L), reloaded.applicableProductIds());
+    verify(pricingPlanCache, times(2)).invalidateAll();
+  }
+
+  @Test
+  @DisplayName("Given changed discount, when reloading, then drop pricing plans only once new "
+      + "definitions are visible")
+  void givenChangedDiscount_whenReloading_thenDropPricingPlansOnceNewDefinitionsAreVisible() {
+    // Arrange
+    when(discountRepository.findActiveResponses(any()))
+        .thenReturn(List.of(response(1L, "SAVE10", 5)))
+        .thenReturn(List.of(response(1L, "SAVE10", 5, 3L)));
+    discountRegistry.find("SAVE10");
+    List<Set<Long>> visibleAtInvalidation = new ArrayList<>();
+    doAnswer(invocation -> visibleAtInvalidation.add(
+        discountRegistry.find("SAVE10").applicableProductIds()))
+        .when(pricingPlanCache).invalidateAll();
+
+    // Act
+    discountRegistry.refresh();
+
+    // Assert
+    assertEquals(List.of(Set.of(3L)), visibleAtInvalidation);
+  }
+
+  @Test
+  @DisplayName("Given unchanged discounts, when refreshing, then keep pricing plans")
+  void givenUnchangedDiscounts_whenRefreshing_thenKeepPricingPlans() {
+    // Arrange
+    when(discountRepository.findActiveResponses(any()))
+        .thenReturn(List.of(response(1L, "SAVE10", 5)));
+    discountRegistry.find("SAVE10");
+
+    // Act
+    discountRegistry.refresh();
+
+    // Assert
+    verify(pricingPlanCache, times(1)).invalidateAll();
+  }
+
+  @Test
+  @DisplayName("Given expired code, when refreshing, then evict it")
+  void givenExpiredCode_whenRefreshing_thenEvictIt() {
+    // Arrange
+    when(discountRepository.findActiveResponses(any()))
+        .thenReturn(List.of(response(1L, "SAVE10", 5)))
+        .thenReturn(List.of());
+    discountRegistry.find("SAVE10");
+
+    // Act
+    discountRegistry.refresh();
+
+    // Assert
+    assertNull(discountRegistry.find("SAVE10"));
+  }
+
+  @Test
+  @DisplayName("Given code without uses at load or after a decrement, when checking, then "
+      + "report it exhausted")
+  void givenCodeWithoutUses_whenChecking_thenReportItExhausted() {
+    // Arrange
+    when(discountRepository.findActiveResponses(any()))
+        .thenReturn(List.of(response(1L, "USED", 0), response(2L, "SAVE10", 5),
+            response(3L, "SAVE20", 5)));
+    discountRegistry.find("SAVE10");
+
+    // Act
+    discountRegistry.markExhausted(2L);
+
+    // Assert
+    assertTrue(discountRegistry.isExhausted(1L));
+    assertTrue(discountRegistry.isExhausted(2L));
+    assertFalse(discountRegistry.isExhausted(3L));
+    verify(discountRepository, times(1)).findActiveResponses(any());
+  }
+
+  private DiscountResponse response(Long id, String code, int remainingUses,
+                                    Long... applicableProductIds) {
+    return new DiscountResponse(id, code, new BigDecimal("10.00"),
+        applicableProductIds.length == 0 ? DiscountType.GENERAL : DiscountType.PRODUCT_SPECIFIC,
+        LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), remainingUses,
+        List.of(applicableProductIds));
+  }
+}
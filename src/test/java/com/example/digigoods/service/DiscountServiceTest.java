@@ -0,0 +1,146 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.repository.DiscountRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DiscountServiceTest {
+
+  @Mock
+  private DiscountRepository discountRepository;
+
+  @Mock
+  private DiscountRegistry discountRegistry;
+
+  @Mock
+  private DiscountUsageService discountUsageService;
+
+  @InjectMocks
+  private DiscountService discountService;
+
+  @Test
+  @DisplayName("Given registered codes, when validating, then return them in code order "
+      + "without querying the database")
+  void givenRegisteredCodes_whenValidating_thenReturnThemWithoutQueryingDatabase() {
+    // Arrange
+    DiscountDefinition save10 = definition(1L, "SAVE10", LocalDate.now().minusDays(1),
+        LocalDate.now().plusDays(1));
+    DiscountDefinition save20 = definition(2L, "SAVE20", LocalDate.now().minusDays(1),
+        LocalDate.now().plusDays(1));
+    when(discountRegistry.find("SAVE10")).thenReturn(save10);
+    when(discountRegistry.find("SAVE20")).thenReturn(save20);
+
+    // Act
+    List<DiscountDefinition> discounts =
+        discountService.validateAndGetDiscounts(List.of("SAVE20", "SAVE10"));
+
+    // Assert
+    assertEquals(List.of(save20, save10), discounts);
+    verify(discountRepository, never()).findByCode(anyString());
+  }
+
+  @Test
+  @DisplayName("Given registered code not yet valid, when validating, then throw "
+      + "InvalidDiscountException")
+  void givenRegisteredCodeNotYetValid_whenValidating_thenThrowInvalidDiscountException() {
+    // Arrange
+    when(discountRegistry.find("LATER")).thenReturn(definition(1L, "LATER",
+        LocalDate.now().plusDays(1), LocalDate.now().plusDays(2)));
+
+    // Act & Assert
+    InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
+        () -> discountService.validateAndGetDiscounts(List.of("LATER")));
+    assertEquals("Invalid discount code 'LATER': discount is not yet valid",
+        exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Given exhausted code, when validating, then throw InvalidDiscountException")
+  void givenExhaustedCode_whenValidating_thenThrowInvalidDiscountException() {
+    // Arrange
+    when(discountRegistry.find("USED")).thenReturn(definition(1L, "USED",
+        LocalDate.now().minusDays(1), LocalDate.now().plusDays(1)));
+    when(discountRegistry.isExhausted(1L)).thenReturn(true);
+    when(discountUsageService.getLeasedUses(1L)).thenReturn(0);
+
+    // Act & Assert
+    InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
+        () -> discountService.validateAndGetDiscounts(List.of("USED")));
+    assertEquals("Invalid discount code 'USED': discount has no remaining uses",
+        exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Given expired code evicted from registry, when validating, then report it "
+      + "expired")
+  void givenExpiredCodeEvictedFromRegistry_whenValidating_thenReportItExpired() {
+    // Arrange
+    when(discountRepository.findByCode("OLD")).thenReturn(Optional.of(new Discount(1L, "OLD",
+        new BigDecimal("10.00"), DiscountType.GENERAL, LocalDate.now().minusDays(10),
+        LocalDate.now().minusDays(1), 5, new HashSet<>())));
+
+    // Act & Assert
+    InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
+        () -> discountService.validateAndGetDiscounts(List.of("OLD")));
+    assertEquals("Invalid discount code 'OLD': discount has expired", exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Given unknown code, when validating, then throw InvalidDiscountException")
+  void givenUnknownCode_whenValidating_thenThrowInvalidDiscountException() {
+    // Arrange
+    when(discountRepository.findByCode("NOPE")).thenReturn(Optional.empty());
+
+    // Act & Assert
+    InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
+        () -> discountService.validateAndGetDiscounts(List.of("NOPE")));
+    assertEquals("Invalid discount code 'NOPE': discount code not found",
+        exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Given code used up concurrently, when updating usage, then mark it exhausted "
+      + "and throw InvalidDiscountException")
+  void givenCodeUsedUpConcurrently_whenUpdatingUsage_thenMarkItExhaustedAndThrow() {
+    // Arrange
+    DiscountDefinition save10 = definition(1L, "SAVE10", LocalDate.now().minusDays(1),
+        LocalDate.now().plusDays(1));
+    DiscountDefinition save20 = definition(2L, "SAVE20", LocalDate.now().minusDays(1),
+        LocalDate.now().plusDays(1));
+    when(discountUsageService.consume(List.of(save10, save20))).thenReturn(List.of(2L));
+
+    // Act & Assert
+    InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
+        () -> discountService.updateDiscountUsage(List.of(save10, save20)));
+    assertEquals("Invalid discount code 'SAVE20': discount has no remaining uses",
+        exception.getMessage());
+    verify(discountRegistry).markExhausted(2L);
+  }
+
+  private DiscountDefinition definition(Long id, String code, LocalDate validFrom,
+                                        LocalDate validUntil) {
+    return new DiscountDefinition(id, code, DiscountType.GENERAL, new BigDecimal("10.00"),
+        validFrom, validUntil, Set.of());
+  }
+}
@@ -0,0 +1,158 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Concurrency tests for discount usage: many parallel checkouts against a code with few
+ * uses, each in its own committed transaction.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "discounts.usage-lease.enabled=true",
+    "discounts.usage-lease.hot-codes=LEASED",
+    "discounts.usage-lease.block-size=8",
+    "spring.jpa.show-sql=false"
+})
+class DiscountUsageConcurrencyTest {
+
+  private static final int USES = 50;
+  private static final int CHECKOUTS = 400;
+  private static final int THREADS = 32;
+
+  @Autowired
+  private CheckoutService checkoutService;
+
+  @Autowired
+  private DiscountUsageService discountUsageService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private DiscountRepository discountRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private User user;
+  private Product product;
+  private Discount discount;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(new User("usage-user", "password"));
+    product = productRepository.save(
+        new Product(null, "Usage Product", new BigDecimal("10.00"), CHECKOUTS));
+  }
+
+  @AfterEach
+  void tearDown() {
+    String userOrders = "SELECT id FROM orders WHERE user_id = ?";
+    jdbcTemplate.update("DELETE FROM order_applied_discounts WHERE order_id IN ("
+        + userOrders + ")", user.getId());
+    jdbcTemplate.update("DELETE FROM order_lines WHERE order_id IN (" + userOrders + ")",
+        user.getId());
+    jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", user.getId());
+    discountRepository.deleteById(discount.getId());
+    productRepository.deleteById(product.getId());
+    userRepository.deleteById(user.getId());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"PLAIN", "LEASED"})
+  @DisplayName("Given code with limited uses, when checking out in parallel, then never "
+      + "apply it more often than it has uses")
+  void givenCodeWithLimitedUses_whenCheckingOutInParallel_thenNeverOversell(String code)
+      throws Exception {
+    // Arrange
+    discount = discountRepository.save(new Discount(null, code, new BigDecimal("10.00"),
+        DiscountType.GENERAL, LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), USES,
+        new HashSet<>()));
+    CheckoutRequest request = new CheckoutRequest(user.getId(), List.of(product.getId()),
+        List.of(code));
+
+    // Act
+    int successes = checkOutInParallel(request);
+
+    // Assert
+    assertTrue(successes > 0);
+    assertEquals(successes, appliedCount());
+    // Uses are either taken by an order, left in the row or leased to this node; a refill
+    // still in flight moves them from the row to the lease, so wait for it to land
+    long deadline = System.nanoTime() + 5_000_000_000L;
+    int accountedUses;
+    do {
+      accountedUses = successes + remainingUses()
+          + discountUsageService.getLeasedUses(discount.getId());
+    } while (accountedUses != USES && System.nanoTime() < deadline);
+    assertEquals(USES, accountedUses);
+  }
+
+  private int checkOutInParallel(CheckoutRequest request) throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<?>> futures = new ArrayList<>(CHECKOUTS);
+    for (int i = 0; i < CHECKOUTS; i++) {
+      futures.add(executor.submit(() -> checkoutService.processCheckout(request,
+          user.getId())));
+    }
+
+    int successes = 0;
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+        successes++;
+      } catch (ExecutionException e) {
+        if (!(e.getCause() instanceof InvalidDiscountException)) {
+          throw new AssertionError("Unexpected checkout failure", e.getCause());
+        }
+      }
+    }
+    executor.shutdown();
+    return successes;
+  }
+
+  private int appliedCount() {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM order_applied_discounts WHERE discount_id = ?", Integer.class,
+        discount.getId());
+  }
+
+  private int remainingUses() {
+    return jdbcTemplate.queryForObject(
+        "SELECT remaining_uses FROM discounts WHERE id = ?", Integer.class, discount.getId());
+  }
+}
@@ -0,0 +1,124 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.repository.DiscountRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class DiscountUsageServiceTest {
+
+  @Mock
+  private DiscountRepository discountRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private DiscountUsageService discountUsageService;
+
+  private final DiscountDefinition plain = definition(1L, "PLAIN");
+  private final DiscountDefinition hot = definition(2L, "HOT");
+
+  @BeforeEach
+  void setUp() {
+    discountUsageService = new DiscountUsageService(discountRepository, transactionManager);
+    ReflectionTestUtils.setField(discountUsageService, "leaseEnabled", true);
+    ReflectionTestUtils.setField(discountUsageService, "hotCodes", List.of("HOT"));
+    ReflectionTestUtils.setField(discountUsageService, "blockSize", 10);
+    // Refill on the calling thread
+    ReflectionTestUtils.setField(discountUsageService, "refiller", (Executor) Runnable::run);
+  }
+
+  @Test
+  @DisplayName("Given plain code without uses, when consuming, then report it exhausted")
+  void givenPlainCodeWithoutUses_whenConsuming_thenReportItExhausted() {
+    // Arrange
+    when(discountRepository.decrementRemainingUses(List.of(1L))).thenReturn(List.of(1L));
+
+    // Act
+    List<Long> exhaustedIds = discountUsageService.consume(List.of(plain));
+
+    // Assert
+    assertEquals(List.of(1L), exhaustedIds);
+  }
+
+  @Test
+  @DisplayName("Given hot code with empty block, when consuming, then decrement the row and "
+      + "lease a block for later checkouts")
+  void givenHotCodeWithEmptyBlock_whenConsuming_thenDecrementRowAndLeaseBlock() {
+    // Arrange
+    when(discountRepository.leaseRemainingUses(2L, 10)).thenReturn(10);
+
+    // Act
+    discountUsageService.consume(List.of(hot));
+    List<Long> exhaustedIds = discountUsageService.consume(List.of(hot, plain));
+
+    // Assert
+    assertTrue(exhaustedIds.isEmpty());
+    verify(discountRepository).decrementRemainingUses(List.of(2L));
+    verify(discountRepository).decrementRemainingUses(List.of(1L));
+    assertEquals(9, discountUsageService.getLeasedUses(2L));
+  }
+
+  @Test
+  @DisplayName("Given leased use taken in rolled back transaction, when completing, then give "
+      + "it back to the block")
+  void givenLeasedUseTakenInRolledBackTransaction_whenCompleting_thenGiveItBackToBlock() {
+    // Arrange
+    when(discountRepository.leaseRemainingUses(2L, 10)).thenReturn(1, 0);
+    discountUsageService.consume(List.of(hot));
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      discountUsageService.consume(List.of(hot));
+      assertEquals(0, discountUsageService.getLeasedUses(2L));
+
+      // Act
+      TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+          synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Assert
+    assertEquals(1, discountUsageService.getLeasedUses(2L));
+  }
+
+  @Test
+  @DisplayName("Given unused leased uses, when stopping, then give them back to the row")
+  void givenUnusedLeasedUses_whenStopping_thenGiveThemBackToRow() throws InterruptedException {
+    // Arrange
+    when(discountRepository.leaseRemainingUses(2L, 10)).thenReturn(10);
+    discountUsageService.consume(List.of(hot));
+    discountUsageService.consume(List.of(hot));
+
+    // Act
+    discountUsageService.stop();
+
+    // Assert
+    verify(discountRepository).returnRemainingUses(2L, 9);
+    assertEquals(0, discountUsageService.getLeasedUses(2L));
+  }
+
+  private static DiscountDefinition definition(Long id, String code) {
+    return new DiscountDefinition(id, code, DiscountType.GENERAL, new BigDecimal("10.00"),
+        LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), Set.of());
+  }
+}
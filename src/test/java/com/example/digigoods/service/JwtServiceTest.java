@@ -1,10 +1,18 @@
 package com.example.digigoods.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.example.digigoods.security.VerifiedToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,6 +28,7 @@ class JwtServiceTest {
     ReflectionTestUtils.setField(jwtService, "secret",
         "myVerySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm");
     ReflectionTestUtils.setField(jwtService, "expiration", 86400000L);
+    jwtService.init();
   }
 
   @Test
@@ -38,78 +47,93 @@ class JwtServiceTest {
   }
 
   @Test
-  @DisplayName("Given valid token, when extracting username, then return correct username")
-  void givenValidToken_whenExtractingUsername_thenReturnCorrectUsername() {
+  @DisplayName("Given valid token, when verifying, then return unexpired claims")
+  void givenValidToken_whenVerifying_thenReturnUnexpiredClaims() {
     // Arrange
-    Long userId = 1L;
-    String username = "testuser";
-    String token = jwtService.generateToken(userId, username);
+    String token = jwtService.generateToken(1L, "testuser");
 
     // Act
-    String extractedUsername = jwtService.extractUsername(token);
+    VerifiedToken verifiedToken = jwtService.verify(token);
 
     // Assert
-    assertEquals(username, extractedUsername);
+    assertEquals(1L, verifiedToken.userId());
+    assertEquals("testuser", verifiedToken.username());
+    assertEquals(0, verifiedToken.tokenVersion());
+    assertTrue(verifiedToken.expiresAt().isAfter(Instant.now()));
   }
 
   @Test
-  @DisplayName("Given valid token, when extracting user ID, then return correct user ID")
-  void givenValidToken_whenExtractingUserId_thenReturnCorrectUserId() {
+  @DisplayName("Given rotated signing key, when verifying, then accept tokens signed "
+      + "with old and new key")
+  void givenRotatedSigningKey_whenVerifying_thenAcceptTokensSignedWithOldAndNewKey() {
     // Arrange
-    Long userId = 1L;
-    String username = "testuser";
-    String token = jwtService.generateToken(userId, username);
+    String oldToken = jwtService.generateToken(1L, "olduser");
 
     // Act
-    Long extractedUserId = jwtService.extractUserId(token);
+    jwtService.rotateSigningKey("anotherVerySecretKeyThatIsAtLeast256BitsLongForHS256");
+    String newToken = jwtService.generateToken(2L, "newuser");
 
     // Assert
-    assertEquals(userId, extractedUserId);
+    assertEquals("olduser", jwtService.verify(oldToken).username());
+    assertEquals("newuser", jwtService.verify(newToken).username());
   }
 
   @Test
-  @DisplayName("Given valid token, when checking if expired, then return false")
-  void givenValidToken_whenCheckingIfExpired_thenReturnFalse() {
+  @DisplayName("Given key rotated twice, when verifying, then reject tokens signed with the "
+      + "oldest key")
+  void givenKeyRotatedTwice_whenVerifying_thenRejectTokensSignedWithOldestKey() {
     // Arrange
-    Long userId = 1L;
-    String username = "testuser";
-    String token = jwtService.generateToken(userId, username);
+    String oldToken = jwtService.generateToken(1L, "olduser");
+    jwtService.rotateSigningKey("anotherVerySecretKeyThatIsAtLeast256BitsLongForHS256");
+    jwtService.rotateSigningKey("yetAnotherVerySecretKeyThatIsAtLeast256BitsLongForHS256");
 
-    // Act
-    boolean isExpired = jwtService.isTokenExpired(token);
-
-    // Assert
-    assertFalse(isExpired);
+    // Act & Assert
+    assertThrows(SignatureException.class, () -> jwtService.verify(oldToken));
   }
 
   @Test
-  @DisplayName("Given valid token and username, when validating token, then return true")
-  void givenValidTokenAndUsername_whenValidatingToken_thenReturnTrue() {
+  @DisplayName("Given token without key ID, when verifying, then verify with current "
+      + "key")
+  void givenTokenWithoutKeyId_whenVerifying_thenVerifyWithCurrentKey() {
     // Arrange
-    Long userId = 1L;
-    String username = "testuser";
-    String token = jwtService.generateToken(userId, username);
+    String token = Jwts.builder()
+        .subject("legacyuser")
+        .expiration(new Date(System.currentTimeMillis() + 60_000))
+        .signWith(Keys.hmacShaKeyFor("myVerySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm"
+            .getBytes(StandardCharsets.UTF_8)))
+        .compact();
 
     // Act
-    boolean isValid = jwtService.validateToken(token, username);
+    VerifiedToken verifiedToken = jwtService.verify(token);
 
     // Assert
-    assertTrue(isValid);
+    assertEquals("legacyuser", verifiedToken.username());
   }
 
   @Test
-  @DisplayName("Given valid token and wrong username, when validating token, then return false")
-  void givenValidTokenAndWrongUsername_whenValidatingToken_thenReturnFalse() {
+  @DisplayName("Given valid token, when verifying, then return all claims")
+  void givenValidToken_whenVerifying_thenReturnAllClaims() {
     // Arrange
-    Long userId = 1L;
-    String username = "testuser";
-    String wrongUsername = "wronguser";
-    String token = jwtService.generateToken(userId, username);
+    String token = jwtService.generateToken(7L, "testuser", 3);
 
     // Act
-    boolean isValid = jwtService.validateToken(token, wrongUsername);
+    VerifiedToken verifiedToken = jwtService.verify(token);
 
     // Assert
-    assertFalse(isValid);
+    assertEquals(7L, verifiedToken.userId());
+    assertEquals("testuser", verifiedToken.username());
+    assertEquals(3, verifiedToken.tokenVersion());
+    assertTrue(verifiedToken.expiresAt().isAfter(verifiedToken.issuedAt()));
+  }
+
+  @Test
+  @DisplayName("Given expired token, when verifying, then throw ExpiredJwtException")
+  void givenExpiredToken_whenVerifying_thenThrowExpiredJwtException() {
+    // Arrange
+    ReflectionTestUtils.setField(jwtService, "expiration", -60_000L);
+    String token = jwtService.generateToken(1L, "testuser");
+
+    // Act & Assert
+    assertThrows(ExpiredJwtException.class, () -> jwtService.verify(token));
   }
 }
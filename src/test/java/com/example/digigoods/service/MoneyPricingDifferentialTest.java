@@ -0,0 +1,123 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential test of fixed-point pricing against the original {@link BigDecimal} pricing.
+ */
+class MoneyPricingDifferentialTest {
+
+  private static final int BASKETS = 1_000_000;
+
+  private final Random random = new Random(20_250_816L);
+
+  @Test
+  @DisplayName("Given randomized baskets, when pricing with cents and with BigDecimal, "
+      + "then results are identical")
+  void givenRandomizedBaskets_whenPricingWithCentsAndBigDecimal_thenResultsAreIdentical() {
+    for (int basket = 0; basket < BASKETS; basket++) {
+      // Arrange
+      List<Product> products = randomProducts();
+      List<Discount> discounts = randomDiscounts(products);
+      List<Long> productIds = randomBasket(products);
+      Map<Long, Product> productMap = new HashMap<>();
+      products.forEach(product -> productMap.put(product.getId(), product));
+
+      long[] itemIds = new long[productIds.size()];
+      long[] itemPrices = new long[productIds.size()];
+      long originalSubtotal = 0;
+      for (int i = 0; i < itemIds.length; i++) {
+        itemIds[i] = productIds.get(i);
+        itemPrices[i] = Money.toCents(productMap.get(productIds.get(i)).getPrice());
+        originalSubtotal += itemPrices[i];
+      }
+
+      // Act
+      long finalPrice = PricingPlan.compile(discounts.stream().map(DiscountDefinition::of).toList())
+          .price(itemIds, itemPrices);
+      BigDecimal expectedSubtotal =
+          BigDecimalPricingReference.originalSubtotal(productIds, productMap);
+      BigDecimal expectedPrice =
+          BigDecimalPricingReference.price(productIds, productMap, discounts);
+
+      // Assert
+      String context = "basket " + basket + ": " + productIds + " " + discounts;
+      assertEquals(expectedSubtotal, Money.fromCents(originalSubtotal), context);
+      assertEquals(expectedPrice, Money.fromCents(finalPrice), context);
+      assertEquals(
+          BigDecimalPricingReference.discountPercentage(expectedSubtotal, expectedPrice),
+          Money.fromCents(Money.basisPointsOf(originalSubtotal - finalPrice, originalSubtotal)),
+          context);
+    }
+  }
+
+  private List<Product> randomProducts() {
+    int count = 1 + random.nextInt(6);
+    List<Product> products = new ArrayList<>(count);
+    for (long id = 1; id <= count; id++) {
+      products.add(new Product(id, "Product " + id, randomPrice(), 100));
+    }
+    return products;
+  }
+
+  private BigDecimal randomPrice() {
+    // Mostly small prices, where rounding matters most, with occasional large ones
+    long cents = random.nextInt(10) == 0
+        ? 1 + (long) (random.nextDouble() * 9_999_999_999L)
+        : 1 + random.nextInt(20_000);
+    return Money.fromCents(cents);
+  }
+
+  private List<Discount> randomDiscounts(List<Product> products) {
+    int count = random.nextInt(6);
+    List<Discount> discounts = new ArrayList<>(count);
+    for (long id = 1; id <= count; id++) {
+      DiscountType type = random.nextBoolean()
+          ? DiscountType.PRODUCT_SPECIFIC
+          : DiscountType.GENERAL;
+      Set<Product> applicableProducts = new HashSet<>();
+      if (type == DiscountType.PRODUCT_SPECIFIC) {
+        for (Product product : products) {
+          if (random.nextBoolean()) {
+            applicableProducts.add(product);
+          }
+        }
+      }
+      discounts.add(new Discount(id, "CODE" + id, randomPercentage(), type, LocalDate.MIN,
+          LocalDate.MAX, 10, applicableProducts));
+    }
+    return discounts;
+  }
+
+  private BigDecimal randomPercentage() {
+    // Percentages up to the DECIMAL(5,2) limit, so summed discounts can exceed 100%
+    int basisPoints = random.nextInt(20) == 0
+        ? random.nextInt(100_000)
+        : random.nextInt(10_001);
+    return BigDecimal.valueOf(basisPoints, 2);
+  }
+
+  private List<Long> randomBasket(List<Product> products) {
+    int size = 1 + random.nextInt(10);
+    List<Long> productIds = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      productIds.add(products.get(random.nextInt(products.size())).getId());
+    }
+    return productIds;
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+  @Test
+  @DisplayName("Given amount with two decimals, when converting to cents and back, "
+      + "then keep value and scale")
+  void givenAmountWithTwoDecimals_whenConvertingToCentsAndBack_thenKeepValueAndScale() {
+    // Act
+    long cents = Money.toCents(new BigDecimal("1234.56"));
+
+    // Assert
+    assertEquals(123456L, cents);
+    assertEquals(new BigDecimal("1234.56"), Money.fromCents(cents));
+  }
+
+  @Test
+  @DisplayName("Given fractional cents, when converting to cents, then throw ArithmeticException")
+  void givenFractionalCents_whenConvertingToCents_thenThrowArithmeticException() {
+    // Act & Assert
+    assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("1.005")));
+  }
+
+  @Test
+  @DisplayName("Given exact half cent, when taking percentage, then round half up")
+  void givenExactHalfCent_whenTakingPercentage_thenRoundHalfUp() {
+    // Act & Assert
+    assertEquals(1L, Money.percentageOf(10L, 500L)); // 5% of 0.10 = 0.005
+    assertEquals(0L, Money.percentageOf(9L, 500L)); // 5% of 0.09 = 0.0045
+    assertEquals(-1L, Money.percentageOf(-10L, 500L)); // -0.005 rounds away from zero
+  }
+
+  @Test
+  @DisplayName("Given part and whole, when expressing as basis points, then round half up")
+  void givenPartAndWhole_whenExpressingAsBasisPoints_thenRoundHalfUp() {
+    // Act & Assert
+    assertEquals(7500L, Money.basisPointsOf(75L, 100L));
+    assertEquals(3333L, Money.basisPointsOf(1L, 3L));
+    assertEquals(6667L, Money.basisPointsOf(2L, 3L));
+  }
+}
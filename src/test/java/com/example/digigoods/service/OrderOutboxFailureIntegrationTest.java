@@ -0,0 +1,148 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.model.OrderLine;
+import com.example.digigoods.model.OrderOutboxEntry;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.OrderOutboxRepository;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for order outbox entries that cannot be written. Each outbox transaction
+ * commits on its own, so these tests are not transactional and clean up after themselves.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "checkout.outbox.enabled=true",
+    "checkout.outbox.poll-interval-ms=3600000",
+    "checkout.outbox.max-attempts=2"
+})
+class OrderOutboxFailureIntegrationTest {
+
+  @Autowired
+  private CheckoutService checkoutService;
+
+  @Autowired
+  private OrderOutboxService orderOutboxService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private OrderOutboxRepository orderOutboxRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private User user;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(new User("outbox-failure-user", "password"));
+    product = productRepository.save(
+        new Product(null, "Outbox Failure Product", new BigDecimal("10.00"), 10));
+  }
+
+  @AfterEach
+  void tearDown() {
+    String userOrders = "SELECT id FROM orders WHERE user_id = ?";
+    jdbcTemplate.update("DELETE FROM order_lines WHERE order_id IN (" + userOrders + ")",
+        user.getId());
+    jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", user.getId());
+    jdbcTemplate.update("DELETE FROM order_outbox WHERE user_id = ?", user.getId());
+    productRepository.deleteById(product.getId());
+    userRepository.deleteById(user.getId());
+  }
+
+  @Test
+  @DisplayName("Given entries that cannot be written, when processing outbox, then write the "
+      + "entries behind them and set them aside after max attempts")
+  void givenEntriesThatCannotBeWritten_whenProcessingOutbox_thenWriteOthersAndSetThemAside()
+      throws Exception {
+    // Arrange
+    final OrderOutboxEntry unreadable = append(Long.MAX_VALUE, "not json");
+    // Links a discount that no longer exists
+    final Long orphanedOrderId = Long.MAX_VALUE - 1;
+    append(orphanedOrderId, objectMapper.writeValueAsString(new PricedOrder(orphanedOrderId,
+        user.getId(), new BigDecimal("10.00"), new BigDecimal("9.00"),
+        List.of(new OrderLine(orphanedOrderId, product.getId(), 1, new BigDecimal("10.00"),
+            new BigDecimal("10.00"))),
+        List.of(Long.MAX_VALUE))));
+    Long orderId = checkOut();
+
+    // Act
+    int processed = orderOutboxService.processPending();
+
+    // Assert
+    assertEquals(1, processed);
+    assertTrue(orderRepository.existsById(orderId));
+    assertFalse(orderRepository.existsById(orphanedOrderId));
+    OrderOutboxEntry retried = orderOutboxRepository.findById(unreadable.getEntryNo())
+        .orElseThrow();
+    assertEquals(1, retried.getAttempts());
+    assertNull(retried.getFailedAt());
+
+    // Act
+    orderOutboxService.processPending();
+    int processedAfterSetAside = orderOutboxService.processPending();
+
+    // Assert
+    assertEquals(0, processedAfterSetAside);
+    List<OrderOutboxEntry> setAside = orderOutboxRepository.findAll().stream()
+        .filter(entry -> entry.getFailedAt() != null)
+        .sorted(Comparator.comparing(OrderOutboxEntry::getEntryNo))
+        .toList();
+    assertEquals(List.of(unreadable.getOrderId(), orphanedOrderId),
+        setAside.stream().map(OrderOutboxEntry::getOrderId).toList());
+    setAside.forEach(entry -> {
+      assertEquals(2, entry.getAttempts());
+      assertNull(entry.getProcessedAt());
+      assertNotNull(entry.getLastError());
+    });
+    assertTrue(setAside.get(0).getLastError().contains("Failed to read outbox entry"));
+  }
+
+  private OrderOutboxEntry append(Long orderId, String payload) {
+    return orderOutboxRepository.save(new OrderOutboxEntry(null, orderId, user.getId(), payload,
+        LocalDateTime.now(), null, 0, null, null));
+  }
+
+  private Long checkOut() {
+    return checkoutService.processCheckout(new CheckoutRequest(user.getId(),
+        List.of(product.getId()), null), user.getId()).getOrderId();
+  }
+}
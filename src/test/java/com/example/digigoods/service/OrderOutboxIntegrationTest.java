@@ -0,0 +1,185 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.dto.OrderResponse;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.OrderLine;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.OrderLineRepository;
+import com.example.digigoods.repository.OrderOutboxRepository;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for accept-then-persist checkout through the order outbox. The worker is
+ * left idle; tests process the outbox explicitly.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "checkout.outbox.enabled=true",
+    "checkout.outbox.poll-interval-ms=3600000"
+})
+@RecordApplicationEvents
+@Transactional
+class OrderOutboxIntegrationTest {
+
+  @Autowired
+  private CheckoutService checkoutService;
+
+  @Autowired
+  private OrderOutboxService orderOutboxService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private DiscountRepository discountRepository;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private OrderLineRepository orderLineRepository;
+
+  @Autowired
+  private OrderOutboxRepository orderOutboxRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private ApplicationEvents applicationEvents;
+
+  private User user;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(new User("outbox-user", "password"));
+    product = productRepository.save(
+        new Product(null, "Outbox Product", new BigDecimal("10.00"), 10));
+    discountRepository.save(new Discount(null, "OUTBOX10", new BigDecimal("10.00"),
+        DiscountType.GENERAL, LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), 5,
+        new HashSet<>()));
+    entityManager.flush();
+  }
+
+  @Test
+  @DisplayName("Given outbox enabled, when checking out, then reserve now and write the order "
+      + "once the outbox is processed")
+  void givenOutboxEnabled_whenCheckingOut_thenReserveNowAndWriteOrderLater() {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(user.getId(),
+        List.of(product.getId(), product.getId()), List.of("OUTBOX10"));
+
+    // Act
+    OrderResponse response = checkoutService.processCheckout(request, user.getId());
+
+    // Assert
+    assertEquals("Order accepted for processing", response.getMessage());
+    assertEquals(new BigDecimal("18.00"), response.getFinalPrice());
+    entityManager.clear();
+    assertEquals(8, productRepository.findById(product.getId()).orElseThrow().getStock());
+    assertEquals(4, discountRepository.findByCode("OUTBOX10").orElseThrow().getRemainingUses());
+    assertFalse(orderRepository.existsById(response.getOrderId()));
+
+    // Act
+    int processed = orderOutboxService.processPending();
+
+    // Assert
+    assertEquals(1, processed);
+    entityManager.clear();
+    Order order = orderRepository.findById(response.getOrderId()).orElseThrow();
+    assertEquals(user.getId(), order.getUser().getId());
+    assertEquals(new BigDecimal("18.00"), order.getFinalPrice());
+    assertEquals(1, order.getAppliedDiscounts().size());
+    assertEquals(List.of(new OrderLine(order.getId(), product.getId(), 2,
+            new BigDecimal("10.00"), new BigDecimal("10.00"))),
+        orderLineRepository.findByOrderIdOrderByProductId(order.getId()));
+    assertEquals(0, orderOutboxRepository.countByProcessedAtIsNull());
+    assertEquals(List.of(new OrderPlacedEvent(order.getId(), user.getId(),
+            new BigDecimal("18.00"))),
+        applicationEvents.stream(OrderPlacedEvent.class).toList());
+  }
+
+  @Test
+  @DisplayName("Given several accepted orders of a user, when processing outbox, then write "
+      + "them in the order they were placed")
+  void givenSeveralAcceptedOrders_whenProcessingOutbox_thenWriteThemInPlacementOrder() {
+    // Arrange
+    List<Long> orderIds = List.of(checkOut(1), checkOut(2), checkOut(3));
+
+    // Act
+    orderOutboxService.processPending();
+
+    // Assert
+    assertEquals(orderIds, applicationEvents.stream(OrderPlacedEvent.class)
+        .map(OrderPlacedEvent::orderId)
+        .toList());
+    assertTrue(orderIds.stream().allMatch(orderRepository::existsById));
+  }
+
+  @Test
+  @DisplayName("Given processed entry whose order was lost, when replaying, then write the "
+      + "order again without duplicating existing ones")
+  void givenProcessedEntryWithLostOrder_whenReplaying_thenRewriteOnlyMissingOrder() {
+    // Arrange
+    Long lostOrderId = checkOut(1);
+    final Long keptOrderId = checkOut(1);
+    orderOutboxService.processPending();
+    jdbcTemplate.update("DELETE FROM order_lines WHERE order_id = ?", lostOrderId);
+    jdbcTemplate.update("DELETE FROM orders WHERE id = ?", lostOrderId);
+    final long ordersBefore = orderRepository.count();
+
+    // Act
+    int replayed = orderOutboxService.replay(Math.min(lostOrderId, keptOrderId),
+        Math.max(lostOrderId, keptOrderId));
+    int processed = orderOutboxService.processPending();
+
+    // Assert
+    assertEquals(2, replayed);
+    assertEquals(2, processed);
+    assertEquals(ordersBefore + 1, orderRepository.count());
+    assertEquals(1, orderLineRepository.findByOrderIdOrderByProductId(lostOrderId).size());
+    assertEquals(1, orderLineRepository.findByOrderIdOrderByProductId(keptOrderId).size());
+  }
+
+  private Long checkOut(int quantity) {
+    List<Long> productIds = Collections.nCopies(quantity, product.getId());
+    return checkoutService.processCheckout(
+        new CheckoutRequest(user.getId(), productIds, null), user.getId()).getOrderId();
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.example.digigoods.model.DiscountType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PricingPlanCacheTest {
+
+  private PricingPlanCache pricingPlanCache;
+
+  @BeforeEach
+  void setUp() {
+    pricingPlanCache = new PricingPlanCache();
+  }
+
+  @Test
+  @DisplayName("Given same discount set, when getting plan twice, then reuse compiled plan")
+  void givenSameDiscountSet_whenGettingPlanTwice_thenReuseCompiledPlan() {
+    // Arrange
+    PricingPlan first = pricingPlanCache.getPlan(List.of(discount(1L, "20.00")));
+
+    // Act
+    PricingPlan second = pricingPlanCache.getPlan(List.of(discount(1L, "20.00")));
+
+    // Assert
+    assertSame(first, second);
+  }
+
+  @Test
+  @DisplayName("Given changed percentage, when getting plan, then compile a new plan")
+  void givenChangedPercentage_whenGettingPlan_thenCompileNewPlan() {
+    // Arrange
+    PricingPlan first = pricingPlanCache.getPlan(List.of(discount(1L, "20.00")));
+
+    // Act
+    PricingPlan second = pricingPlanCache.getPlan(List.of(discount(1L, "25.00")));
+
+    // Assert
+    assertNotSame(first, second);
+  }
+
+  @Test
+  @DisplayName("Given changed applicable products, when getting plan, then price with them")
+  void givenChangedApplicableProducts_whenGettingPlan_thenPriceWithThem() {
+    // Arrange
+    pricingPlanCache.getPlan(List.of(productSpecific(Set.of(1L))));
+
+    // Act
+    PricingPlan plan = pricingPlanCache.getPlan(List.of(productSpecific(Set.of(2L))));
+
+    // Assert
+    assertEquals(1000, plan.applyProductSpecificDiscounts(1L, 1000));
+    assertEquals(800, plan.applyProductSpecificDiscounts(2L, 1000));
+  }
+
+  @Test
+  @DisplayName("Given invalidated cache, when getting plan, then compile a new plan")
+  void givenInvalidatedCache_whenGettingPlan_thenCompileNewPlan() {
+    // Arrange
+    PricingPlan first = pricingPlanCache.getPlan(List.of(discount(1L, "20.00")));
+    pricingPlanCache.invalidateAll();
+
+    // Act
+    PricingPlan second = pricingPlanCache.getPlan(List.of(discount(1L, "20.00")));
+
+    // Assert
+    assertNotSame(first, second);
+  }
+
+  private DiscountDefinition productSpecific(Set<Long> applicableProductIds) {
+    return new DiscountDefinition(1L, "PRODUCT1", DiscountType.PRODUCT_SPECIFIC,
+        new BigDecimal("20.00"), LocalDate.now().minusDays(1), LocalDate.now().plusDays(1),
+        applicableProductIds);
+  }
+
+  private DiscountDefinition discount(Long id, String percentage) {
+    return new DiscountDefinition(id, "GENERAL" + id, DiscountType.GENERAL,
+        new BigDecimal(percentage), LocalDate.now().minusDays(1), LocalDate.now().plusDays(1),
+        Set.of());
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PricingPlanTest {
+
+  private Product product1;
+  private Product product2;
+
+  @BeforeEach
+  void setUp() {
+    product1 = new Product(1L, "Product 1", new BigDecimal("19.99"), 10);
+    product2 = new Product(2L, "Product 2", new BigDecimal("5.55"), 10);
+  }
+
+  @Test
+  @DisplayName("Given no discounts, when pricing basket, then return plain subtotal")
+  void givenNoDiscounts_whenPricingBasket_thenReturnPlainSubtotal() {
+    // Arrange
+    PricingPlan plan = PricingPlan.compile(List.of());
+
+    // Act
+    long price = plan.price(new long[] {1L, 1L, 2L}, new long[] {1999L, 1999L, 555L});
+
+    // Assert
+    assertEquals(4553L, price);
+  }
+
+  @Test
+  @DisplayName("Given overlapping product-specific discounts, when pricing basket, "
+      + "then sum percentages per item and round each item")
+  void givenOverlappingProductSpecificDiscounts_whenPricingBasket_thenSumPercentagesPerItem() {
+    // Arrange
+    PricingPlan plan = PricingPlan.compile(List.of(
+        discount("P10", "10.00", DiscountType.PRODUCT_SPECIFIC, product1, product2),
+        discount("P15", "15.00", DiscountType.PRODUCT_SPECIFIC, product1)));
+
+    // Act
+    long price = plan.price(new long[] {1L, 1L, 2L}, new long[] {1999L, 1999L, 555L});
+
+    // Assert
+    // 19.99 - 5.00 (25% of 19.9875) = 14.99 twice, 5.55 - 0.56 (10% of 0.555) = 4.99
+    assertEquals(3497L, price);
+  }
+
+  @Test
+  @DisplayName("Given general discounts, when pricing basket, "
+      + "then apply them one after another to the running total")
+  void givenGeneralDiscounts_whenPricingBasket_thenApplyThemOneAfterAnother() {
+    // Arrange
+    PricingPlan plan = PricingPlan.compile(List.of(
+        discount("P10", "10.00", DiscountType.PRODUCT_SPECIFIC, product2),
+        discount("G20", "20.00", DiscountType.GENERAL),
+        discount("G5", "5.00", DiscountType.GENERAL)));
+
+    // Act
+    long price = plan.price(new long[] {1L, 2L}, new long[] {1999L, 555L});
+
+    // Assert
+    // 19.99 + 4.99 = 24.98, minus 5.00 = 19.98, minus 1.00 (5% of 0.999) = 18.98
+    assertEquals(1898L, price);
+  }
+
+  @Test
+  @DisplayName("Given many discounted products, when pricing basket, "
+      + "then find the percentage of every product")
+  void givenManyDiscountedProducts_whenPricingBasket_thenFindPercentageOfEveryProduct() {
+    // Arrange
+    Product[] products = new Product[100];
+    for (int i = 0; i < products.length; i++) {
+      products[i] = new Product(1000L + i * 64, "Product " + i, new BigDecimal("10.00"), 1);
+    }
+    PricingPlan plan = PricingPlan.compile(List.of(
+        discount("ALL50", "50.00", DiscountType.PRODUCT_SPECIFIC, products)));
+    long[] itemIds = new long[products.length];
+    long[] itemPrices = new long[products.length];
+    for (int i = 0; i < products.length; i++) {
+      itemIds[i] = products[i].getId();
+      itemPrices[i] = Money.toCents(products[i].getPrice());
+    }
+
+    // Act
+    long price = plan.price(itemIds, itemPrices);
+
+    // Assert
+    assertEquals(50_000L, price);
+  }
+
+  private DiscountDefinition discount(String code, String percentage, DiscountType type,
+                                      Product... applicableProducts) {
+    return new DiscountDefinition(null, code, type, new BigDecimal(percentage),
+        LocalDate.now().minusDays(1), LocalDate.now().plusDays(1),
+        Stream.of(applicableProducts).map(Product::getId).collect(Collectors.toSet()));
+  }
+}
@@ -0,0 +1,150 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.model.Product;
+import com.example.digigoods.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogCacheTest {
+
+  @Mock
+  private ProductRepository productRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+  private ProductCatalogCache productCatalogCache;
+
+  private final Product product1 = new Product(1L, "Product 1", new BigDecimal("10.00"), 5);
+  private final Product product2 = new Product(2L, "Product 2", new BigDecimal("20.00"), 3);
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    productCatalogCache = new ProductCatalogCache(productRepository, meterRegistry);
+    ReflectionTestUtils.setField(productCatalogCache, "maxSize", 100);
+    ReflectionTestUtils.setField(productCatalogCache, "ttlMillis", 60_000L);
+  }
+
+  @Test
+  @DisplayName("Given cold cache, when getting entries with duplicates, then load misses in "
+      + "one query")
+  void givenColdCache_whenGettingEntriesWithDuplicates_thenLoadMissesInOneQuery() {
+    // Arrange
+    when(productRepository.findAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(product1, product2));
+
+    // Act
+    Map<Long, CatalogEntry> entries = productCatalogCache.getEntries(List.of(1L, 2L, 1L));
+
+    // Assert
+    assertEquals(new CatalogEntry(1L, "Product 1", new BigDecimal("10.00")), entries.get(1L));
+    assertEquals(new CatalogEntry(2L, "Product 2", new BigDecimal("20.00")), entries.get(2L));
+    assertEquals(2.0, meterRegistry.counter("catalog.cache.misses").count());
+  }
+
+  @Test
+  @DisplayName("Given warm cache, when getting entries, then serve them without query")
+  void givenWarmCache_whenGettingEntries_thenServeThemWithoutQuery() {
+    // Arrange
+    when(productRepository.findAllByIdIn(List.of(1L))).thenReturn(List.of(product1));
+    productCatalogCache.getEntries(List.of(1L));
+
+    // Act
+    Map<Long, CatalogEntry> entries = productCatalogCache.getEntries(List.of(1L));
+
+    // Assert
+    assertEquals("Product 1", entries.get(1L).name());
+    verify(productRepository, times(1)).findAllByIdIn(anyList());
+    assertEquals(0.5, meterRegistry.get("catalog.cache.hit.ratio").gauge().value());
+  }
+
+  @Test
+  @DisplayName("Given invalidated entry, when getting entries, then reload only that entry")
+  void givenInvalidatedEntry_whenGettingEntries_thenReloadOnlyThatEntry() {
+    // Arrange
+    when(productRepository.findAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(product1, product2));
+    productCatalogCache.getEntries(List.of(1L, 2L));
+    Product renamed = new Product(1L, "Renamed", new BigDecimal("12.00"), 5);
+    when(productRepository.findAllByIdIn(List.of(1L))).thenReturn(List.of(renamed));
+
+    // Act
+    productCatalogCache.invalidate(1L);
+    Map<Long, CatalogEntry> entries = productCatalogCache.getEntries(List.of(1L, 2L));
+
+    // Assert
+    assertEquals(new CatalogEntry(1L, "Renamed", new BigDecimal("12.00")), entries.get(1L));
+    assertEquals("Product 2", entries.get(2L).name());
+  }
+
+  @Test
+  @DisplayName("Given invalidation during load, when getting entries, then do not cache load")
+  void givenInvalidationDuringLoad_whenGettingEntries_thenDoNotCacheLoad() {
+    // Arrange
+    when(productRepository.findAllByIdIn(List.of(1L))).thenAnswer(invocation -> {
+      productCatalogCache.invalidate(1L);
+      return List.of(product1);
+    });
+
+    // Act
+    Map<Long, CatalogEntry> entries = productCatalogCache.getEntries(List.of(1L));
+    productCatalogCache.getEntries(List.of(1L));
+
+    // Assert
+    assertEquals("Product 1", entries.get(1L).name());
+    verify(productRepository, times(2)).findAllByIdIn(List.of(1L));
+  }
+
+  @Test
+  @DisplayName("Given expired entry, when getting entries, then reload it")
+  void givenExpiredEntry_whenGettingEntries_thenReloadIt() {
+    // Arrange
+    ReflectionTestUtils.setField(productCatalogCache, "ttlMillis", -1L);
+    when(productRepository.findAllByIdIn(List.of(1L))).thenReturn(List.of(product1));
+    productCatalogCache.getEntries(List.of(1L));
+
+    // Act
+    productCatalogCache.getEntries(List.of(1L));
+
+    // Assert
+    verify(productRepository, times(2)).findAllByIdIn(List.of(1L));
+  }
+
+  @Test
+  @DisplayName("Given unknown product, when getting entries, then leave it out")
+  void givenUnknownProduct_whenGettingEntries_thenLeaveItOut() {
+    // Arrange
+    when(productRepository.findAllByIdIn(List.of(99L))).thenReturn(List.of());
+
+    // Act
+    Map<Long, CatalogEntry> entries = productCatalogCache.getEntries(List.of(99L));
+
+    // Assert
+    assertTrue(entries.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Given empty basket, when getting entries, then skip the query")
+  void givenEmptyBasket_whenGettingEntries_thenSkipTheQuery() {
+    // Act
+    productCatalogCache.getEntries(List.of());
+
+    // Assert
+    verify(productRepository, never()).findAllByIdIn(anyList());
+  }
+}
@@ -0,0 +1,79 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.ProductResponse;
+import com.example.digigoods.service.ProductCatalogSnapshot.Snapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogSnapshotTest {
+
+  @Mock
+  private ProductService productService;
+
+  private ProductCatalogVersion catalogVersion;
+  private ProductCatalogSnapshot productCatalogSnapshot;
+
+  @BeforeEach
+  void setUp() {
+    catalogVersion = new ProductCatalogVersion();
+    productCatalogSnapshot = new ProductCatalogSnapshot(productService, catalogVersion,
+        new ObjectMapper());
+    ReflectionTestUtils.setField(productCatalogSnapshot, "maxAgeMillis", 60_000L);
+  }
+
+  @Test
+  @DisplayName("Given rebuild in progress, when getting snapshot, then return previous one "
+      + "without waiting")
+  void givenRebuildInProgress_whenGettingSnapshot_thenReturnPreviousOneWithoutWaiting()
+      throws Exception {
+    // Arrange
+    CountDownLatch rebuildStarted = new CountDownLatch(1);
+    CountDownLatch rebuildReleased = new CountDownLatch(1);
+    when(productService.getAllProducts())
+        .thenReturn(List.of(product(5)))
+        .thenAnswer(invocation -> {
+          rebuildStarted.countDown();
+          assertTrue(rebuildReleased.await(10, TimeUnit.SECONDS));
+          return List.of(product(4));
+        });
+    final Snapshot previous = productCatalogSnapshot.current();
+    catalogVersion.markChanged();
+    CompletableFuture<Snapshot> rebuild = CompletableFuture.supplyAsync(
+        productCatalogSnapshot::current);
+    assertTrue(rebuildStarted.await(10, TimeUnit.SECONDS));
+
+    // Act
+    Snapshot duringRebuild = productCatalogSnapshot.current();
+    rebuildReleased.countDown();
+    Snapshot rebuilt = rebuild.get(10, TimeUnit.SECONDS);
+
+    // Assert
+    assertEquals(previous.etag(), duringRebuild.etag());
+    assertNotEquals(previous.etag(), rebuilt.etag());
+    assertEquals(rebuilt.etag(), productCatalogSnapshot.current().etag());
+    verify(productService, times(2)).getAllProducts();
+  }
+
+  private static ProductResponse product(int stock) {
+    return new ProductResponse(1L, "Product 1", new BigDecimal("10.00"), stock);
+  }
+}
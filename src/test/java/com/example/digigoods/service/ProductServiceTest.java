@@ -1,19 +1,30 @@
 package com.example.digigoods.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.example.digigoods.dto.ProductPageResponse;
+import com.example.digigoods.dto.ProductResponse;
+import com.example.digigoods.dto.ProductSearchRequest;
 import com.example.digigoods.exception.InsufficientStockException;
 import com.example.digigoods.exception.ProductNotFoundException;
 import com.example.digigoods.model.Product;
 import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.ProductSearchCriteria;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,6 +32,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
@@ -28,16 +41,105 @@ class ProductServiceTest {
   @Mock
   private ProductRepository productRepository;
 
+  @Mock
+  private StockShardService stockShardService;
+
+  @Mock
+  private StockLedgerService stockLedgerService;
+
+  @Mock
+  private ProductCatalogCache productCatalogCache;
+
+  @Mock
+  private ProductCatalogVersion catalogVersion;
+
   @InjectMocks
   private ProductService productService;
 
   private Product product1;
   private Product product2;
+  private ProductResponse response1;
+  private ProductResponse response2;
 
   @BeforeEach
   void setUp() {
     product1 = new Product(1L, "Product 1", new BigDecimal("10.00"), 5);
     product2 = new Product(2L, "Product 2", new BigDecimal("20.00"), 3);
+    response1 = new ProductResponse(1L, "Product 1", new BigDecimal("10.00"), 5);
+    response2 = new ProductResponse(2L, "Product 2", new BigDecimal("20.00"), 3);
+    ReflectionTestUtils.setField(productService, "maxPageSize", 2);
+  }
+
+  @Test
+  @DisplayName("Given more products than page size, when getting page, then return cursor "
+      + "of last product")
+  void givenMoreProductsThanPageSize_whenGettingPage_thenReturnCursorOfLastProduct() {
+    // Arrange
+    ProductResponse response3 = new ProductResponse(3L, "Product 3", new BigDecimal("30.00"), 1);
+    when(productRepository.findResponsesAfter(Long.MIN_VALUE, Limit.of(3)))
+        .thenReturn(List.of(response1, response2, response3));
+
+    // Act
+    ProductPageResponse page = productService.getProductPage(null, 100);
+
+    // Assert
+    assertEquals(List.of(response1, response2), page.getProducts());
+    assertEquals(2L, page.getNextCursor());
+  }
+
+  @Test
+  @DisplayName("Given last page, when getting page, then return null cursor")
+  void givenLastPage_whenGettingPage_thenReturnNullCursor() {
+    // Arrange
+    when(productRepository.findResponsesAfter(1L, Limit.of(3)))
+        .thenReturn(List.of(response2));
+
+    // Act
+    ProductPageResponse page = productService.getProductPage(1L, 2);
+
+    // Assert
+    assertEquals(List.of(response2), page.getProducts());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  @DisplayName("Given search text and prefix, when searching, then pass normalized criteria")
+  void givenSearchTextAndPrefix_whenSearching_thenPassNormalizedCriteria() {
+    // Arrange
+    ProductSearchRequest request = new ProductSearchRequest("  Online COURSE online ", " Ja ",
+        new BigDecimal("5.00"), new BigDecimal("50.00"), false, 10, 7L);
+    ProductSearchCriteria expected = new ProductSearchCriteria(List.of("online", "course"),
+        "ja", new BigDecimal("5.00"), new BigDecimal("50.00"), false, Set.of(), 7L);
+    when(productRepository.search(expected, 3)).thenReturn(List.of(response1, response2));
+
+    // Act
+    ProductPageResponse page = productService.searchProducts(request);
+
+    // Assert
+    assertEquals(List.of(response1, response2), page.getProducts());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  @DisplayName("Given in-stock filter and ledger stock run out, when searching, then drop "
+      + "product but keep cursor")
+  void givenInStockFilterAndLedgerStockRunOut_whenSearching_thenDropProductButKeepCursor() {
+    // Arrange
+    ProductSearchRequest request = new ProductSearchRequest();
+    request.setInStock(true);
+    ProductResponse response3 = new ProductResponse(3L, "Product 3", new BigDecimal("30.00"), 1);
+    when(stockShardService.getAllShardedStock()).thenReturn(Map.of(4L, 8, 5L, 0));
+    when(stockLedgerService.getTrackedStock()).thenReturn(Map.of(2L, 0));
+    when(productRepository.search(new ProductSearchCriteria(List.of(), null, null, null, true,
+        Set.of(4L), null), 3)).thenReturn(List.of(response1, response2, response3));
+
+    // Act
+    ProductPageResponse page = productService.searchProducts(request);
+
+    // Assert
+    assertEquals(List.of(response1), page.getProducts());
+    assertEquals(2L, page.getNextCursor());
+    verify(stockShardService, times(1)).getAllShardedStock();
   }
 
   @Test
@@ -70,21 +172,55 @@ class ProductServiceTest {
         () -> productService.getProductsByIds(productIds));
   }
 
+  @Test
+  @DisplayName("Given cached products, when getting catalog entries, then return entries")
+  void givenCachedProducts_whenGettingCatalogEntries_thenReturnEntries() {
+    // Arrange
+    List<Long> productIds = List.of(1L, 1L, 2L);
+    Map<Long, CatalogEntry> entries = Map.of(
+        1L, new CatalogEntry(1L, "Product 1", new BigDecimal("10.00")),
+        2L, new CatalogEntry(2L, "Product 2", new BigDecimal("20.00")));
+    when(productCatalogCache.getEntries(productIds)).thenReturn(entries);
+
+    // Act
+    Map<Long, CatalogEntry> result = productService.getCatalogEntries(productIds);
+
+    // Assert
+    assertEquals(entries, result);
+    verify(productRepository, never()).findAllByIdIn(anyList());
+  }
+
+  @Test
+  @DisplayName("Given unknown product, when getting catalog entries, "
+      + "then throw ProductNotFoundException")
+  void givenUnknownProduct_whenGettingCatalogEntries_thenThrowProductNotFoundException() {
+    // Arrange
+    List<Long> productIds = List.of(1L, 3L);
+    when(productCatalogCache.getEntries(productIds)).thenReturn(
+        Map.of(1L, new CatalogEntry(1L, "Product 1", new BigDecimal("10.00"))));
+
+    // Act & Assert
+    ProductNotFoundException exception = assertThrows(ProductNotFoundException.class,
+        () -> productService.getCatalogEntries(productIds));
+    assertEquals("Products not found with IDs: [3]", exception.getMessage());
+  }
+
   @Test
   @DisplayName("Given sufficient stock, when validating and updating stock, "
-      + "then update stock successfully")
-  void givenSufficientStock_whenValidatingAndUpdatingStock_thenUpdateStockSuccessfully() {
+      + "then decrement stock in a single batch")
+  void givenSufficientStock_whenValidatingAndUpdatingStock_thenDecrementStockInSingleBatch() {
     // Arrange
-    List<Long> productIds = List.of(1L, 1L, 2L); // 2 of product1, 1 of product2
-    when(productRepository.findAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(product1, product2));
+    List<Long> productIds = List.of(2L, 1L, 1L); // 2 of product1, 1 of product2
+    Map<Long, Integer> expectedQuantities = new TreeMap<>(Map.of(1L, 2, 2L, 1));
+    when(productRepository.decrementStock(expectedQuantities)).thenReturn(new int[] {1, 1});
 
     // Act
     productService.validateAndUpdateStock(productIds);
 
     // Assert
-    assertEquals(3, product1.getStock()); // 5 - 2 = 3
-    assertEquals(2, product2.getStock()); // 3 - 1 = 2
-    verify(productRepository, times(2)).save(any(Product.class));
+    verify(productRepository).decrementStock(expectedQuantities);
+    verify(productRepository, never()).findAllByIdIn(anyList());
+    verify(productRepository, never()).save(any(Product.class));
   }
 
   @Test
@@ -93,10 +229,108 @@ class ProductServiceTest {
   void givenInsufficientStock_whenValidatingAndUpdatingStock_thenThrowInsufficientStockException() {
     // Arrange
     List<Long> productIds = List.of(1L, 1L, 1L, 1L, 1L, 1L); // 6 of product1, but only 5 in stock
-    when(productRepository.findAllByIdIn(anyList())).thenReturn(List.of(product1));
+    when(productRepository.decrementStock(anyMap())).thenReturn(new int[] {0});
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+
+    // Act & Assert
+    InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+        () -> productService.validateAndUpdateStock(productIds));
+    assertEquals("Insufficient stock for product 1. Requested: 6, Available: 5",
+        exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Given one short product in basket, when validating and updating stock, "
+      + "then report the short product")
+  void givenOneShortProductInBasket_whenValidatingAndUpdatingStock_thenReportShortProduct() {
+    // Arrange
+    List<Long> productIds = List.of(1L, 2L, 2L, 2L, 2L); // product2 has only 3 in stock
+    when(productRepository.decrementStock(anyMap())).thenReturn(new int[] {1, 0});
+    when(productRepository.findById(2L)).thenReturn(Optional.of(product2));
 
     // Act & Assert
-    assertThrows(InsufficientStockException.class,
+    InsufficientStockException exception = assertThrows(InsufficientStockException.class,
         () -> productService.validateAndUpdateStock(productIds));
+    assertEquals("Insufficient stock for product 2. Requested: 4, Available: 3",
+        exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Given unknown product, when validating and updating stock, "
+      + "then throw ProductNotFoundException")
+  void givenUnknownProduct_whenValidatingAndUpdatingStock_thenThrowProductNotFoundException() {
+    // Arrange
+    List<Long> productIds = List.of(99L);
+    when(productRepository.decrementStock(anyMap())).thenReturn(new int[] {0});
+    when(productRepository.findById(99L)).thenReturn(Optional.empty());
+
+    // Act & Assert
+    assertThrows(ProductNotFoundException.class,
+        () -> productService.validateAndUpdateStock(productIds));
+  }
+
+  @Test
+  @DisplayName("Given sharded product in basket, when validating and updating stock, "
+      + "then decrement only unsharded products in batch")
+  void givenShardedProductInBasket_whenValidatingAndUpdatingStock_thenBatchOnlyUnsharded() {
+    // Arrange
+    List<Long> productIds = List.of(1L, 2L);
+    when(stockShardService.reserveStock(anyMap())).thenReturn(Set.of(2L));
+    when(productRepository.decrementStock(Map.of(1L, 1))).thenReturn(new int[] {1});
+
+    // Act
+    productService.validateAndUpdateStock(productIds);
+
+    // Assert
+    verify(productRepository).decrementStock(Map.of(1L, 1));
+  }
+
+  @Test
+  @DisplayName("Given sharded product, when getting all products, "
+      + "then return stock summed over shards")
+  void givenShardedProduct_whenGettingAllProducts_thenReturnStockSummedOverShards() {
+    // Arrange
+    ProductResponse shardedProduct = new ProductResponse(2L, "Product 2",
+        new BigDecimal("20.00"), 0);
+    when(productRepository.findAllResponses()).thenReturn(List.of(response1, shardedProduct));
+    when(stockShardService.getAllShardedStock()).thenReturn(Map.of(2L, 40));
+
+    // Act
+    List<ProductResponse> products = productService.getAllProducts();
+
+    // Assert
+    assertEquals(5, products.get(0).getStock());
+    assertEquals(40, products.get(1).getStock());
+  }
+
+  @Test
+  @DisplayName("Given sharded product, when getting total stock, then return sum of shards")
+  void givenShardedProduct_whenGettingTotalStock_thenReturnSumOfShards() {
+    // Arrange
+    Product shardedProduct = new Product(2L, "Product 2", new BigDecimal("20.00"), 0);
+    when(productRepository.findById(2L)).thenReturn(Optional.of(shardedProduct));
+    when(stockShardService.getShardedStock(2L)).thenReturn(Optional.of(40));
+
+    // Act
+    int totalStock = productService.getTotalStock(2L);
+
+    // Assert
+    assertEquals(40, totalStock);
+  }
+
+  @Test
+  @DisplayName("Given stock ledger enabled, when validating and updating stock, "
+      + "then reserve basket in ledger only")
+  void givenStockLedgerEnabled_whenValidatingAndUpdatingStock_thenReserveBasketInLedgerOnly() {
+    // Arrange
+    List<Long> productIds = List.of(1L, 1L, 2L);
+    when(stockLedgerService.isEnabled()).thenReturn(true);
+
+    // Act
+    productService.validateAndUpdateStock(productIds);
+
+    // Assert
+    verify(stockLedgerService).reserve(Map.of(1L, 2, 2L, 1));
+    verify(productRepository, never()).decrementStock(anyMap());
   }
 }
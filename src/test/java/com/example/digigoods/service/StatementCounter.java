@@ -0,0 +1,80 @@
+package com.example.digigoods.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Counts the statements executed through the application's {@link DataSource}, by Hibernate
+ * and by {@code JdbcTemplate} alike. Each execution, including each executed batch, is one
+ * round trip to the database.
+ */
+class StatementCounter implements BeanPostProcessor {
+
+  private final AtomicInteger executions = new AtomicInteger();
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof DataSource dataSource) {
+      return wrap(DataSource.class, dataSource, this::wrapConnection);
+    }
+    return bean;
+  }
+
+  /**
+   * Get the number of statements executed since the last reset.
+   *
+   * @return the number of executions
+   */
+  int getExecutions() {
+    return executions.get();
+  }
+
+  /**
+   * Start counting from zero.
+   */
+  void reset() {
+    executions.set(0);
+  }
+
+  private Object wrapConnection(Method method, Object result) {
+    return result instanceof Connection connection
+        ? wrap(Connection.class, connection, this::wrapStatement)
+        : result;
+  }
+
+  private Object wrapStatement(Method method, Object result) {
+    if (result instanceof Statement statement) {
+      return wrap(method.getReturnType(), statement, (called, returned) -> {
+        if (called.getName().startsWith("execute")) {
+          executions.incrementAndGet();
+        }
+        return returned;
+      });
+    }
+    return result;
+  }
+
+  private static Object wrap(Class<?> type, Object target, ResultWrapper resultWrapper) {
+    InvocationHandler handler = (proxy, method, args) -> {
+      try {
+        return resultWrapper.wrap(method, method.invoke(target, args));
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    };
+    return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+  }
+
+  @FunctionalInterface
+  private interface ResultWrapper {
+
+    Object wrap(Method method, Object result);
+  }
+}
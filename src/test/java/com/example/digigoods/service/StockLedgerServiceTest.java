@@ -0,0 +1,206 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.exception.InsufficientStockException;
+import com.example.digigoods.exception.ProductNotFoundException;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.repository.ProductRepository;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerServiceTest {
+
+  @Mock
+  private ProductRepository productRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @TempDir
+  private Path journalDir;
+
+  private StockLedgerService stockLedgerService;
+
+  @BeforeEach
+  void setUp() {
+    stockLedgerService = new StockLedgerService(productRepository, transactionManager);
+    ReflectionTestUtils.setField(stockLedgerService, "enabled", true);
+    ReflectionTestUtils.setField(stockLedgerService, "flushIntervalMillis", 60_000L);
+    ReflectionTestUtils.setField(stockLedgerService, "batchSize", 1_000);
+    ReflectionTestUtils.setField(stockLedgerService, "journalDir", journalDir.toString());
+    ReflectionTestUtils.setField(stockLedgerService, "journalFsync", false);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    ReflectionTestUtils.setField(stockLedgerService, "enabled", false);
+    stockLedgerService.stop();
+  }
+
+  @Test
+  @DisplayName("Given sufficient stock, when reserving, then decrement in memory without "
+      + "writing to the database")
+  void givenSufficientStock_whenReserving_thenDecrementInMemoryWithoutWritingToDatabase()
+      throws IOException {
+    // Arrange
+    stockLedgerService.start();
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, 5)));
+
+    // Act
+    stockLedgerService.reserve(Map.of(1L, 2));
+    stockLedgerService.reserve(Map.of(1L, 1));
+
+    // Assert
+    assertEquals(2, stockLedgerService.getAvailableStock(1L).getAsInt());
+    verify(productRepository, never()).subtractStock(anyMap());
+  }
+
+  @Test
+  @DisplayName("Given sharding enabled, when starting, then refuse to start")
+  void givenShardingEnabled_whenStarting_thenRefuseToStart() {
+    // Arrange
+    ReflectionTestUtils.setField(stockLedgerService, "shardingEnabled", true);
+
+    // Act & Assert
+    IllegalStateException exception = assertThrows(IllegalStateException.class,
+        () -> stockLedgerService.start());
+    assertEquals("inventory.ledger.enabled cannot be combined with inventory.sharding.enabled",
+        exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Given one short product, when reserving basket, then reserve nothing")
+  void givenOneShortProduct_whenReservingBasket_thenReserveNothing() throws IOException {
+    // Arrange
+    stockLedgerService.start();
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, 5)));
+    when(productRepository.findById(2L)).thenReturn(Optional.of(product(2L, 1)));
+
+    // Act & Assert
+    InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+        () -> stockLedgerService.reserve(Map.of(1L, 2, 2L, 3)));
+    assertEquals("Insufficient stock for product 2. Requested: 3, Available: 1",
+        exception.getMessage());
+    assertEquals(5, stockLedgerService.getAvailableStock(1L).getAsInt());
+  }
+
+  @Test
+  @DisplayName("Given unknown product, when reserving, then throw ProductNotFoundException")
+  void givenUnknownProduct_whenReserving_thenThrowProductNotFoundException() throws IOException {
+    // Arrange
+    stockLedgerService.start();
+    when(productRepository.findById(99L)).thenReturn(Optional.empty());
+
+    // Act & Assert
+    assertThrows(ProductNotFoundException.class,
+        () -> stockLedgerService.reserve(Map.of(99L, 1)));
+  }
+
+  @Test
+  @DisplayName("Given basket with unknown product, when reserving, then keep stock of the "
+      + "others")
+  void givenBasketWithUnknownProduct_whenReserving_thenKeepStockOfTheOthers()
+      throws IOException {
+    // Arrange
+    stockLedgerService.start();
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, 5)));
+    when(productRepository.findById(99L)).thenReturn(Optional.empty());
+
+    // Act & Assert
+    assertThrows(ProductNotFoundException.class,
+        () -> stockLedgerService.reserve(Map.of(1L, 2, 99L, 1)));
+    stockLedgerService.reserve(Map.of(1L, 5));
+    assertEquals(0, stockLedgerService.getAvailableStock(1L).getAsInt());
+  }
+
+  @Test
+  @DisplayName("Given pending reservations, when flushing, then write one batch and "
+      + "delete journal")
+  void givenPendingReservations_whenFlushing_thenWriteOneBatchAndDeleteJournal()
+      throws IOException {
+    // Arrange
+    stockLedgerService.start();
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, 5)));
+    when(productRepository.findById(2L)).thenReturn(Optional.of(product(2L, 5)));
+    stockLedgerService.reserve(Map.of(1L, 2));
+    stockLedgerService.reserve(Map.of(1L, 1, 2L, 4));
+
+    // Act
+    stockLedgerService.flush();
+
+    // Assert
+    verify(productRepository).subtractStock(Map.of(1L, 3, 2L, 4));
+    assertTrue(journalContents().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Given failing database, when flushing, then keep journal and retry later")
+  void givenFailingDatabase_whenFlushing_thenKeepJournalAndRetryLater() throws IOException {
+    // Arrange
+    stockLedgerService.start();
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, 5)));
+    stockLedgerService.reserve(Map.of(1L, 2));
+    doThrow(new DataAccessResourceFailureException("down"))
+        .when(productRepository).subtractStock(Map.of(1L, 2));
+
+    // Act
+    stockLedgerService.flush();
+
+    // Assert
+    assertEquals("1 2\n", journalContents());
+  }
+
+  @Test
+  @DisplayName("Given journal left by a crash, when starting, then apply it to the database")
+  void givenJournalLeftByCrash_whenStarting_thenApplyItToDatabase() throws IOException {
+    // Arrange
+    Files.writeString(journalDir.resolve("segment-00000000000000000003.log"),
+        "1 2\n2 1\n1 3\n2 -1\n");
+
+    // Act
+    stockLedgerService.start();
+
+    // Assert
+    verify(productRepository).subtractStock(Map.of(1L, 5));
+    assertTrue(journalContents().isEmpty());
+  }
+
+  private Product product(Long id, int stock) {
+    return new Product(id, "Product " + id, new BigDecimal("10.00"), stock);
+  }
+
+  private String journalContents() throws IOException {
+    StringBuilder contents = new StringBuilder();
+    try (Stream<Path> files = Files.list(journalDir)) {
+      for (Path file : files.sorted().toList()) {
+        contents.append(Files.readString(file));
+      }
+    }
+    return contents.toString();
+  }
+}
@@ -0,0 +1,178 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.exception.InsufficientStockException;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.ProductStockShard;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.ProductStockShardRepository;
+import com.example.digigoods.repository.ProductStockShardRepository.ShardCount;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class StockShardServiceTest {
+
+  @Mock
+  private ProductStockShardRepository shardRepository;
+
+  @Mock
+  private ProductRepository productRepository;
+
+  @InjectMocks
+  private StockShardService stockShardService;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(stockShardService, "enabled", true);
+    ReflectionTestUtils.setField(stockShardService, "hotProductIds", List.of());
+    ReflectionTestUtils.setField(stockShardService, "shardCount", 4);
+  }
+
+  @Test
+  @DisplayName("Given sharding disabled, when reserving stock, then reserve nothing")
+  void givenShardingDisabled_whenReservingStock_thenReserveNothing() {
+    // Arrange
+    ReflectionTestUtils.setField(stockShardService, "enabled", false);
+
+    // Act
+    Set<Long> reserved = stockShardService.reserveStock(Map.of(1L, 1));
+
+    // Assert
+    assertTrue(reserved.isEmpty());
+    verifyNoInteractions(shardRepository);
+  }
+
+  @Test
+  @DisplayName("Given a shard with enough stock, when reserving stock, "
+      + "then decrement that shard only")
+  void givenShardWithEnoughStock_whenReservingStock_thenDecrementThatShardOnly() {
+    // Arrange
+    when(shardRepository.countShardsByProductIdIn(anyCollection()))
+        .thenReturn(List.of(shardCount(1L, 4L)));
+    when(shardRepository.decrementShard(eq(1L), anyInt(), eq(2))).thenReturn(1);
+
+    // Act
+    Set<Long> reserved = stockShardService.reserveStock(Map.of(1L, 2, 2L, 1));
+
+    // Assert
+    assertEquals(Set.of(1L), reserved);
+    verify(shardRepository, never()).findAllByProductIdOrderByShardNo(1L);
+  }
+
+  @Test
+  @DisplayName("Given no single shard with enough stock, when reserving stock, "
+      + "then drain several shards")
+  void givenNoSingleShardWithEnoughStock_whenReservingStock_thenDrainSeveralShards() {
+    // Arrange
+    List<ProductStockShard> shards = List.of(
+        new ProductStockShard(1L, 0, 2),
+        new ProductStockShard(1L, 1, 2));
+    when(shardRepository.countShardsByProductIdIn(anyCollection()))
+        .thenReturn(List.of(shardCount(1L, 2L)));
+    when(shardRepository.decrementShard(eq(1L), anyInt(), eq(3))).thenReturn(0);
+    when(shardRepository.findAllByProductIdOrderByShardNo(1L)).thenReturn(shards);
+
+    // Act
+    stockShardService.reserveStock(Map.of(1L, 3));
+
+    // Assert
+    assertEquals(0, shards.get(0).getStock());
+    assertEquals(1, shards.get(1).getStock());
+    verify(shardRepository).saveAll(shards);
+  }
+
+  @Test
+  @DisplayName("Given shards without enough total stock, when reserving stock, "
+      + "then throw InsufficientStockException")
+  void givenShardsWithoutEnoughTotalStock_whenReservingStock_thenThrowException() {
+    // Arrange
+    when(shardRepository.countShardsByProductIdIn(anyCollection()))
+        .thenReturn(List.of(shardCount(1L, 2L)));
+    when(shardRepository.decrementShard(eq(1L), anyInt(), eq(5))).thenReturn(0);
+    when(shardRepository.findAllByProductIdOrderByShardNo(1L)).thenReturn(List.of(
+        new ProductStockShard(1L, 0, 2),
+        new ProductStockShard(1L, 1, 2)));
+
+    // Act & Assert
+    InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+        () -> stockShardService.reserveStock(Map.of(1L, 5)));
+    assertEquals("Insufficient stock for product 1. Requested: 5, Available: 4",
+        exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Given product stock, when sharding product, then split stock evenly")
+  void givenProductStock_whenShardingProduct_thenSplitStockEvenly() {
+    // Arrange
+    Product product = new Product(1L, "Online Course", new BigDecimal("99.99"), 10);
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+    when(shardRepository.findAllByProductIdOrderByShardNo(1L)).thenReturn(List.of());
+
+    // Act
+    stockShardService.shardProduct(1L, 4);
+
+    // Assert
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<ProductStockShard>> captor = ArgumentCaptor.forClass(List.class);
+    verify(shardRepository).saveAll(captor.capture());
+    assertEquals(List.of(3, 3, 2, 2),
+        captor.getValue().stream().map(ProductStockShard::getStock).toList());
+    assertEquals(0, product.getStock());
+  }
+
+  @Test
+  @DisplayName("Given sharded product, when unsharding product, then restore product stock")
+  void givenShardedProduct_whenUnshardingProduct_thenRestoreProductStock() {
+    // Arrange
+    Product product = new Product(1L, "Online Course", new BigDecimal("99.99"), 0);
+    List<ProductStockShard> shards = List.of(
+        new ProductStockShard(1L, 0, 3),
+        new ProductStockShard(1L, 1, 4));
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+    when(shardRepository.findAllByProductIdOrderByShardNo(1L)).thenReturn(shards);
+
+    // Act
+    stockShardService.unshardProduct(1L);
+
+    // Assert
+    assertEquals(7, product.getStock());
+    verify(shardRepository).deleteAll(shards);
+  }
+
+  private ShardCount shardCount(Long productId, Long count) {
+    return new ShardCount() {
+      @Override
+      public Long getProductId() {
+        return productId;
+      }
+
+      @Override
+      public Long getShardCount() {
+        return count;
+      }
+    };
+  }
+}